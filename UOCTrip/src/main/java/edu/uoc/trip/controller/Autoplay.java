@@ -0,0 +1,316 @@
+package edu.uoc.trip.controller;
+
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.levels.LevelTemplate;
+import edu.uoc.trip.model.solver.AnytimeSolver;
+import edu.uoc.trip.model.solver.Move;
+import edu.uoc.trip.model.solver.Solution;
+import edu.uoc.trip.model.solver.Solver;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Solve for me" mode of a game. It finds a solution of the current level in a background thread and then makes
+ * its moves in the game one by one, with a delay between them, so that the views can show each step.<br/><br/>
+ *
+ * The moves are made, and the listener is called, through the executor given to {@link #start(Executor, Listener)}
+ * (e.g. Platform::runLater in the GUI), so the game is only modified by the thread that owns it and that thread
+ * is never blocked by the search. If the game changes during the playback (e.g. the player makes a move),
+ * the playback stops.
+ *
+ * @version 1.0
+ */
+public final class Autoplay {
+
+    /**
+     * Default delay between two moves.
+     */
+    public static final Duration DEFAULT_DELAY = Duration.ofMillis(500);
+
+    /**
+     * Background threads that look for the solutions. They are daemon threads, so they do not keep
+     * the program running.
+     */
+    private static final ExecutorService SOLVERS = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "autoplay-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Background thread that waits for the delays between moves.
+     */
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "autoplay-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Receives the progress of a playback. Its methods are called through the executor of the playback.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the solution has been found, before its first move is made.
+         *
+         * @param solution Solution that is going to be played.
+         */
+        default void onSolution(Solution solution) {
+        }
+
+        /**
+         * Called after each move has been made in the game.
+         *
+         * @param move Move that has been made.
+         */
+        void onStep(Move move);
+
+        /**
+         * Called when the playback ends, unless it has been cancelled.
+         *
+         * @param solved True if the level is solved. False if no solution was found (or the solver failed)
+         *               or the game changed.
+         */
+        void onFinished(boolean solved);
+    }
+
+    /**
+     * Game whose levels are solved.
+     */
+    private final Game game;
+
+    /**
+     * Solver that finds the solutions.
+     */
+    private final Solver solver;
+
+    /**
+     * Delay between two moves.
+     */
+    private volatile Duration delay = DEFAULT_DELAY;
+
+    /**
+     * Current playback, or null if there is none.
+     */
+    private Playback playback;
+
+    /**
+     * Constructor with an AnytimeSolver with its default budget.
+     *
+     * @param game Game whose levels are solved.
+     */
+    public Autoplay(Game game) {
+        this(game, new AnytimeSolver());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param game Game whose levels are solved.
+     * @param solver Solver that finds the solutions.
+     */
+    public Autoplay(Game game, Solver solver) {
+        this.game = Objects.requireNonNull(game);
+        this.solver = Objects.requireNonNull(solver);
+    }
+
+    /**
+     * Getter of the attribute "delay".
+     *
+     * @return Delay between two moves.
+     */
+    public Duration getDelay() {
+        return delay;
+    }
+
+    /**
+     * Setter of the attribute "delay". It can be changed during a playback.
+     *
+     * @param delay Delay between two moves.
+     * @throws IllegalArgumentException When the delay is negative.
+     */
+    public void setDelay(Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("Wrong delay: " + delay);
+        }
+        this.delay = delay;
+    }
+
+    /**
+     * Starts solving the current level of the game and playing the solution. It returns immediately.
+     * It must be called from the thread that owns the game.
+     *
+     * @param executor Executor of the thread that owns the game, which makes the moves and calls the listener.
+     * @param listener Listener of the progress of the playback.
+     * @throws LevelException When the game has no current level.
+     * @throws IllegalStateException When there is another playback running.
+     */
+    public void start(Executor executor, Listener listener) throws LevelException {
+        if (isRunning()) {
+            throw new IllegalStateException("There is another playback running");
+        }
+        playback = new Playback(game.snapshot(), executor, Objects.requireNonNull(listener));
+        playback.search = SOLVERS.submit(playback::solve);
+    }
+
+    /**
+     * Stops the current playback, if any. The listener is not called anymore.
+     * It must be called from the thread that owns the game.
+     */
+    public void cancel() {
+        if (playback != null) {
+            playback.cancelled = true;
+            playback.search.cancel(true);
+            playback = null;
+        }
+    }
+
+    /**
+     * Checks if there is a playback running, i.e. started and neither finished nor cancelled.
+     * It must be called from the thread that owns the game.
+     *
+     * @return True if there is a playback running. Otherwise, false.
+     */
+    public boolean isRunning() {
+        return playback != null && !playback.finished;
+    }
+
+    /**
+     * Playback of a solution of the level that was current when it started.
+     */
+    private final class Playback {
+
+        private final LevelTemplate snapshot;
+
+        private final Executor executor;
+
+        private final Listener listener;
+
+        /**
+         * Number of the level and number of moves of the game when the playback started.
+         */
+        private final int level;
+        private final int initialMoves;
+
+        /**
+         * Task that looks for the solution.
+         */
+        private volatile Future<?> search;
+
+        private volatile boolean cancelled;
+
+        /**
+         * Whether the playback has ended. It is only used by the thread that owns the game.
+         */
+        private boolean finished;
+
+        private Playback(LevelTemplate snapshot, Executor executor, Listener listener) {
+            this.snapshot = snapshot;
+            this.executor = executor;
+            this.listener = listener;
+            this.level = game.getCurrentLevel();
+            this.initialMoves = game.getNumMoves();
+        }
+
+        /**
+         * Looks for the solution in a background thread. If the solver fails (e.g. it runs out of memory),
+         * the playback finishes as if no solution had been found, so whoever waits for it is not blocked.
+         */
+        private void solve() {
+            Optional<Solution> solution;
+
+            try {
+                solution = solver.solve(snapshot.newLevel());
+            } catch (RuntimeException | VirtualMachineError e) {
+                solution = Optional.empty();
+            }
+
+            if (cancelled) {
+                return;
+            }
+            if (solution.isEmpty()) {
+                executor.execute(() -> finish(false));
+                return;
+            }
+            Solution found = solution.get();
+            executor.execute(() -> {
+                if (!cancelled) {
+                    listener.onSolution(found);
+                    schedule(found, 0);
+                }
+            });
+        }
+
+        /**
+         * Makes a move after the delay.
+         *
+         * @param solution Solution that is played.
+         * @param step Index of the move.
+         */
+        private void schedule(Solution solution, int step) {
+            if (step == solution.getNumMoves()) {
+                finish(isSolved());
+                return;
+            }
+            TIMER.schedule(() -> executor.execute(() -> play(solution, step)), delay.toNanos(),
+                    TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Makes a move in the game, in the thread that owns it.
+         *
+         * @param solution Solution that is played.
+         * @param step Index of the move.
+         */
+        private void play(Solution solution, int step) {
+            if (cancelled) {
+                return;
+            }
+
+            //The solution is only valid for the state in which the level was when the playback started
+            if (game.getCurrentLevel() != level || game.getNumMoves() != initialMoves + step) {
+                finish(false);
+                return;
+            }
+
+            Move move = solution.getMoves().get(step);
+            try {
+                if (move.getType() == Move.Type.SWAP) {
+                    game.swap(move.getFirst(), move.getSecond());
+                } else {
+                    game.rotate(move.getFirst());
+                }
+            } catch (LevelException e) {
+                finish(false);
+                return;
+            }
+
+            listener.onStep(move);
+            schedule(solution, step + 1);
+        }
+
+        private boolean isSolved() {
+            try {
+                return game.isLevelSolved();
+            } catch (LevelException e) {
+                return false;
+            }
+        }
+
+        private void finish(boolean solved) {
+            if (!cancelled && !finished) {
+                finished = true;
+                listener.onFinished(solved);
+            }
+        }
+    }
+}
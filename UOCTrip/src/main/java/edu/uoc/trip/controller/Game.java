@@ -8,16 +8,22 @@ import edu.uoc.trip.model.levels.LevelDifficulty;
 
 import edu.uoc.trip.model.levels.LevelException;
 
+import edu.uoc.trip.model.levels.LevelSource;
+
+import edu.uoc.trip.model.levels.LevelTemplate;
+
 import edu.uoc.trip.model.utils.Coordinate;
 
 import java.io.*;
-import java.net.*;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Objects;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Controller class of the game. It is the middleware (or bridge) between the model and view classes.
@@ -29,6 +35,33 @@ import java.util.Objects;
  */
 public class Game {
 
+    /**
+     * Maximum number of level templates kept in {@link #TEMPLATES}.
+     */
+    private static final int MAX_TEMPLATES = 64;
+
+    /**
+     * Templates of the levels that have been loaded by any game, indexed by their key in the source. The least recently used one is removed when there are more than MAX_TEMPLATES.
+     */
+    private static final Map<String, LevelTemplate> TEMPLATES = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LevelTemplate> eldest) {
+                    return size() > MAX_TEMPLATES;
+                }
+            });
+
+    /**
+     * Background threads that load the next level of the games. They are daemon threads,
+     * so they do not keep the program running.
+     */
+    private static final ExecutorService PREFETCHER = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "level-prefetch");
+                thread.setDaemon(true);
+                return thread;
+            });
+
     /**
      * Name of the folder in which level files are
      */
@@ -49,52 +82,51 @@ public class Game {
      */
     private Level level;
 
+    /**
+     * Template with the initial state of the current level.
+     */
+    private LevelTemplate template;
+
+    /**
+     * Source from which the levels are read.
+     */
+    private LevelSource source;
+
+    /**
+     * Key (in the source) of the content of the current level when its template was read.
+     */
+    private String templateKey;
+
+    /**
+     * Level that is being loaded in background (the one after the current level), or null if there is none.
+     */
+    private Future<LevelTemplate> prefetched;
+
+    /**
+     * Number of the level that is being loaded in background.
+     */
+    private int prefetchedLevel;
+
+    /**
+     * Key (in the source) of the content of the level that is being loaded in background.
+     */
+    private String prefetchedKey;
+
     /**
      * Constructor
      *
      * @param fileFolder Folder name where the configuration/level files are.
+     *                   It can also be the name of a pack or zip file with all the levels, or a location of
+     *                   the file system (see LevelSource.open).
      * @throws IOException When there is a problem while retrieving number of levels
      */
     public Game(String fileFolder) throws IOException {
-        int num;
-
         setFileFolder(fileFolder);
 
-        //Get the number of files that are in the fileFolder, i.e. the number of levels.
-
-        URL url = getClass().getClassLoader().getResource(getFileFolder());
-
-        URLConnection urlConnection = Objects.requireNonNull(url).openConnection();
-
-        if(urlConnection instanceof JarURLConnection){
-            //run in jar
-            String path = null;
-            try {
-                path = getClass().getProtectionDomain().getCodeSource().getLocation().toURI().getPath();
-            } catch (URISyntaxException e) {
-                System.out.println("ERROR: Game Constructor");
-                e.printStackTrace();
-                System.exit(-1);
-            }
-
-            URI uri = URI.create("jar:file:"+path);
+        source = LevelSource.open(getFileFolder());
+        maxLevels = source.size();
 
-            try(FileSystem fs = FileSystems.newFileSystem(uri, Collections.emptyMap())) {
-                num = (int) Files.walk(fs.getPath(getFileFolder()))
-                        .filter(Files::isRegularFile).count();
-            }
-        }else{
-            //run in ide
-            ClassLoader classLoader = getClass().getClassLoader();
-            InputStream inputStream;
-            inputStream = Objects.requireNonNull(classLoader.getResourceAsStream(getFileFolder()));
-
-            try(InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-                BufferedReader reader = new BufferedReader(streamReader)){
-                num = (int) reader.lines().count();
-            }
-        }
-        maxLevels = num;
+        prefetch();
     }
 
     /**
@@ -116,15 +148,27 @@ public class Game {
     }
 
     /**
-     * Returns the number of rows and columns of the board of the current level. The board is an NxN square.
+     * Returns the number of rows of the board of the current level.
      *
-     * @return The number of rows and columns of the board of the current level.
+     * @return The number of rows of the board of the current level.
      */
-    public int getBoardSize() {
+    public int getBoardRows() {
         if(level==null)
             return 0;
 
-        return level.getSize();
+        return level.getRows();
+    }
+
+    /**
+     * Returns the number of columns of the board of the current level.
+     *
+     * @return The number of columns of the board of the current level.
+     */
+    public int getBoardColumns() {
+        if(level==null)
+            return 0;
+
+        return level.getColumns();
     }
 
     /**
@@ -179,22 +223,129 @@ public class Game {
     public boolean nextLevel() throws LevelException {
         if ( !isFinished()  ){
             currentLevel++;
-            loadLevel();
+            if (!takePrefetched()) {
+                loadLevel();
+            }
+            prefetch();
             return true;
         } else {
            return false;
         }
     }
 
+    /**
+     * Goes straight to the given level and loads it.
+     *
+     * @param number Number of the level (from 1 to the number of levels of the game).
+     * @return True if the level exists, and it has been loaded correctly. Otherwise, it returns false.
+     * @throws LevelException When there is a level exception/problem.
+     */
+    public boolean goToLevel(int number) throws LevelException {
+        if (number < 1 || number > maxLevels) {
+            return false;
+        }
+
+        currentLevel = number;
+        loadLevel();
+        prefetch();
+        return true;
+    }
+
+    /**
+     * Starts loading the level after the current one in background, so that nextLevel() does not have to wait.<br/>
+     * It does nothing if there is no next level or it is already being loaded.
+     */
+    private void prefetch() {
+        int number = getCurrentLevel() + 1;
+
+        if (prefetched != null) {
+            if (prefetchedLevel == number) {
+                return;
+            }
+            prefetched.cancel(false);
+            prefetched = null;
+        }
+
+        if (number <= maxLevels) {
+            prefetchedLevel = number;
+            prefetchedKey = source.getKey(number);
+            prefetched = PREFETCHER.submit(() -> readTemplate(number));
+        }
+    }
+
+    /**
+     * Uses the prefetched level as the current level, if it is the one indicated by "currentLevel".<br/>
+     * It waits until the level is loaded.
+     *
+     * @return True if the prefetched level is now the current level. Otherwise, false.
+     * @throws LevelException When the prefetched level could not be loaded.
+     */
+    private boolean takePrefetched() throws LevelException {
+        if (prefetched == null || prefetchedLevel != getCurrentLevel()) {
+            return false;
+        }
+
+        Future<LevelTemplate> future = prefetched;
+        prefetched = null;
+
+        try {
+            LevelTemplate prefetchedTemplate = future.get();
+
+            //The level has changed in the source since it was prefetched
+            if (!prefetchedKey.equals(source.getKey(getCurrentLevel()))) {
+                return false;
+            }
+
+            template = prefetchedTemplate;
+            templateKey = prefetchedKey;
+            level = template.newLevel();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof LevelException) {
+                throw (LevelException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
     /**
      * Loads a new level by using the value of attribute "currentLevel".
      *
-     * The pattern of the filename is: fileFolder+"level" + numberLevel + ".txt".
+     * The level is read from the source of the game,
+     * e.g. the file fileFolder + "level" + numberLevel + ".txt" of the classpath.
      * @throws LevelException When there is a level exception/problem.
      */
     private void loadLevel() throws LevelException {
-        level = new Level(fileFolder +"level"+ currentLevel + ".txt");
+        templateKey = source.getKey(currentLevel);
+        template = readTemplate(currentLevel);
+        level = template.newLevel();
+    }
+
+    /**
+     * Returns the template of the given level. It is taken from the shared cache or, if it is not there,
+     * the level is read from the source and added to the cache.
+     * It does not change the state of the game, so it can be called from any thread.
+     *
+     * @param number Number of the level.
+     * @return Template with the initial state of the level.
+     * @throws LevelException When there is a level exception/problem.
+     */
+    private LevelTemplate readTemplate(int number) throws LevelException {
+        String key = source.getKey(number);
+        LevelTemplate cached = TEMPLATES.get(key);
 
+        if (cached == null) {
+            cached = new LevelTemplate(source.getLevel(number));
+            TEMPLATES.put(key, cached);
+        }
+
+        return cached;
     }
 
     /**
@@ -209,6 +360,26 @@ public class Game {
         return level.isSolved();
     }
 
+    /**
+     * Returns the routes that connect each starting cell with its finish cell in the current level.
+     *
+     * @return List with the coordinates of the route of every pair, one route after another and each one
+     * in order from START to FINISH. Pairs that are not connected do not add any coordinate.
+     */
+    public List<Coordinate> getRoute() {
+        if(level==null)
+            return Collections.emptyList();
+
+        if(level.getNumPairs()==1)
+            return level.getRoute();
+
+        List<Coordinate> route = new ArrayList<>();
+        for(int pair = 0; pair < level.getNumPairs(); pair++){
+            route.addAll(level.getRoute(pair));
+        }
+        return route;
+    }
+
     /**
      * Returns the cell that is in the given coordinate.
      *
@@ -264,10 +435,30 @@ public class Game {
 
     /**
      * Reloads the current level, i.e. load the level again.
+     * The initial state is restored from the template of the level, without reading its file,
+     * unless the level has changed in the source (e.g. its file has been edited).
      *
      * @throws LevelException When there is a level exception/problem.
      */
     public void reload() throws LevelException {
-         loadLevel();
+        if (template != null && templateKey.equals(source.getKey(currentLevel))) {
+            level = template.newLevel();
+        } else {
+            loadLevel();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the current state of the level, e.g. to solve it in another thread while
+     * the game goes on.
+     *
+     * @return Template with the current state of the level.
+     * @throws LevelException When there is no current level.
+     */
+    LevelTemplate snapshot() throws LevelException {
+        if (level == null) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+        return new LevelTemplate(level);
     }
 }
@@ -20,7 +20,8 @@ public abstract class CellFactory {
     public static Cell getCellInstance(int row, int column, CellType type){
 
         return switch (type) {
-            case VERTICAL, HORIZONTAL, BOTTOM_RIGHT, BOTTOM_LEFT, TOP_RIGHT, TOP_LEFT, FREE -> new MovableCell(row, column, type);
+            case VERTICAL, HORIZONTAL, BOTTOM_RIGHT, BOTTOM_LEFT, TOP_RIGHT, TOP_LEFT, FREE,
+                    JUNCTION_TOP, JUNCTION_RIGHT, JUNCTION_BOTTOM, JUNCTION_LEFT, CROSS -> new MovableCell(row, column, type);
             case ROTATABLE_VERTICAL, ROTATABLE_HORIZONTAL -> new RotatableCell(row, column,type);
             default -> new Cell(row, column, type);
         };
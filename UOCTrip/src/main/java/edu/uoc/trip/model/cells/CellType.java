@@ -2,7 +2,9 @@ package edu.uoc.trip.model.cells;
 
 import edu.uoc.trip.model.levels.Direction;
 
+import java.util.Collections;
 import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Enumerated class that represents each CellType of the game.
@@ -78,12 +80,50 @@ public  enum  CellType {
         public CellType next() {
             return ROTATABLE_VERTICAL;
         }
+    },
+    JUNCTION_TOP('T', '\u2569', "road_junction_top.png", new boolean[]{true, true, false, true}) {
+        public CellType next() {
+            return JUNCTION_RIGHT;
+        }
+    },
+    JUNCTION_RIGHT('E', '\u2560', "road_junction_right.png", new boolean[]{true, true, true, false}) {
+        public CellType next() {
+            return JUNCTION_BOTTOM;
+        }
+    },
+    JUNCTION_BOTTOM('t', '\u2566', "road_junction_bottom.png", new boolean[]{false, true, true, true}) {
+        public CellType next() {
+            return JUNCTION_LEFT;
+        }
+    },
+    JUNCTION_LEFT('W', '\u2563', "road_junction_left.png", new boolean[]{true, false, true, true}) {
+        public CellType next() {
+            return JUNCTION_TOP;
+        }
+    },
+    CROSS('X', '\u256C', "road_cross.png", new boolean[]{true, true, true, true}) {
+        public CellType next() {
+            return CROSS;
+        }
     };
 
     private char fileSymbol;
     private char unicodeRepresentation;
     private String imageSrc;
     private boolean[] connections;
+    private int connectionMask;
+    private Set<Direction> availableConnections;
+
+    /**
+     * Lookup table that maps each file symbol (i.e. any char value) to its CellType.
+     */
+    private static final CellType[] SYMBOL_TABLE = new CellType[Character.MAX_VALUE + 1];
+
+    static {
+        for (CellType type : values()) {
+            SYMBOL_TABLE[type.getFileSymbol()] = type;
+        }
+    }
 
     CellType(char fileSymbol, char unicodeRepresentation, String imageSrc, boolean[] connections) {
 
@@ -117,121 +157,54 @@ public  enum  CellType {
         this.imageSrc = imageSrc;
     }
 
+    /**
+     * Stores the connections and precomputes both their bit mask and their immutable set.
+     *
+     * @param connections Array of 4 booleans that are indexed by {@link Direction#ordinal()}.
+     */
     private void setConnections(boolean[] connections) {
-        this.connections = connections;
-    }
-
-    public EnumSet<Direction> getAvailableConnections() {
-            EnumSet<Direction> prueba = EnumSet.noneOf(Direction.class);
-
-            if (  (this  ==  START ) && (connections[0])) {
-                prueba.add(Direction.UP);
-                return prueba;
-            }
+        EnumSet<Direction> set = EnumSet.noneOf(Direction.class);
+        int mask = 0;
 
-            if ( (this ==  FINISH ) && (connections[2])){
-             prueba.add(Direction.DOWN);
-                return prueba;
-            }
-
-            if  (this ==  MOUNTAINS ) {
-                return prueba;
-            }
-
-            if  (this ==  RIVER ) {
-                return prueba;
-            }
-
-            if (  (this  ==  VERTICAL ) && ( (connections[0]) ||(connections[2])) ) {
-                prueba.add(Direction.UP);
-                prueba.add(Direction.DOWN);
-                return prueba;
-            }
-
-            if ( (this  ==  HORIZONTAL ) && ( (connections[1]) ||(connections[3])) )  {
-                prueba.add(Direction.LEFT);
-                prueba.add(Direction.RIGHT);
-                return prueba;
-            }
-
-            if (  (this  ==  BOTTOM_LEFT ) && ( (connections[2]) ||(connections[3])) )  {
-                prueba.add(Direction.LEFT);
-                prueba.add(Direction.DOWN);
-                return prueba;
-            }
-
-            if ( (this  ==  TOP_RIGHT ) && ( (connections[0]) ||(connections[1])) )  {
-                prueba.add(Direction.UP);
-                prueba.add(Direction.RIGHT);
-                return prueba;
-            }
-
-            if (  (this  ==  TOP_LEFT ) && ( (connections[0]) ||(connections[3])) )  {
-                prueba.add(Direction.UP);
-                prueba.add(Direction.LEFT);
-                return prueba;
+        for (Direction direction : Direction.values()) {
+            if (connections[direction.ordinal()]) {
+                set.add(direction);
+                mask |= direction.getMask();
             }
+        }
 
-            if  (this ==  FREE ) {
-                return prueba;
-            }
+        this.connections = connections;
+        this.connectionMask = mask;
+        this.availableConnections = Collections.unmodifiableSet(set);
+    }
 
-            if (  (this  ==  ROTATABLE_VERTICAL ) && ( (connections[0]) ||(connections[3])) ) {
-                prueba.add(Direction.UP);
-                prueba.add(Direction.DOWN);
-                return prueba;
-            }
+    /**
+     * Returns the directions in which this type of cell is connected.
+     *
+     * @return Immutable set of directions. It is shared, so no object is created per call.
+     */
+    public Set<Direction> getAvailableConnections() {
+        return availableConnections;
+    }
 
-            if (  (this  ==  ROTATABLE_HORIZONTAL ) && ( (connections[1]) ||(connections[3])) ) {
-                prueba.add(Direction.LEFT);
-                prueba.add(Direction.RIGHT);
-                return prueba;
-            }
-            return prueba;
-        }
+    /**
+     * Returns the connections of this type of cell as a 4-bit mask, where each
+     * direction uses the bit given by {@link Direction#getMask()}.
+     *
+     * @return Bit mask with the connections of this type of cell.
+     */
+    public int getConnectionMask() {
+        return connectionMask;
+    }
 
+    /**
+     * Returns the CellType whose file symbol is the given one.
+     *
+     * @param fileSymbol Symbol used in the level files.
+     * @return CellType related to the symbol, or {@code null} if there is none.
+     */
     public static CellType map2CellType(char fileSymbol){
-
-        if (fileSymbol == 'S' ) {
-            return CellType.START;
-        }
-        if (fileSymbol == 'F' ) {
-            return CellType.FINISH;
-        }
-        if (fileSymbol == 'M' ) {
-            return CellType.MOUNTAINS;
-        }
-        if (fileSymbol == '~' ) {
-            return CellType.RIVER;
-        }
-        if (fileSymbol == 'V' ) {
-            return CellType.VERTICAL;
-        }
-        if (fileSymbol == 'H' ) {
-            return CellType.HORIZONTAL;
-        }
-        if (fileSymbol == 'r' ) {
-            return CellType.BOTTOM_RIGHT;
-        }
-        if (fileSymbol == 'l' ) {
-            return CellType.BOTTOM_LEFT;
-        }
-        if (fileSymbol == 'R' ) {
-            return CellType.TOP_RIGHT;
-        }
-        if (fileSymbol == 'L' ) {
-            return CellType.TOP_LEFT;
-        }
-        if (fileSymbol == '·' ) {
-            return CellType.FREE;
-        }
-        if (fileSymbol == 'G' ) {
-            return CellType.ROTATABLE_VERTICAL;
-        }
-        if (fileSymbol == 'g' ) {
-            return CellType.ROTATABLE_HORIZONTAL;
-        }
-        return null;
+        return SYMBOL_TABLE[fileSymbol];
     }
 
     //Método abstracto
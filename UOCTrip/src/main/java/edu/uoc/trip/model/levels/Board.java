@@ -0,0 +1,55 @@
+package edu.uoc.trip.model.levels;
+
+/**
+ * Storage of the cells of a board. Each cell is identified by its index (row * columns + column)
+ * and stores the ordinal of its CellType.<br/>
+ * A board that is not being written can be read and copied from several threads at the same time, e.g. the board
+ * of a {@link LevelTemplate}.
+ *
+ * @version 1.0
+ */
+interface Board {
+
+    /**
+     * Returns the number of cells of the board.
+     *
+     * @return Number of cells.
+     */
+    int size();
+
+    /**
+     * Returns the ordinal of the CellType of the given cell.
+     *
+     * @param index Index of the cell.
+     * @return Ordinal of the CellType of the cell.
+     */
+    int get(int index);
+
+    /**
+     * Sets the CellType of the given cell.
+     *
+     * @param index Index of the cell.
+     * @param type Ordinal of the CellType.
+     */
+    void set(int index, int type);
+
+    /**
+     * Sets the CellType of a range of cells.
+     *
+     * @param from Index of the first cell (inclusive).
+     * @param to Index of the last cell (exclusive).
+     * @param type Ordinal of the CellType.
+     */
+    default void fill(int from, int to, int type) {
+        for (int index = from; index < to; index++) {
+            set(index, type);
+        }
+    }
+
+    /**
+     * Returns an independent copy of the board.
+     *
+     * @return Copy of the board.
+     */
+    Board copy();
+}
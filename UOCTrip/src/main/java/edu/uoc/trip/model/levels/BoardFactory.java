@@ -0,0 +1,207 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+
+import java.io.IOException;
+
+/**
+ * Factory of the boards of the levels. Every way of loading a level (text files, large text files and binary
+ * files) creates its board here, so the storage only depends on the size of the board and on its content:
+ * <ul>
+ *     <li>Small boards are always dense boards.</li>
+ *     <li>Huge boards whose cells are mostly of one CellType (FREE, but also MOUNTAINS or RIVER in maps that are
+ *     filled with them) are sparse boards whose default type is that CellType.</li>
+ *     <li>The other huge boards are dense boards, or tiled boards if they are too big for the heap.</li>
+ * </ul>
+ * The content is known from the number of cells of each CellType, which the loaders count before creating the
+ * board. The loaders that only read their input once use a {@link Builder}, which counts the cells as they are
+ * written and chooses the storage at the end.
+ *
+ * @version 1.0
+ */
+final class BoardFactory {
+
+    /**
+     * Number of CellTypes.
+     */
+    private static final int TYPES = CellType.values().length;
+
+    /**
+     * Minimum number of cells of the boards that can be stored as sparse boards.
+     */
+    static final int SPARSE_BOARD_SIZE = 1 << 22;
+
+    /**
+     * Minimum number of cells of the boards that are stored off-heap, in tiles of a scratch file,
+     * unless they are sparse.
+     */
+    static final int TILED_BOARD_SIZE = 1 << 26;
+
+    /**
+     * A board is sparse when at most one out of this number of cells is not of its default type. Each stored cell
+     * takes 16 bytes at least (an int key and an int value, with half of the slots of the map empty), against
+     * one byte per cell of a dense board.
+     */
+    private static final int SPARSE_RATIO = 16;
+
+    private BoardFactory() {
+    }
+
+    /**
+     * Returns whether the storage of a board of the given size depends on its content, i.e. whether it is worth
+     * counting its cells before creating it.
+     *
+     * @param size Number of cells.
+     * @return True if the cells must be counted, false if the board is always dense.
+     */
+    static boolean isCounted(int size) {
+        return size >= SPARSE_BOARD_SIZE;
+    }
+
+    /**
+     * Returns the CellType that most cells have.
+     *
+     * @param counts Number of cells of each CellType, indexed by their ordinal.
+     * @return Ordinal of the most frequent CellType (FREE if there is a tie with it).
+     */
+    static int getDominantType(long[] counts) {
+        int dominant = CellType.FREE.ordinal();
+
+        for (int type = 0; type < counts.length; type++) {
+            if (counts[type] > counts[dominant]) {
+                dominant = type;
+            }
+        }
+        return dominant;
+    }
+
+    /**
+     * Creates a board whose cells are all of the dominant type of the given counts
+     * (see {@link #getDominantType(long[])}), so the cells of that type do not need to be written.
+     *
+     * @param size Number of cells.
+     * @param counts Number of cells of each CellType, indexed by their ordinal. They can be an estimate,
+     *               or all zero if {@link #isCounted(int)} is false.
+     * @return New board.
+     * @throws IOException When the scratch file of a tiled board cannot be created.
+     */
+    static Board create(int size, long[] counts) throws IOException {
+        int defaultType = getDominantType(counts);
+
+        if (isSparse(size, counts, defaultType)) {
+            return new SparseBoard(size, defaultType);
+        }
+        if (size >= TILED_BOARD_SIZE) {
+            return new TiledBoard(size, defaultType);
+        }
+
+        Board board = new DenseBoard(size);
+        board.fill(0, size, defaultType);
+        return board;
+    }
+
+    /**
+     * Returns whether a board is stored as a sparse board.
+     *
+     * @param size Number of cells.
+     * @param counts Number of cells of each CellType, indexed by their ordinal.
+     * @param defaultType Dominant type of the counts.
+     * @return True if the board is huge and few enough cells are not of the default type.
+     */
+    private static boolean isSparse(int size, long[] counts, int defaultType) {
+        return size >= SPARSE_BOARD_SIZE && Math.max(0, size - counts[defaultType]) * SPARSE_RATIO <= size;
+    }
+
+    /**
+     * Returns whether different cells of the board can be written from several threads at the same time.
+     *
+     * @param board Board created by this factory.
+     * @return False if the writes must be synchronized on the board.
+     */
+    static boolean isConcurrent(Board board) {
+        return !(board instanceof SparseBoard);
+    }
+
+    /**
+     * Builder of a board whose cells are written once, in any order, without having been counted before.
+     * The cells are written to a staging board: a dense board, or a tiled board if the board is too big for the
+     * heap. The staging board is the result, unless the counts show that the board is sparse, in which case its
+     * cells are copied to a sparse board when it is built.
+     */
+    static final class Builder {
+
+        /**
+         * Board where the cells are written.
+         */
+        private final Board staging;
+
+        /**
+         * Number of cells that have been written of each CellType, indexed by their ordinal.
+         */
+        private final long[] counts = new long[TYPES];
+
+        /**
+         * Constructor
+         *
+         * @param size Number of cells.
+         * @throws IOException When the scratch file of the staging board cannot be created.
+         */
+        Builder(int size) throws IOException {
+            staging = size >= TILED_BOARD_SIZE ? new TiledBoard(size, CellType.FREE.ordinal()) : new DenseBoard(size);
+        }
+
+        /**
+         * Sets the CellType of the given cell. Each cell must be written once.
+         *
+         * @param index Index of the cell.
+         * @param type Ordinal of the CellType.
+         */
+        void set(int index, int type) {
+            counts[type]++;
+            staging.set(index, type);
+        }
+
+        /**
+         * Sets the CellType of a range of cells. Each cell must be written once.
+         *
+         * @param from Index of the first cell (inclusive).
+         * @param to Index of the last cell (exclusive).
+         * @param type Ordinal of the CellType.
+         */
+        void fill(int from, int to, int type) {
+            counts[type] += to - from;
+            staging.fill(from, to, type);
+        }
+
+        /**
+         * Returns the board with the written cells, in the storage that fits its content.
+         *
+         * @return Board. The builder must not be used anymore.
+         */
+        Board build() {
+            int size = staging.size();
+            int defaultType = getDominantType(counts);
+
+            //The storage is decided from the counts, so only a sparse board is created
+            if (!isSparse(size, counts, defaultType)) {
+                return staging;
+            }
+
+            //Only the runs of cells that are not of the default type are copied
+            Board board = new SparseBoard(size, defaultType);
+            int index = 0;
+            while (index < size) {
+                int type = staging.get(index);
+                int end = index + 1;
+                while (end < size && staging.get(end) == type) {
+                    end++;
+                }
+                if (type != defaultType) {
+                    board.fill(index, end, type);
+                }
+                index = end;
+            }
+            return board;
+        }
+    }
+}
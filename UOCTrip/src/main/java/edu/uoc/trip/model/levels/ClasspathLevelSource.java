@@ -0,0 +1,161 @@
+package edu.uoc.trip.model.levels;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.JarURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Source of the level files of a folder of the classpath, whose names are "level" + number + ".txt".
+ *
+ * @version 1.0
+ */
+public final class ClasspathLevelSource implements LevelSource {
+
+    /**
+     * Name of the manifest file that lists the level files of a folder.
+     */
+    public static final String MANIFEST_FILE = "levels.manifest";
+
+    /**
+     * Pattern of the names of the level files.
+     */
+    static final Pattern LEVEL_FILE = Pattern.compile("level(\\d+)\\.txt");
+
+    /**
+     * Number of levels of each folder that has already been checked.
+     */
+    private static final Map<String, Integer> LEVEL_COUNTS = new ConcurrentHashMap<>();
+
+    /**
+     * Name of the folder of the classpath in which level files are.
+     */
+    private final String folder;
+
+    /**
+     * Number of levels of the folder.
+     */
+    private final int size;
+
+    /**
+     * Constructor. It reads the manifest of the folder (generated by the build) and, if there is no manifest,
+     * it scans the folder. The number of levels is remembered, so each folder is only checked once.
+     *
+     * @param folder Name of the folder of the classpath, ending with "/".
+     * @throws IOException When there is a problem while retrieving number of levels
+     */
+    public ClasspathLevelSource(String folder) throws IOException {
+        this.folder = folder;
+
+        Integer num = LEVEL_COUNTS.get(folder);
+
+        if (num == null) {
+            num = readManifest();
+            if (num < 0) {
+                num = scanLevels();
+            }
+            LEVEL_COUNTS.put(folder, num);
+        }
+
+        size = num;
+    }
+
+    /**
+     * Reads the manifest of the folder, i.e. a file called MANIFEST_FILE with the name of a level file
+     * per line (empty lines and lines starting with "#" are ignored).
+     *
+     * @return Number of levels listed in the manifest, or -1 if the folder has no manifest.
+     * @throws IOException When there is a problem while reading the manifest.
+     */
+    private int readManifest() throws IOException {
+        InputStream inputStream = getClass().getClassLoader().getResourceAsStream(folder + MANIFEST_FILE);
+
+        if (inputStream == null) {
+            return -1;
+        }
+
+        try (InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+             BufferedReader reader = new BufferedReader(streamReader)) {
+            return (int) reader.lines().map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#")).count();
+        }
+    }
+
+    /**
+     * Scans the folder and counts the level files.
+     *
+     * @return Number of level files that are in the folder.
+     * @throws IOException When there is a problem while retrieving number of levels
+     */
+    private int scanLevels() throws IOException {
+        URL url = getClass().getClassLoader().getResource(folder);
+
+        URLConnection urlConnection = Objects.requireNonNull(url).openConnection();
+
+        if (urlConnection instanceof JarURLConnection) {
+            //run in jar
+            URI uri;
+            try {
+                uri = URI.create("jar:file:" + getClass().getProtectionDomain().getCodeSource()
+                        .getLocation().toURI().getPath());
+            } catch (URISyntaxException e) {
+                throw new IOException(e.getMessage(), e);
+            }
+
+            try (FileSystem fs = FileSystems.newFileSystem(uri, Collections.emptyMap());
+                 Stream<Path> files = Files.list(fs.getPath(folder))) {
+                return (int) files.filter(Files::isRegularFile)
+                        .filter(file -> LEVEL_FILE.matcher(file.getFileName().toString()).matches()).count();
+            }
+        } else {
+            //run in ide
+            InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream(folder));
+
+            try (InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
+                 BufferedReader reader = new BufferedReader(streamReader)) {
+                return (int) reader.lines().filter(name -> LEVEL_FILE.matcher(name).matches()).count();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Level getLevel(int number) throws LevelException {
+        return new Level(getFileName(number));
+    }
+
+    @Override
+    public String getKey(int number) {
+        return "classpath:" + getFileName(number);
+    }
+
+    /**
+     * Returns the name of the file of the given level.
+     *
+     * @param number Number of the level.
+     * @return The pattern of the filename is: folder + "level" + number + ".txt".
+     */
+    private String getFileName(int number) {
+        return folder + "level" + number + ".txt";
+    }
+}
@@ -0,0 +1,59 @@
+package edu.uoc.trip.model.levels;
+
+import java.util.Arrays;
+
+/**
+ * Board that stores one byte per cell.
+ *
+ * @version 1.0
+ */
+final class DenseBoard implements Board {
+
+    /**
+     * Ordinal of the CellType of each cell.
+     */
+    private final byte[] cells;
+
+    /**
+     * Constructor of an empty board (all the cells have the CellType with ordinal 0).
+     *
+     * @param size Number of cells.
+     */
+    DenseBoard(int size) {
+        this(new byte[size]);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param cells Ordinal of the CellType of each cell. The board keeps this array.
+     */
+    DenseBoard(byte[] cells) {
+        this.cells = cells;
+    }
+
+    @Override
+    public int size() {
+        return cells.length;
+    }
+
+    @Override
+    public int get(int index) {
+        return cells[index];
+    }
+
+    @Override
+    public void set(int index, int type) {
+        cells[index] = (byte) type;
+    }
+
+    @Override
+    public void fill(int from, int to, int type) {
+        Arrays.fill(cells, from, to, (byte) type);
+    }
+
+    @Override
+    public Board copy() {
+        return new DenseBoard(cells.clone());
+    }
+}
@@ -23,17 +23,16 @@ public enum Direction {
         this.opposite = opposite;
     }
 
+    /**
+     * Lookup table with the directions indexed by their ordinal.
+     */
+    private static final Direction[] VALUES = values();
+
     public static Direction getValueByIndex(int index) {
-        if (index == 0) {
-            return Direction.UP;
-        }
-        if (index == 1) {
-            return Direction.RIGHT;
+        if (index < 0 || index >= VALUES.length) {
+            return Direction.LEFT;
         }
-        if (index == 2) {
-            return Direction.DOWN;
-        }
-        return Direction.LEFT;
+        return VALUES[index];
     }
 
     public int getDRow() {
@@ -45,15 +44,15 @@ public enum Direction {
     }
 
     public Direction getOpposite() {
-        if (opposite == 1) {
-            return RIGHT;
-        }
-        if  (opposite == 2) {
-            return DOWN;
-        }
-        if (opposite == 3) {
-            return LEFT;
-        } else
-            return UP;
+        return VALUES[opposite];
+    }
+
+    /**
+     * Returns the bit that represents this direction in the connection masks of {@code CellType}.
+     *
+     * @return 1 for UP, 2 for RIGHT, 4 for DOWN and 8 for LEFT.
+     */
+    public int getMask() {
+        return 1 << ordinal();
     }
 }
@@ -0,0 +1,292 @@
+package edu.uoc.trip.model.levels;
+
+import java.io.IOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Source of the level files ("level" + number + ".txt") of a folder of the file system.<br/>
+ * The folder is watched in background: when a level file is created, modified or deleted, the key of that level
+ * changes, so the levels cached by their key are read again the next time they are requested. The key also holds
+ * the modification time and the size of the file, so it identifies the content on disk even for sources that
+ * were opened after the change.<br/>
+ * All the sources of the same folder share one watcher, which is stopped when the last of them is closed or
+ * no longer used.
+ *
+ * @version 1.0
+ */
+public final class DirectoryLevelSource implements LevelSource {
+
+    /**
+     * Minimum size in bytes of the level files that are parsed in parallel.
+     */
+    private static final long PARALLEL_LOAD_SIZE = 1024 * 1024;
+
+    /**
+     * Watchers of the folders that have some open source.
+     */
+    private static final Map<Path, Watcher> WATCHERS = new HashMap<>();
+
+    /**
+     * Releases the watchers of the sources that are no longer used.
+     */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * Folder with the level files.
+     */
+    private final Path directory;
+
+    /**
+     * Watcher of the folder, shared with the other sources of the folder.
+     */
+    private final Watcher watcher;
+
+    /**
+     * Releases the watcher when the source is closed or unreachable, only once.
+     */
+    private final Cleaner.Cleanable cleanable;
+
+    /**
+     * Constructor. It starts watching the folder in a daemon thread, unless another source already does.
+     *
+     * @param directory Path of the folder.
+     * @throws IOException When the folder cannot be watched.
+     */
+    public DirectoryLevelSource(Path directory) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        watcher = Watcher.acquire(this.directory);
+
+        //The action must not reference this source, or the source would never be unreachable.
+        cleanable = CLEANER.register(this, watcher::release);
+    }
+
+    /**
+     * Returns the number of level files that are currently in the folder, numbered from 1 without gaps.
+     * Level files after a gap (e.g. "level5.txt" without "level4.txt") are not counted.
+     *
+     * @return Number of levels.
+     */
+    @Override
+    public int size() {
+        try (Stream<Path> files = Files.list(directory)) {
+            Set<Integer> numbers = files.filter(Files::isRegularFile)
+                    .map(file -> ClasspathLevelSource.LEVEL_FILE.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .map(matcher -> Integer.parseInt(matcher.group(1)))
+                    .collect(Collectors.toSet());
+
+            int size = 0;
+            while (numbers.contains(size + 1)) {
+                size++;
+            }
+            return size;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the given level. Big files are parsed in parallel (see ParallelLevelLoader).
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return New Level object with the initial state of the level.
+     * @throws LevelException When the level cannot be read or it is not valid.
+     */
+    @Override
+    public Level getLevel(int number) throws LevelException {
+        Path file = getFile(number);
+
+        try {
+            if (Files.size(file) >= PARALLEL_LOAD_SIZE) {
+                return ParallelLevelLoader.load(file);
+            }
+            return new Level(Files.newInputStream(file));
+        } catch (IOException e) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+    }
+
+    /**
+     * Returns the key of the current content of the level: its path, the modification time and size of the file
+     * and the number of changes seen by the watcher (which tells apart changes within the resolution of the
+     * modification time).
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Key of the current content of the level.
+     */
+    @Override
+    public String getKey(int number) {
+        Path file = getFile(number);
+        String attributes;
+
+        try {
+            BasicFileAttributes basic = Files.readAttributes(file, BasicFileAttributes.class);
+            attributes = basic.lastModifiedTime() + "." + basic.size();
+        } catch (IOException e) {
+            attributes = "missing";
+        }
+
+        return file + "@" + attributes + "." + watcher.getVersion(number);
+    }
+
+    /**
+     * Returns the path of the file of the given level.
+     *
+     * @param number Number of the level.
+     * @return Path of the file "level" + number + ".txt" of the folder.
+     */
+    private Path getFile(int number) {
+        return directory.resolve("level" + number + ".txt");
+    }
+
+    /**
+     * Stops watching the folder, unless other sources of the folder are still open. Closing a source more than
+     * once has no effect.
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
+    /**
+     * Returns the number of folders that are being watched.
+     *
+     * @return Number of watchers.
+     */
+    static int getNumWatchers() {
+        synchronized (WATCHERS) {
+            return WATCHERS.size();
+        }
+    }
+    /**
+     * Watcher of a folder, shared by all its sources.
+     */
+    private static final class Watcher {
+
+        /**
+         * Folder that is watched.
+         */
+        private final Path directory;
+
+        /**
+         * Service that notifies the changes of the folder.
+         */
+        private final WatchService watchService;
+
+        /**
+         * Number of changes of each level file since the folder is watched.
+         */
+        private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+
+        /**
+         * Number of times that some changes were lost (too many at once), so every level must be considered
+         * changed.
+         */
+        private volatile int generation = 0;
+
+        /**
+         * Number of sources that use the watcher. Guarded by WATCHERS.
+         */
+        private int users = 0;
+
+        private Watcher(Path directory) throws IOException {
+            this.directory = directory;
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+            Thread thread = new Thread(this::watch, "level-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Returns the watcher of the folder, starting it if no source uses it, and adds a user to it.
+         *
+         * @param directory Absolute and normalized path of the folder.
+         * @return Watcher of the folder.
+         * @throws IOException When the folder cannot be watched.
+         */
+        static Watcher acquire(Path directory) throws IOException {
+            synchronized (WATCHERS) {
+                Watcher watcher = WATCHERS.get(directory);
+                if (watcher == null) {
+                    watcher = new Watcher(directory);
+                    WATCHERS.put(directory, watcher);
+                }
+                watcher.users++;
+                return watcher;
+            }
+        }
+
+        /**
+         * Removes a user of the watcher and stops it when it has no users.
+         */
+        void release() {
+            synchronized (WATCHERS) {
+                if (--users > 0) {
+                    return;
+                }
+                WATCHERS.remove(directory);
+            }
+
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                //Nothing else can be done: the thread stops anyway when the service is closed.
+            }
+        }
+
+        /**
+         * Returns the number of changes of the given level file.
+         *
+         * @param number Number of the level.
+         * @return Number of times that the changes were lost, followed by the number of changes of the file.
+         */
+        String getVersion(int number) {
+            return generation + "." + versions.getOrDefault(number, 0);
+        }
+
+        /**
+         * Waits for the changes of the folder and updates the version of the changed level files,
+         * until the watcher is stopped.
+         */
+        private void watch() {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            generation++;
+                        } else {
+                            Matcher matcher = ClasspathLevelSource.LEVEL_FILE.matcher(event.context().toString());
+                            if (matcher.matches()) {
+                                versions.merge(Integer.parseInt(matcher.group(1)), 1, Integer::sum);
+                            }
+                        }
+                    }
+
+                    key.reset();
+                }
+            } catch (ClosedWatchServiceException | InterruptedException e) {
+                //the watcher has been stopped
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package edu.uoc.trip.model.levels;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from non-negative int keys to int values, without boxing (open addressing with linear probing).
+ *
+ * @version 1.0
+ */
+final class IntMap {
+
+    /**
+     * Key of the empty slots.
+     */
+    private static final int EMPTY = -1;
+
+    /**
+     * Initial number of slots.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Value that is returned for the keys that are not in the map.
+     */
+    private final int missingValue;
+
+    /**
+     * Keys of the slots (EMPTY if the slot is empty).
+     */
+    private int[] keys;
+
+    /**
+     * Values of the slots.
+     */
+    private int[] values;
+
+    /**
+     * Number of keys in the map.
+     */
+    private int size;
+
+    /**
+     * Constructor
+     *
+     * @param missingValue Value that is returned for the keys that are not in the map.
+     */
+    IntMap(int missingValue) {
+        this.missingValue = missingValue;
+        keys = new int[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Constructor of a copy.
+     *
+     * @param other Map that is copied.
+     */
+    private IntMap(IntMap other) {
+        missingValue = other.missingValue;
+        keys = other.keys.clone();
+        values = other.values.clone();
+        size = other.size;
+    }
+
+    /**
+     * Returns the first slot in which the given key is looked for.
+     *
+     * @param key Key.
+     * @param mask Number of slots - 1.
+     * @return Index of the slot.
+     */
+    private static int ideal(int key, int mask) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the slot in which the given key is or should be.
+     *
+     * @param key Key.
+     * @return Index of the slot.
+     */
+    private int slot(int key) {
+        int mask = keys.length - 1;
+        int slot = ideal(key, mask);
+
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key Key (non-negative).
+     * @return Value of the key, or the missing value if the key is not in the map.
+     */
+    int get(int key) {
+        int slot = slot(key);
+        return keys[slot] == EMPTY ? missingValue : values[slot];
+    }
+
+    /**
+     * Puts the given value for the given key.
+     *
+     * @param key Key (non-negative).
+     * @param value Value.
+     */
+    void put(int key, int value) {
+        int slot = slot(key);
+
+        if (keys[slot] == EMPTY) {
+            //Load factor of 1/2 at most
+            if (2 * (size + 1) > keys.length) {
+                resize(keys.length * 2);
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Removes the given key. The following keys of its cluster are shifted back, so no tombstones are needed.
+     *
+     * @param key Key (non-negative).
+     */
+    void remove(int key) {
+        int mask = keys.length - 1;
+        int slot = slot(key);
+
+        if (keys[slot] == EMPTY) {
+            return;
+        }
+
+        size--;
+
+        for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int ideal = ideal(keys[next], mask);
+
+            //The key in "next" can be moved to "slot" if its ideal slot is not between them (cyclically)
+            if (((next - ideal) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+
+        keys[slot] = EMPTY;
+    }
+
+    /**
+     * Returns the number of keys in the map.
+     *
+     * @return Number of keys.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns an independent copy of the map.
+     *
+     * @return Copy of the map.
+     */
+    IntMap copy() {
+        return new IntMap(this);
+    }
+
+    /**
+     * Changes the number of slots and puts the keys again.
+     *
+     * @param capacity New number of slots (power of two).
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
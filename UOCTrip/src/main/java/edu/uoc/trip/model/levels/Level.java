@@ -10,10 +10,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Class that represents each level of the game.
@@ -24,9 +28,14 @@ import java.util.stream.Stream;
 public  class  Level {
 
     /**
-     * Size of the board, i.e. size x size.
+     * Number of rows of the board.
      */
-    private int size;
+    private int rows;
+
+    /**
+     * Number of columns of the board.
+     */
+    private int columns;
 
     /**
      * Difficulty of the level
@@ -34,9 +43,17 @@ public  class  Level {
     private LevelDifficulty difficulty;
 
     /**
-     * Representation of the board.
+     * Representation of the board. It stores the ordinal of the CellType of each cell, row after row,
+     * so the cell (row, column) is in the position row * columns + column.
+     * Its storage depends on its size and content (see {@link BoardFactory}).
      */
-    private Cell[][] board;
+    private Board board;
+
+    /**
+     * Cell objects that have been requested through {@link #getCell(Coordinate)}, indexed by their position
+     * in {@link #board}. They are created on demand and kept up to date with the board.
+     */
+    private Map<Integer, Cell> cells;
 
     /**
      * Number of moves that the player has made so far.
@@ -44,10 +61,84 @@ public  class  Level {
     private int numMoves = 0;
 
     /**
-     * Minimum value that must be assigned to the attribute "size".
+     * Columns of the starting cells (which are in the last row), from left to right.
+     */
+    private int[] startColumns;
+
+    /**
+     * Columns of the finish cells (which are in the first row), from left to right.
+     * The i-th finish cell is paired with the i-th starting cell.
+     */
+    private int[] finishColumns;
+
+    /**
+     * Cached route of each pair. The list is {@code null} when no route has been computed since the last move.
+     */
+    private List<List<Coordinate>> routes;
+
+    /**
+     * Queue of the traversals of the board. It is created the first time it is needed, it grows when needed
+     * and it is reused afterwards, so checking a big board does not allocate memory each time.
+     */
+    private int[] queue;
+
+    /**
+     * Per-cell data of the traversals of the board (labels or previous cells). It is reused like {@link #queue}.
+     * It is null for sparse and tiled boards, which use {@link #visitedMap} instead.
+     */
+    private int[] visited;
+
+    /**
+     * Per-cell data of the traversals of sparse and tiled boards, which only has the visited cells.
+     */
+    private IntMap visitedMap;
+
+    /**
+     * Minimum value that must be assigned to the number of rows and columns.
      */
     private static final int MINIMUM_BOARD_SIZE = 3;
 
+    /**
+     * Maximum value that can be assigned to the number of rows and columns.
+     */
+    private static final int MAXIMUM_BOARD_SIZE = 32768;
+
+    /**
+     * Minimum number of cells of the dense boards whose solved check is done in parallel
+     * (see {@link ParallelConnectivity}).
+     */
+    private static final int PARALLEL_CHECK_SIZE = 1 << 20;
+
+    /**
+     * Initial size of {@link #queue}.
+     */
+    private static final int INITIAL_QUEUE_SIZE = 1024;
+
+    /**
+     * CellType of each ordinal stored in {@link #board}.
+     */
+    private static final CellType[] TYPES = CellType.values();
+
+    /**
+     * Connection mask of each ordinal stored in {@link #board}.
+     */
+    private static final int[] MASKS = new int[TYPES.length];
+
+    /**
+     * Whether the cells of each ordinal stored in {@link #board} are movable or rotatable.
+     */
+    private static final boolean[] MOVABLE = new boolean[TYPES.length];
+    private static final boolean[] ROTATABLE = new boolean[TYPES.length];
+
+    static {
+        for (CellType type : TYPES) {
+            Cell cell = CellFactory.getCellInstance(0, 0, type);
+            MASKS[type.ordinal()] = type.getConnectionMask();
+            MOVABLE[type.ordinal()] = cell.isMovable();
+            ROTATABLE[type.ordinal()] = cell.isRotatable();
+        }
+    }
+
     /**
      * Constructor
      *
@@ -59,6 +150,71 @@ public  class  Level {
         setNumMoves(0);
     }
 
+    /**
+     * Constructor that reads the level from a stream with the same format as the level files.
+     *
+     * @param inputStream Stream with the content of a level file. It is closed at the end.
+     * @throws LevelException When there is any error while parsing the data.
+     */
+    Level(InputStream inputStream) throws LevelException {
+        parse(inputStream);
+        setNumMoves(0);
+    }
+
+    /**
+     * Constructor that creates the level from an already decoded board, e.g. a binary level file.
+     * The board's requirements are checked.
+     *
+     * @param rows Number of rows of the board.
+     * @param columns Number of columns of the board.
+     * @param difficulty Difficulty of the level.
+     * @param board Board created by {@link BoardFactory}, whose cells have not been checked. The level keeps it.
+     * @throws LevelException When the size is wrong or some board's requirement is not satisfied.
+     */
+    Level(int rows, int columns, LevelDifficulty difficulty, Board board) throws LevelException {
+        setSize(rows, columns);
+        setDifficulty(Objects.requireNonNull(difficulty));
+
+        if (board.size() != rows * columns) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        this.board = board;
+        validateBoard();
+        cells = new HashMap<>();
+        setNumMoves(0);
+    }
+
+    /**
+     * Constructor that creates the level from a board whose cells have already been checked, e.g. a template
+     * or a board parsed in parallel. Only the requirements that depend on the whole board are checked.
+     *
+     * @param rows Number of rows of the board.
+     * @param columns Number of columns of the board.
+     * @param difficulty Difficulty of the level.
+     * @param board Ordinal of the CellType of each cell, row after row. The level keeps this board.
+     * @param startColumns Columns of the starting cells, from left to right.
+     * @param finishColumns Columns of the finish cells, from left to right.
+     * @param isRoad Whether there is one road (i.e. movable or rotatable cell) at least.
+     * @throws LevelException When the size is wrong or some board's requirement is not satisfied.
+     */
+    Level(int rows, int columns, LevelDifficulty difficulty, Board board, int[] startColumns, int[] finishColumns,
+          boolean isRoad) throws LevelException {
+        setSize(rows, columns);
+        setDifficulty(Objects.requireNonNull(difficulty));
+
+        if (board.size() != rows * columns) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        this.board = board;
+        this.startColumns = startColumns;
+        this.finishColumns = finishColumns;
+        checkRequirements(startColumns.length, finishColumns.length, isRoad);
+        cells = new HashMap<>();
+        setNumMoves(0);
+    }
+
     public int getNumMoves() {
         return numMoves;
     }
@@ -69,27 +225,40 @@ public  class  Level {
 
     /**
      * Parses/Reads level's data from the given file.<br/>
-     * It also checks which the board's requirements are met.
+     * It also checks which the board's requirements are met.<br/>
+     * The first line of data has the number of rows and columns separated by a space,
+     * or a single number for square boards.
      *
      * @param fileName Name of the file that contains level's data.
      * @throws LevelException When there is any error while parsing the file
      *                        or some board's requirement is not satisfied.
      */
     private void parse(String fileName) throws LevelException {
-        boolean isStarting = false;
-        boolean isFinish = false;
-        String line;
-
         ClassLoader classLoader = getClass().getClassLoader();
         InputStream inputStream = Objects.requireNonNull(classLoader.getResourceAsStream(fileName));
 
+        parse(inputStream);
+    }
+
+    /**
+     * Parses/Reads level's data from the given stream. See {@link #parse(String)}.
+     *
+     * @param inputStream Stream with the content of a level file. It is closed at the end.
+     * @throws LevelException When there is any error while parsing the data
+     *                        or some board's requirement is not satisfied.
+     */
+    private void parse(InputStream inputStream) throws LevelException {
+        String line;
+
         try (InputStreamReader streamReader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
              BufferedReader reader = new BufferedReader(streamReader)) {
 
             line = getFirstNonEmptyLine(reader);
 
             if (line != null) {
-                setSize(Integer.parseInt(line));
+                String[] dimensions = line.trim().split("\\s+");
+                int numRows = Integer.parseInt(dimensions[0]);
+                setSize(numRows, dimensions.length > 1 ? Integer.parseInt(dimensions[1]) : numRows);
             }
 
             line = getFirstNonEmptyLine(reader);
@@ -98,61 +267,250 @@ public  class  Level {
                 setDifficulty(LevelDifficulty.valueOf(line));
             }
 
-            board = new Cell[getSize()][getSize()];
-
-            for (int row = 0; row < getSize(); row++) {
-                char[] rowChar = Objects.requireNonNull(getFirstNonEmptyLine(reader)).toCharArray();
-                for (int column = 0; column < getSize(); column++) {
-                    board[row][column] = CellFactory.getCellInstance(row, column,
-                            Objects.requireNonNull(CellType.map2CellType(rowChar[column])));
-                }
-            }
+            readBoard(reader);
 
         } catch (IllegalArgumentException | IOException e) {
             throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
         }
 
-        //Check if there is one starting cell, one finish cell and, at least, any other type of cell.
-        for (var j = 0; j < getSize(); j++) {
+        cells = new HashMap<>();
+    }
 
-            if (getCell(new Coordinate(getSize() - 1, j)).getType() == CellType.START) {
-                isStarting = true;
-            }
+    /**
+     * Reads the map of the level from the reader in one single pass over its characters, and checks the board's
+     * requirements while the cells are read: starting cells must be in the last row and finish cells in the
+     * first row, there must be the same number of both, and there must be one road (i.e. movable or
+     * rotatable cell) at least.<br/>
+     * The i-th starting cell (from left to right) is paired with the i-th finish cell.<br/>
+     * Blank lines and lines that start with "#" are skipped. Characters after the last column of a row are ignored.<br/>
+     * A symbol can be preceded by a number of repetitions (run-length encoding), e.g. "20·" are 20 FREE cells.
+     * A run cannot go beyond the end of its row.
+     *
+     * @param reader Reader whose next line is the first row of the map.
+     * @throws IOException When the reader fails or the scratch file of a tiled board cannot be created.
+     * @throws LevelException When the map is incomplete, it has an unknown symbol,
+     *                        or some board's requirement is not satisfied.
+     */
+    private void readBoard(BufferedReader reader) throws IOException, LevelException {
+        char[] buffer = new char[8192];
+        int numStarts = 0;
+        int numFinishes = 0;
+        boolean isRoad = false;
+        boolean skipLine = false;
+        int run = 0;
+        int row = 0;
+        int column = 0;
+        int index = 0;
+        int length;
+
+        //The cells are counted while they are read, so the storage is chosen once the whole map is known
+        BoardFactory.Builder builder = new BoardFactory.Builder(getRows() * getColumns());
+        startColumns = new int[getColumns()];
+        finishColumns = new int[getColumns()];
+
+        while (row < getRows() && (length = reader.read(buffer, 0, buffer.length)) != -1) {
+            for (int i = 0; i < length && row < getRows(); i++) {
+                char c = buffer[i];
+
+                if (c == '\n') {
+                    if (!skipLine && (column != 0 || run != 0)) {
+                        throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                    }
+                    skipLine = false;
+                    continue;
+                }
+
+                if (skipLine) {
+                    continue;
+                }
+
+                if (c >= '0' && c <= '9') {
+                    run = run * 10 + (c - '0');
+                    if (run == 0 || column + run > getColumns()) {
+                        throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                    }
+                    continue;
+                }
+
+                if (column == 0 && run == 0) {
+                    if (c == '#') {
+                        skipLine = true;
+                        continue;
+                    }
+                    if (Character.isWhitespace(c)) {
+                        continue;
+                    }
+                }
+
+                CellType type = CellType.map2CellType(c);
+
+                if (type == null) {
+                    throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                }
+
+                int count = run == 0 ? 1 : run;
+                run = 0;
+
+                if (type == CellType.START) {
+                    if (row != getRows() - 1) {
+                        throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                    }
+                    for (int j = 0; j < count; j++) {
+                        startColumns[numStarts++] = column + j;
+                    }
+                } else if (type == CellType.FINISH) {
+                    if (row != 0) {
+                        throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                    }
+                    for (int j = 0; j < count; j++) {
+                        finishColumns[numFinishes++] = column + j;
+                    }
+                }
+
+                isRoad |= MOVABLE[type.ordinal()] || ROTATABLE[type.ordinal()];
 
-            if (getCell(new Coordinate(0, j)).getType() == CellType.FINISH) {
-                isFinish = true;
+                if (count == 1) {
+                    builder.set(index++, type.ordinal());
+                } else {
+                    builder.fill(index, index + count, type.ordinal());
+                    index += count;
+                }
+                column += count;
+
+                if (column == getColumns()) {
+                    row++;
+                    column = 0;
+                    skipLine = true;
+                }
             }
         }
 
-        //Checks if there are more than one starting cell
-        if (Stream.of(board).flatMap(Arrays::stream).filter(x -> x.getType() == CellType.START).count() > 1) {
+        if (row < getRows()) {
             throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
         }
 
-        //Checks if there are more than one finish cell
-        if (Stream.of(board).flatMap(Arrays::stream).filter(x -> x.getType() == CellType.FINISH).count() > 1) {
-            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        board = builder.build();
+        checkRequirements(numStarts, numFinishes, isRoad);
+    }
+
+    /**
+     * Checks the board's requirements (see {@link #readBoard(BufferedReader)}) of a board that has been
+     * decoded without checking them, in one pass over the board.
+     *
+     * @throws LevelException When the board has an unknown cell or some board's requirement is not satisfied.
+     */
+    private void validateBoard() throws LevelException {
+        int numStarts = 0;
+        int numFinishes = 0;
+        boolean isRoad = false;
+        int lastRow = (getRows() - 1) * getColumns();
+
+        startColumns = new int[getColumns()];
+        finishColumns = new int[getColumns()];
+
+        for (int index = 0; index < board.size(); index++) {
+            int type = board.get(index);
+
+            if (type < 0 || type >= TYPES.length) {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+
+            if (type == CellType.START.ordinal()) {
+                if (index < lastRow) {
+                    throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                }
+                startColumns[numStarts++] = index - lastRow;
+            } else if (type == CellType.FINISH.ordinal()) {
+                if (index >= getColumns()) {
+                    throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                }
+                finishColumns[numFinishes++] = index;
+            }
+
+            isRoad |= MOVABLE[type] || ROTATABLE[type];
         }
 
-        if (!isStarting) {
+        checkRequirements(numStarts, numFinishes, isRoad);
+    }
+
+    /**
+     * Checks the requirements that depend on the whole board, once it has been read,
+     * and trims the arrays with the columns of the starting and finish cells.
+     *
+     * @param numStarts Number of starting cells.
+     * @param numFinishes Number of finish cells.
+     * @param isRoad Whether there is one road (i.e. movable or rotatable cell) at least.
+     * @throws LevelException When some board's requirement is not satisfied.
+     */
+    private void checkRequirements(int numStarts, int numFinishes, boolean isRoad) throws LevelException {
+        if (numStarts == 0) {
             throw new LevelException(LevelException.ERROR_NO_STARTING);
         }
 
-        if (!isFinish) {
+        if (numFinishes == 0) {
             throw new LevelException(LevelException.ERROR_NO_FINISH);
         }
 
-        //Checks if there is one road (i.e. movable or rotatable cell) at least.
-        if (Stream.of(board).flatMap(Arrays::stream).noneMatch(x -> x.isMovable() || x.isRotatable())) {
+        if (numStarts != numFinishes) {
+            throw new LevelException(LevelException.ERROR_UNPAIRED_CELLS);
+        }
+
+        if (!isRoad) {
             throw new LevelException(LevelException.ERROR_NO_ROAD);
         }
+
+        startColumns = Arrays.copyOf(startColumns, numStarts);
+        finishColumns = Arrays.copyOf(finishColumns, numFinishes);
     }
 
+    /**
+     * Returns the board of the level: the ordinal of the CellType of each cell, row after row.
+     * It is the board used by the level, so it must not be modified.
+     *
+     * @return Board of the level.
+     */
+    Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the columns of the starting cells, from left to right. The array must not be modified.
+     *
+     * @return Columns of the starting cells.
+     */
+    int[] getStartColumns() {
+        return startColumns;
+    }
+
+    /**
+     * Returns the columns of the finish cells, from left to right. The array must not be modified.
+     *
+     * @return Columns of the finish cells.
+     */
+    int[] getFinishColumns() {
+        return finishColumns;
+    }
+
+    /**
+     * Returns the cell that is in the given coordinate. The same object is returned while the piece
+     * stays in the board, and it is updated when the piece is moved or rotated.
+     *
+     * @param coord Coordinate of the cell.
+     * @return Cell which is in the coordinate.
+     * @throws LevelException When the coordinate is invalid.
+     */
     public Cell getCell(Coordinate coord) throws LevelException {
         if (!validatePosition(coord)) {
             throw new LevelException(LevelException.ERROR_COORDINATE);
         } else {
-            return board[coord.getRow()][coord.getColumn()];
+            int index = coord.getRow() * getColumns() + coord.getColumn();
+            Cell cell = cells.get(index);
+
+            if (cell == null) {
+                cell = CellFactory.getCellInstance(coord.getRow(), coord.getColumn(), TYPES[board.get(index)]);
+                cells.put(index, cell);
+            }
+            return cell;
         }
     }
 
@@ -161,19 +519,37 @@ public  class  Level {
         if ((!validatePosition(coord)) || (cell == null)) {
             throw new LevelException(LevelException.ERROR_COORDINATE);
         } else {
-            board[coord.getRow()][coord.getColumn()] = cell;
+            int index = coord.getRow() * getColumns() + coord.getColumn();
+            board.set(index, cell.getType().ordinal());
+            cells.put(index, cell);
         }
     }
 
-    public int getSize() {
-        return size;
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    private void setSize(int rows, int columns) throws LevelException {
+        checkSize(rows, columns);
+        this.rows = rows;
+        this.columns = columns;
     }
 
-    private void setSize(int size) throws LevelException {
-        if (size < MINIMUM_BOARD_SIZE) {
+    /**
+     * Checks that the number of rows and columns are between MINIMUM_BOARD_SIZE and MAXIMUM_BOARD_SIZE.
+     *
+     * @param rows Number of rows.
+     * @param columns Number of columns.
+     * @throws LevelException When the number of rows or columns is wrong.
+     */
+    static void checkSize(int rows, int columns) throws LevelException {
+        if (rows < MINIMUM_BOARD_SIZE || columns < MINIMUM_BOARD_SIZE
+                || rows > MAXIMUM_BOARD_SIZE || columns > MAXIMUM_BOARD_SIZE) {
             throw new LevelException(LevelException.ERROR_BOARD_SIZE);
-        } else {
-            this.size = size;
         }
     }
 
@@ -210,154 +586,294 @@ public  class  Level {
     }
 
     private boolean validatePosition(Coordinate coord) {
-        return ((0 <= coord.getRow()) && (coord.getRow() < size))
-                && ((0 <= coord.getColumn()) && (coord.getColumn() < size));
+        return ((0 <= coord.getRow()) && (coord.getRow() < rows))
+                && ((0 <= coord.getColumn()) && (coord.getColumn() < columns));
     }
 
+    /**
+     * Returns the number of starting/finish pairs that the level has.
+     *
+     * @return Number of starting cells, which is equal to the number of finish cells.
+     */
+    public int getNumPairs() {
+        return startColumns.length;
+    }
+
+    /**
+     * Checks if the level is solved, i.e. the starting cell of every pair is connected by road with its finish cell.
+     * Giant dense boards are checked in parallel on the common ForkJoinPool. Sparse and tiled boards are always
+     * checked sequentially, since the parallel check needs memory for every cell
+     * (see {@link ParallelConnectivity#isSupported(Board)}).
+     *
+     * @return True if the level is solved. Otherwise, false.
+     */
     public boolean isSolved() {
-        //en columna quedará asignada la columna donde esta la pieza START
-        int columna = 0;
-        int fila = size-1;
-        while ((board[fila][columna]).getType() != CellType.START) {
-            System.out.print((board[fila][columna]).getType() + " " + columna + fila + " ");
-            columna++;
-
-        }
-
-        int anteriorfila = fila;
-        int anteriorcolun = columna;
-        int actualco = columna;
-        int n = 0;
-
-        System.out.print(System.lineSeparator() + "star: " + (board[fila][columna]).getType() +
-                " " + columna + fila + System.lineSeparator());
-
-        //confirmamos que la casilla que esta por encima de START tiene entrada DOWNN, en caso contrario no tiene recorrido
-        fila--;
-        if (!(Objects.equals((board[fila][columna]).getType().getAvailableConnections(), EnumSet.of(Direction.DOWN, Direction.LEFT)))
-                && !(Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                EnumSet.of(Direction.DOWN, Direction.RIGHT)))
-                && !(Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                EnumSet.of(Direction.DOWN, Direction.UP)))) {
-            System.out.print(System.lineSeparator() + "no valido: " + (board[fila][columna]).getType().getAvailableConnections() +
-                    " " + columna + fila + EnumSet.of(Direction.DOWN, Direction.LEFT) + System.lineSeparator());
-            return false;
-        }
-
-        System.out.print(System.lineSeparator() + "SI valido: " + (board[fila + 1][columna]).getType() +
-                " " + (columna + 1) + fila + System.lineSeparator());
-
-        System.out.print(System.lineSeparator() + "SI valido siguiente: " + (board[fila][columna]).getType() +
-                " " + columna + fila + System.lineSeparator());
-
-        while ( (((board[fila][columna]).getType() != CellType.FINISH))
-                && ((fila>0) && (columna >0))
-                && (n<5)
-                &&((board[fila][columna]).getType() != CellType.FREE)
-                &&((board[fila][columna]).getType() != CellType.MOUNTAINS)
-                &&((board[fila][columna]).getType() != CellType.RIVER)
-                &&  ((board[fila][columna]).getType() != CellType.START)){
-
-            //caso right
-            if ((Objects.equals((board[fila][columna]).getType().getAvailableConnections(), EnumSet.of(Direction.RIGHT, Direction.LEFT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.DOWN, Direction.RIGHT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.RIGHT, Direction.UP)))) {
-                if  ( ((board[fila][anteriorcolun]).getType().getAvailableConnections()) != (EnumSet.of(Direction.RIGHT ))) {
-                //if ((anteriorcolun != columna) ){
-                    anteriorcolun++;
-                    columna++;
-                    actualco++;
-                    System.out.print(System.lineSeparator() + "caso right " + (board[fila][columna]).getType() +
-                            " " + columna + fila + System.lineSeparator());
-                }
-            }
-            if ( ((board[fila][columna]).getType() == CellType.FINISH)) {
-                return true;
+        if (ParallelConnectivity.isSupported(board) && board.size() >= PARALLEL_CHECK_SIZE
+                && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            if (visited == null) {
+                visited = new int[board.size()];
             }
+            return ParallelConnectivity.isSolved(board, getRows(), getColumns(), startColumns, finishColumns,
+                    visited, ForkJoinPool.commonPool());
+        }
+
+        int pairs = getNumPairs();
+        int[] component = new int[pairs];
+        int tail = 0;
+
+        //Labels: 0 for the non-visited cells
+        prepareTraversal(0);
+
+        //All the starting cells are the sources of one single traversal. Each one has its own label.
+        for (int pair = 0; pair < pairs; pair++) {
+            int index = (getRows() - 1) * getColumns() + startColumns[pair];
+            component[pair] = pair;
+            setVisited(index, pair + 1);
+            enqueue(tail++, index);
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int index = queue[head];
+            int current = getVisited(index) - 1;
+
+            for (int bits = MASKS[board.get(index)]; bits != 0; bits &= bits - 1) {
+                int next = neighbour(index, Integer.numberOfTrailingZeros(bits));
 
-            //caso up
-            if ((Objects.equals((board[fila][columna]).getType().getAvailableConnections(), EnumSet.of(Direction.UP, Direction.LEFT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.UP, Direction.RIGHT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.DOWN, Direction.UP)))) {
-                if  ( ((board[anteriorfila][columna]).getType().getAvailableConnections()) != (EnumSet.of(Direction.UP ))) {
-                //if (fila != anteriorfila) {
-                    fila++;
-                    anteriorfila++;
-                    System.out.print(System.lineSeparator() + "caso up " + (board[fila][columna]).getType() +
-                            " " + columna + fila + System.lineSeparator());
+                if (next == -1) {
+                    continue;
+                }
+
+                int label = getVisited(next);
+
+                if (label == 0) {
+                    setVisited(next, current + 1);
+                    enqueue(tail++, next);
+                } else {
+                    //Two traversals meet, so their starting cells are in the same road network.
+                    component[find(component, label - 1)] = find(component, current);
                 }
             }
-            if ( ((board[fila][columna]).getType() == CellType.FINISH)) {
-                return true;
+        }
+
+        for (int pair = 0; pair < pairs; pair++) {
+            int finish = getVisited(finishColumns[pair]);
+
+            if (finish == 0 || find(component, finish - 1) != find(component, pair)) {
+                return false;
             }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the route that connects the starting cell with the finish cell of the first pair.
+     *
+     * @return Unmodifiable list with the coordinates of the route, or an empty list if the cells are not connected.
+     * @see #getRoute(int)
+     */
+    public List<Coordinate> getRoute() {
+        return getRoute(0);
+    }
 
-            //caso down
-            if ((Objects.equals((board[fila][columna]).getType().getAvailableConnections(), EnumSet.of(Direction.DOWN, Direction.LEFT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.DOWN, Direction.RIGHT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.DOWN, Direction.UP)))) {
-                if  ( ((board[anteriorfila][columna]).getType().getAvailableConnections()) != (EnumSet.of(Direction.DOWN ))) {
-                //if (fila != anteriorfila) {
-                    fila--;
-                    anteriorfila--;
-                    System.out.print(System.lineSeparator() + "caso down " + (board[fila][columna]).getType() +
-                            " " + columna + fila + System.lineSeparator());
+    /**
+     * Returns the route that connects the starting cell with the finish cell of the given pair,
+     * in order from START to FINISH. When the road has junctions, it is the shortest route.<br/>
+     * The route is computed the first time it is requested and cached until the next swap or rotation.
+     *
+     * @param pair Index of the pair, from 0 to {@link #getNumPairs()} - 1.
+     * @return Unmodifiable list with the coordinates of the route, or an empty list if the cells are not connected.
+     */
+    public List<Coordinate> getRoute(int pair) {
+        if (routes == null) {
+            routes = new ArrayList<>(Collections.nCopies(getNumPairs(), null));
+        }
+
+        List<Coordinate> route = routes.get(pair);
+
+        if (route == null) {
+            int index = search(pair);
+
+            if (index == -1) {
+                route = Collections.emptyList();
+            } else {
+                List<Coordinate> path = new ArrayList<>();
+                for (; index != -1; index = getVisited(index) - 1) {
+                    path.add(new Coordinate(index / getColumns(), index % getColumns()));
                 }
+                Collections.reverse(path);
+                route = Collections.unmodifiableList(path);
             }
-            if ( ((board[fila][columna]).getType() == CellType.FINISH)) {
-                return true;
+            routes.set(pair, route);
+        }
+        return route;
+    }
+
+    /**
+     * Traverses the road network from the starting cell of the given pair until its finish cell is found
+     * (breadth-first search over the connection masks).
+     * Every cell is visited at most once, so the cost is linear in the size of the board.<br/>
+     * Afterwards, {@link #getVisited(int)} returns 1 + the index of the cell from which each cell has been reached,
+     * 0 for the starting cell and -1 for the non-visited cells.
+     *
+     * @param pair Index of the pair.
+     * @return Index (row * columns + column) of the finish cell if it is reached. Otherwise, -1.
+     */
+    private int search(int pair) {
+        int start = (getRows() - 1) * getColumns() + startColumns[pair];
+        int target = finishColumns[pair];
+        int tail = 0;
+
+        prepareTraversal(-1);
+        enqueue(tail++, start);
+        setVisited(start, 0);
+
+        for (int head = 0; head < tail; head++) {
+            int index = queue[head];
+
+            if (index == target) {
+                return index;
             }
 
-            //caso left
-            if ((Objects.equals((board[fila][columna]).getType().getAvailableConnections(), EnumSet.of(Direction.DOWN, Direction.LEFT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.LEFT, Direction.RIGHT))) ||
-                    (Objects.equals((board[fila][columna]).getType().getAvailableConnections(),
-                            EnumSet.of(Direction.LEFT, Direction.UP)))) {
-                if  ( ((board[fila][anteriorcolun]).getType().getAvailableConnections()) != (EnumSet.of(Direction.LEFT ))) {
-               // if (anteriorcolun != columna) {
-                    anteriorcolun--;
-                    columna--;
-                    actualco--;
-                    System.out.print(System.lineSeparator() + "caso left " + (board[fila][columna]).getType() +
-                            " " + columna + fila + System.lineSeparator());
+            for (int bits = MASKS[board.get(index)]; bits != 0; bits &= bits - 1) {
+                int next = neighbour(index, Integer.numberOfTrailingZeros(bits));
+
+                if (next != -1 && getVisited(next) == -1) {
+                    setVisited(next, index + 1);
+                    enqueue(tail++, next);
                 }
             }
-            if ( ((board[fila][columna]).getType() == CellType.FINISH)) {
-                return true;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Prepares the data that is used by the traversals of the board.
+     * Sparse and tiled boards only keep the data of the visited cells, so their traversals do not depend on the size
+     * of the board.
+     *
+     * @param value Initial value of the data of every cell.
+     */
+    private void prepareTraversal(int value) {
+        if (queue == null) {
+            queue = new int[Math.min(board.size(), INITIAL_QUEUE_SIZE)];
+        }
+
+        if (board instanceof DenseBoard) {
+            if (visited == null) {
+                visited = new int[board.size()];
             }
+            Arrays.fill(visited, value);
+        } else {
+            visitedMap = new IntMap(value);
+        }
+    }
+
+    /**
+     * Returns the data of the current traversal for the given cell.
+     *
+     * @param index Position of the cell in {@link #board}.
+     * @return Data of the cell.
+     */
+    private int getVisited(int index) {
+        return visited != null ? visited[index] : visitedMap.get(index);
+    }
 
+    /**
+     * Sets the data of the current traversal for the given cell.
+     *
+     * @param index Position of the cell in {@link #board}.
+     * @param value Data of the cell.
+     */
+    private void setVisited(int index, int value) {
+        if (visited != null) {
+            visited[index] = value;
+        } else {
+            visitedMap.put(index, value);
+        }
+    }
 
-            System.out.print(System.lineSeparator() + "caso fallo " + (board[fila][columna]).getType() +
-                    " " + columna + fila + System.lineSeparator());
-            n++;
+    /**
+     * Puts a cell in the given position of {@link #queue}, which grows if it is full.
+     *
+     * @param position Position of the queue (its current length).
+     * @param index Position of the cell in {@link #board}.
+     */
+    private void enqueue(int position, int index) {
+        if (position == queue.length) {
+            queue = Arrays.copyOf(queue, 2 * queue.length);
         }
-        return true;
+        queue[position] = index;
+    }
+
+    /**
+     * Returns the cell that is connected by road with the given cell in the given direction.<br/>
+     * Two adjacent cells are connected when each one has a connection towards the other one.
+     *
+     * @param index Position of the cell in {@link #board}.
+     * @param directionIndex Index of the direction (see {@link Direction#getValueByIndex(int)}).
+     * @return Position of the connected cell in {@link #board}, or -1 if there is none.
+     */
+    private int neighbour(int index, int directionIndex) {
+        Direction direction = Direction.getValueByIndex(directionIndex);
+        int row = index / getColumns() + direction.getDRow();
+        int column = index % getColumns() + direction.getDColumn();
+
+        if (row < 0 || row >= getRows() || column < 0 || column >= getColumns()) {
+            return -1;
+        }
+
+        int next = row * getColumns() + column;
+        return (MASKS[board.get(next)] & direction.getOpposite().getMask()) != 0 ? next : -1;
+    }
+
+    /**
+     * Returns the representative of the given component (union-find with path halving).
+     *
+     * @param component Array in which each component points to its parent.
+     * @param index Component whose representative is wanted.
+     * @return Representative of the component.
+     */
+    private static int find(int[] component, int index) {
+        while (component[index] != index) {
+            component[index] = component[component[index]];
+            index = component[index];
+        }
+        return index;
     }
 
     public void swapCells(Coordinate firstCoord, Coordinate secondCoord) throws LevelException {
 
+        if (!validatePosition(firstCoord) || !validatePosition(secondCoord)) {
+            throw new LevelException(LevelException.ERROR_COORDINATE);
+        }
+
+        int first = firstCoord.getRow() * getColumns() + firstCoord.getColumn();
+        int second = secondCoord.getRow() * getColumns() + secondCoord.getColumn();
+
         // si las piezas en la posición del board son móviles
-        if (((board[firstCoord.getRow()][firstCoord.getColumn()]).isMovable()) &&
-                ((board[secondCoord.getRow()][secondCoord.getColumn()]).isMovable())) {
+        if (MOVABLE[board.get(first)] && MOVABLE[board.get(second)]) {
 
-            // Creo 2 objetos temporales para guardar el objeto first y secund del tablero.
-            MovableCell a = (MovableCell) (board[firstCoord.getRow()][firstCoord.getColumn()]);
-            MovableCell b = (MovableCell) (board[secondCoord.getRow()][secondCoord.getColumn()]);
+            int type = board.get(first);
+            board.set(first, board.get(second));
+            board.set(second, type);
 
-            //intercambio de objetos
-            a.move(secondCoord);
-            b.move(firstCoord);
+            // Los objetos Cell ya creados se mueven con sus piezas.
+            MovableCell a = (MovableCell) cells.remove(first);
+            MovableCell b = (MovableCell) cells.remove(second);
+
+            if (a != null) {
+                a.move(secondCoord);
+                cells.put(second, a);
+            }
 
-            setCell(firstCoord, b);
-            setCell(secondCoord, a);
+            if (b != null) {
+                b.move(firstCoord);
+                cells.put(first, b);
+            }
 
             numMoves++;
+            routes = null;
 
         } else {
             throw new LevelException(LevelException.ERROR_NO_MOVABLE_CELL);
@@ -366,45 +882,68 @@ public  class  Level {
 
     public void rotateCell(Coordinate coord) throws LevelException {
 
+        if (!validatePosition(coord)) {
+            throw new LevelException(LevelException.ERROR_COORDINATE);
+        }
+
+        int index = coord.getRow() * getColumns() + coord.getColumn();
+
         // si la pieza en la posición del board es rotable
-        if ((board[coord.getRow()][coord.getColumn()]).isRotatable()) {
+        if (ROTATABLE[board.get(index)]) {
 
-            RotatableCell c = ( RotatableCell) (board[coord.getRow()][coord.getColumn()]);
-            c.rotate();
+            board.set(index, TYPES[board.get(index)].next().ordinal());
+
+            RotatableCell c = (RotatableCell) cells.get(index);
+            if (c != null) {
+                c.rotate();
+            }
 
             numMoves++;
+            routes = null;
 
         } else {
             throw new LevelException(LevelException.ERROR_NO_ROTATABLE_CELL);
         }
     }
 
+    /**
+     * Returns the label of the given row: a, b, ..., z, aa, ab, ...
+     *
+     * @param row Row of the board.
+     * @return Label of the row that is used in the textual representation of the board.
+     */
+    private static String getRowLabel(int row) {
+        StringBuilder label = new StringBuilder();
+        for (int value = row + 1; value > 0; value = (value - 1) / 26) {
+            label.append((char) ('a' + (value - 1) % 26));
+        }
+        return label.reverse().toString();
+    }
+
     @Override
     public String toString() {
-
-            // Recorrido dinámico del board
-
-            String string = System.lineSeparator();
-            int lado = getSize();
-            //Primera línea de las columnas, desde 1 hasta size (en este caso 1234)
-            for (int x = 0; x < lado; x++) {
-                string = string + (x+1);
-                //string += x+1;
+        StringBuilder string = new StringBuilder(System.lineSeparator());
+        int labelWidth = getRowLabel(getRows() - 1).length();
+
+        //Una línea por cada cifra de las columnas (decenas, unidades...), alineadas con el tablero
+        for (int place = String.valueOf(getColumns()).length() - 1; place >= 0; place--) {
+            string.append(" ".repeat(labelWidth + 1));
+            int power = (int) Math.pow(10, place);
+            for (int column = 1; column <= getColumns(); column++) {
+                string.append(column >= power ? (char) ('0' + column / power % 10) : ' ');
             }
-            string += System.lineSeparator();
-            //Recorrido de filas. Cada vez que incremento 1 fila, aumenta el 97, en el caso de la fila b pasa a ser el 98
-            for (int i = 0; i < lado; i++) {
-                //códico Ascii del char 'a', es 97
-                int prueba = (97 +i);
-                char c = (char)prueba;
-                string += c + "|";
-                //Recorrido de columnas
-                for (int j = 0; j < lado; j++) {
-                    //string = string + board[i][j].getType().getUnicodeRepresentation();
-                    string += board[i][j].getType().getUnicodeRepresentation();
-                }
-                string += System.lineSeparator();
+            string.append(System.lineSeparator());
+        }
+
+        //Recorrido de filas: a, b, c... y después aa, ab..., alineadas a la derecha
+        for (int row = 0, index = 0; row < getRows(); row++) {
+            String label = getRowLabel(row);
+            string.append(" ".repeat(labelWidth - label.length())).append(label).append('|');
+            for (int column = 0; column < getColumns(); column++) {
+                string.append(TYPES[board.get(index++)].getUnicodeRepresentation());
             }
-            return string;
+            string.append(System.lineSeparator());
         }
+        return string.toString();
+    }
 }
@@ -0,0 +1,282 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Compact binary encoding of levels.<br/><br/>
+ *
+ * Layout (big-endian):
+ * <ul>
+ *     <li>Magic number "UOCL" (4 bytes) and version (1 byte).</li>
+ *     <li>Difficulty (1 byte, ordinal of LevelDifficulty), rows (4 bytes) and columns (4 bytes).</li>
+ *     <li>Bits per cell (1 byte, 4 or 8), palette size (1 byte) and palette (the file symbol of each
+ *     CellType of the level, 2 bytes each).</li>
+ *     <li>Cells, row after row: the index in the palette of each cell. With 4 bits per cell, two cells are
+ *     packed in each byte (the first one in the high nibble).</li>
+ * </ul>
+ *
+ * Levels that use at most 16 different types of cell (i.e. almost all of them) are written with 4 bits per cell.
+ * The palette keeps the files valid when new types of cell are added to CellType.
+ *
+ * @version 1.0
+ */
+public final class LevelBinaryFormat {
+
+    /**
+     * Magic number of the binary level files ("UOCL").
+     */
+    private static final int MAGIC = 0x554F434C;
+
+    /**
+     * Version of the format.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * Size in bytes of the fixed part of the header.
+     */
+    private static final int HEADER_SIZE = 4 + 1 + 1 + 4 + 4 + 1 + 1;
+
+    /**
+     * Maximum number of types of cell that can be packed in 4 bits.
+     */
+    private static final int NIBBLE_PALETTE_SIZE = 16;
+
+    private LevelBinaryFormat() {
+    }
+
+    /**
+     * Loads a binary level file. The file is memory-mapped and the cells are decoded directly from the mapping.
+     *
+     * @param file Path of the binary level file.
+     * @return Level object with the data of the file.
+     * @throws IOException When the file cannot be read.
+     * @throws LevelException When the content is not a valid binary level.
+     */
+    public static Level read(Path file) throws IOException, LevelException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Decodes a level from the buffer, starting at its current position.
+     * The position is left just after the level.
+     *
+     * @param buffer Buffer with a binary level.
+     * @return Level object with the data of the buffer.
+     * @throws LevelException When the content is not a valid binary level.
+     */
+    static Level decode(ByteBuffer buffer) throws LevelException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+
+            LevelDifficulty difficulty = LevelDifficulty.values()[buffer.get()];
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            int bits = buffer.get();
+            int paletteSize = buffer.get() & 0xFF;
+
+            if ((bits != 4 && bits != 8) || (bits == 4 && paletteSize > NIBBLE_PALETTE_SIZE)) {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+            //The size is checked before allocating the board, so a corrupt header cannot exhaust the memory
+            Level.checkSize(rows, columns);
+
+            //Ordinal of each entry of the palette. Unused entries are -1, so wrong indexes are detected.
+            byte[] palette = new byte[1 << bits];
+            Arrays.fill(palette, (byte) -1);
+
+            for (int i = 0; i < paletteSize; i++) {
+                CellType type = CellType.map2CellType(buffer.getChar());
+                if (type == null) {
+                    throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                }
+                palette[i] = (byte) type.ordinal();
+            }
+
+            int size = rows * columns;
+            int cellBytes = bits == 4 ? (size + 1) / 2 : size;
+            if (buffer.remaining() < cellBytes) {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+
+            //First pass: number of cells of each CellType, so the board gets the storage that fits its content
+            int start = buffer.position();
+            long[] counts = new long[CellType.values().length];
+            if (BoardFactory.isCounted(size)) {
+                long[] entries = new long[palette.length];
+                for (int index = 0; index < size; index++) {
+                    entries[getEntry(buffer, start, bits, index)]++;
+                }
+                for (int i = 0; i < palette.length; i++) {
+                    if (entries[i] > 0) {
+                        if (palette[i] < 0) {
+                            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                        }
+                        counts[palette[i]] += entries[i];
+                    }
+                }
+            }
+
+            Board board;
+            try {
+                board = BoardFactory.create(size, counts);
+            } catch (IOException e) {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+
+            //Second pass: the cells of the default type of the board are already there
+            int defaultType = BoardFactory.getDominantType(counts);
+            for (int index = 0; index < size; index++) {
+                int type = palette[getEntry(buffer, start, bits, index)];
+                if (type != defaultType) {
+                    board.set(index, type);
+                }
+            }
+            buffer.position(start + cellBytes);
+
+            //Unknown palette entries (-1) are detected by the validation of the level.
+            return new Level(rows, columns, difficulty, board);
+
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+    }
+
+    /**
+     * Returns the palette entry of a cell.
+     *
+     * @param buffer Binary level.
+     * @param start Position of the first cell.
+     * @param bits Bits per cell (4 or 8).
+     * @param index Index of the cell.
+     * @return Index of the palette entry.
+     */
+    private static int getEntry(ByteBuffer buffer, int start, int bits, int index) {
+        if (bits == 4) {
+            int packed = buffer.get(start + index / 2);
+            return index % 2 == 0 ? (packed >> 4) & 0x0F : packed & 0x0F;
+        }
+        return buffer.get(start + index) & 0xFF;
+    }
+
+    /**
+     * Encodes the current state of the level.
+     *
+     * @param level Level to encode.
+     * @return Buffer (flipped, ready to be read) with the binary level.
+     */
+    static ByteBuffer encode(Level level) {
+        Board board = level.getBoard();
+        CellType[] types = CellType.values();
+
+        //Palette: index of each ordinal in the palette (-1 if it is not used).
+        int[] paletteIndex = new int[types.length];
+        Arrays.fill(paletteIndex, -1);
+        int paletteSize = 0;
+        char[] palette = new char[types.length];
+
+        for (int index = 0; index < board.size(); index++) {
+            int type = board.get(index);
+            if (paletteIndex[type] == -1) {
+                paletteIndex[type] = paletteSize;
+                palette[paletteSize++] = types[type].getFileSymbol();
+            }
+        }
+
+        int bits = paletteSize <= NIBBLE_PALETTE_SIZE ? 4 : 8;
+        int cellBytes = bits == 4 ? (board.size() + 1) / 2 : board.size();
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + 2 * paletteSize + cellBytes);
+
+        buffer.putInt(MAGIC)
+                .put(VERSION)
+                .put((byte) level.getDifficulty().ordinal())
+                .putInt(level.getRows())
+                .putInt(level.getColumns())
+                .put((byte) bits)
+                .put((byte) paletteSize);
+
+        for (int i = 0; i < paletteSize; i++) {
+            buffer.putChar(palette[i]);
+        }
+
+        if (bits == 4) {
+            for (int index = 0; index < board.size(); index += 2) {
+                int high = paletteIndex[board.get(index)] << 4;
+                int low = index + 1 < board.size() ? paletteIndex[board.get(index + 1)] : 0;
+                buffer.put((byte) (high | low));
+            }
+        } else {
+            for (int index = 0; index < board.size(); index++) {
+                buffer.put((byte) paletteIndex[board.get(index)]);
+            }
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Writes the current state of the level in a binary level file.
+     *
+     * @param level Level to write.
+     * @param file Path of the binary file. It is created or replaced.
+     * @throws IOException When the file cannot be written.
+     */
+    public static void write(Level level, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = encode(level);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Converts a text level file (the format of the files in the "levels" folder) into a binary level file.
+     *
+     * @param textFile Path of the text level file.
+     * @param binaryFile Path of the binary file. It is created or replaced.
+     * @throws IOException When a file cannot be read or written.
+     * @throws LevelException When the text file is not a valid level.
+     */
+    public static void convert(Path textFile, Path binaryFile) throws IOException, LevelException {
+        try (InputStream inputStream = Files.newInputStream(textFile)) {
+            write(new Level(inputStream), binaryFile);
+        }
+    }
+
+    /**
+     * Converts text level files into binary level files.
+     *
+     * @param args Pairs of paths: text level file followed by binary level file.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0 || args.length % 2 != 0) {
+            System.err.println("Usage: LevelBinaryFormat <text level file> <binary level file> ...");
+            System.exit(1);
+        }
+
+        for (int i = 0; i < args.length; i += 2) {
+            try {
+                convert(Path.of(args[i]), Path.of(args[i + 1]));
+            } catch (IOException | LevelException e) {
+                System.err.println(args[i] + ": " + e.getMessage());
+                System.exit(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package edu.uoc.trip.model.levels;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Archive that holds many levels in a single file.<br/><br/>
+ *
+ * Layout (big-endian):
+ * <ul>
+ *     <li>Magic number "UOCP" (4 bytes), version (1 byte) and number of levels (4 bytes).</li>
+ *     <li>Index: one entry per level with the offset (8 bytes) and length (4 bytes) of its data, rows (4 bytes),
+ *     columns (4 bytes), difficulty (1 byte) and par, i.e. minimum known number of moves (4 bytes, 0 if unknown).</li>
+ *     <li>Data: the levels, one after another, in the format of LevelBinaryFormat.</li>
+ * </ul>
+ *
+ * Index entries have a fixed size, so any level is found in O(1) and only the levels that are requested
+ * are decoded. Levels are numbered from 1, like the "levelN.txt" files.
+ *
+ * @version 1.0
+ */
+public final class LevelPack implements LevelSource {
+
+    /**
+     * Extension of the pack files.
+     */
+    public static final String EXTENSION = ".pack";
+
+    /**
+     * Magic number of the pack files ("UOCP").
+     */
+    private static final int MAGIC = 0x554F4350;
+
+    /**
+     * Version of the format.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * Size in bytes of the header.
+     */
+    private static final int HEADER_SIZE = 4 + 1 + 4;
+
+    /**
+     * Size in bytes of each entry of the index.
+     */
+    private static final int ENTRY_SIZE = 8 + 4 + 4 + 4 + 1 + 4;
+
+    /**
+     * Content of the pack (memory-mapped or in memory).
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Name of the pack (e.g. its path and the last-modified time and size of the file), used in the keys
+     * of its levels.
+     */
+    private final String name;
+
+    /**
+     * Number of levels of the pack.
+     */
+    private final int size;
+
+    /**
+     * Constructor. It only checks the header and the bounds of the index.
+     *
+     * @param buffer Content of the pack.
+     * @param name Name of the pack.
+     * @throws LevelException When the content is not a valid pack.
+     */
+    private LevelPack(ByteBuffer buffer, String name) throws LevelException {
+        this.buffer = buffer;
+        this.name = name;
+
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        size = buffer.getInt(5);
+
+        if (size < 0 || HEADER_SIZE + (long) size * ENTRY_SIZE > buffer.limit()) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+    }
+
+    /**
+     * Opens a pack file. The file is memory-mapped, so only the header, the index and the requested levels
+     * are actually read.
+     *
+     * @param file Path of the pack file.
+     * @return Object to access the levels of the pack.
+     * @throws IOException When the file cannot be read or is larger than 2 GB.
+     * @throws LevelException When the content is not a valid pack.
+     */
+    public static LevelPack open(Path file) throws IOException, LevelException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Pack files cannot be larger than 2 GB: " + file);
+            }
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new LevelPack(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    file.toAbsolutePath() + "@" + attributes.lastModifiedTime() + "." + channel.size());
+        }
+    }
+
+    /**
+     * Reads a pack from a stream, e.g. a resource inside a jar file, which cannot be memory-mapped.
+     *
+     * @param inputStream Stream with the content of the pack.
+     * @param name Name of the pack (e.g. the name of the resource), used in the keys of its levels.
+     * @return Object to access the levels of the pack.
+     * @throws IOException When the stream cannot be read.
+     * @throws LevelException When the content is not a valid pack.
+     */
+    public static LevelPack read(InputStream inputStream, String name) throws IOException, LevelException {
+        return new LevelPack(ByteBuffer.wrap(inputStream.readAllBytes()), name);
+    }
+
+    /**
+     * Returns the number of levels of the pack.
+     *
+     * @return Number of levels of the pack.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the position of the index entry of the given level.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Position of the entry in the buffer.
+     * @throws LevelException When there is no level with the given number.
+     */
+    private int getEntry(int number) throws LevelException {
+        if (number < 1 || number > size) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+        return HEADER_SIZE + (number - 1) * ENTRY_SIZE;
+    }
+
+    /**
+     * Returns the number of rows of the given level without decoding it.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Number of rows of the board of the level.
+     * @throws LevelException When there is no level with the given number.
+     */
+    public int getRows(int number) throws LevelException {
+        return buffer.getInt(getEntry(number) + 12);
+    }
+
+    /**
+     * Returns the number of columns of the given level without decoding it.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Number of columns of the board of the level.
+     * @throws LevelException When there is no level with the given number.
+     */
+    public int getColumns(int number) throws LevelException {
+        return buffer.getInt(getEntry(number) + 16);
+    }
+
+    /**
+     * Returns the difficulty of the given level without decoding it.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Difficulty of the level.
+     * @throws LevelException When there is no level with the given number or its index entry is not valid.
+     */
+    public LevelDifficulty getDifficulty(int number) throws LevelException {
+        int ordinal = buffer.get(getEntry(number) + 20);
+
+        if (ordinal < 0 || ordinal >= LevelDifficulty.values().length) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        return LevelDifficulty.values()[ordinal];
+    }
+
+    /**
+     * Returns the par of the given level, i.e. the minimum known number of moves to solve it.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Par of the level, or 0 if it is unknown.
+     * @throws LevelException When there is no level with the given number.
+     */
+    public int getPar(int number) throws LevelException {
+        return buffer.getInt(getEntry(number) + 21);
+    }
+
+    /**
+     * Decodes the given level. Only the data of this level is read.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return New Level object with the initial state of the level.
+     * @throws LevelException When there is no level with the given number or its data is not valid.
+     */
+    @Override
+    public Level getLevel(int number) throws LevelException {
+        int entry = getEntry(number);
+        long offset = buffer.getLong(entry);
+        int length = buffer.getInt(entry + 8);
+
+        if (offset < HEADER_SIZE || length < 0 || offset + length > buffer.limit()) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        return LevelBinaryFormat.decode(buffer.slice((int) offset, length));
+    }
+
+    /**
+     * Returns a key that identifies the current content of the given level: the name of the pack (with the
+     * last-modified time and size of its file), the number of the level and the CRC-32 of its index entry,
+     * so a pack that is replaced by another one with different levels does not give the same keys.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Key of the current content of the level.
+     */
+    @Override
+    public String getKey(int number) {
+        if (number < 1 || number > size) {
+            return name + "#" + number;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE + (number - 1) * ENTRY_SIZE, ENTRY_SIZE));
+        return name + "#" + number + "@" + Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Writes a pack file with the current state of the given levels.
+     *
+     * @param levels Levels of the pack, in order.
+     * @param pars Par of each level (0 if it is unknown), or null if no par is known.
+     * @param file Path of the pack file. It is created or replaced atomically, so the packs that have it open
+     *             keep reading the old levels.
+     * @throws IOException When the file cannot be written or the levels do not fit in 2 GB.
+     */
+    public static void write(List<Level> levels, int[] pars, Path file) throws IOException {
+        if (pars != null && pars.length != levels.size()) {
+            throw new IllegalArgumentException("There must be one par per level");
+        }
+
+        List<ByteBuffer> data = new ArrayList<>(levels.size());
+        long offset = HEADER_SIZE + (long) levels.size() * ENTRY_SIZE;
+        ByteBuffer index = ByteBuffer.allocate((int) offset);
+
+        index.putInt(MAGIC).put(VERSION).putInt(levels.size());
+
+        for (int i = 0; i < levels.size(); i++) {
+            Level level = levels.get(i);
+            ByteBuffer encoded = LevelBinaryFormat.encode(level);
+
+            index.putLong(offset)
+                    .putInt(encoded.remaining())
+                    .putInt(level.getRows())
+                    .putInt(level.getColumns())
+                    .put((byte) level.getDifficulty().ordinal())
+                    .putInt(pars == null ? 0 : pars[i]);
+
+            offset += encoded.remaining();
+            data.add(encoded);
+        }
+
+        if (offset > Integer.MAX_VALUE) {
+            throw new IOException("Pack files cannot be larger than 2 GB: " + file);
+        }
+
+        //The pack is written to another file, which replaces the old one at once: the old file may be
+        //memory-mapped by an open pack, which would fail if the file was truncated under it
+        Path target = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                index.flip();
+                while (index.hasRemaining()) {
+                    channel.write(index);
+                }
+                for (ByteBuffer encoded : data) {
+                    while (encoded.hasRemaining()) {
+                        channel.write(encoded);
+                    }
+                }
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Builds a pack file from text level files (the format of the files in the "levels" folder).
+     *
+     * @param textFiles Paths of the text level files, in order.
+     * @param file Path of the pack file. It is created or replaced.
+     * @throws IOException When a file cannot be read or written.
+     * @throws LevelException When a text file is not a valid level.
+     */
+    public static void convert(List<Path> textFiles, Path file) throws IOException, LevelException {
+        List<Level> levels = new ArrayList<>(textFiles.size());
+
+        for (Path textFile : textFiles) {
+            try (InputStream inputStream = Files.newInputStream(textFile)) {
+                levels.add(new Level(inputStream));
+            }
+        }
+
+        write(levels, null, file);
+    }
+
+    /**
+     * Builds a pack file from text level files.
+     *
+     * @param args Path of the pack file followed by the paths of the text level files, in order.
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: LevelPack <pack file> <text level file> ...");
+            System.exit(1);
+        }
+
+        List<Path> textFiles = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            textFiles.add(Path.of(args[i]));
+        }
+
+        try {
+            convert(textFiles, Path.of(args[0]));
+        } catch (IOException | LevelException e) {
+            System.err.println(args[0] + ": " + e.getMessage());
+            System.exit(2);
+        }
+    }
+}
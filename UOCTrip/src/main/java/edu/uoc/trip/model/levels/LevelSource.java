@@ -0,0 +1,112 @@
+package edu.uoc.trip.model.levels;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Place from which the levels of a game are read. Levels are numbered from 1.
+ *
+ * @version 1.0
+ */
+public interface LevelSource extends Closeable {
+
+    /**
+     * Prefix of the locations that are in the file system instead of the classpath.
+     */
+    String FILE_PREFIX = "file:";
+
+    /**
+     * Extension of the zip files with level files.
+     */
+    String ZIP_EXTENSION = ".zip";
+
+    /**
+     * Returns the number of levels of the source.
+     *
+     * @return Number of levels.
+     */
+    int size();
+
+    /**
+     * Reads the given level.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return New Level object with the initial state of the level.
+     * @throws LevelException When the level cannot be read or it is not valid.
+     */
+    Level getLevel(int number) throws LevelException;
+
+    /**
+     * Returns a key that identifies the current content of the given level, e.g. to cache it.
+     * The key changes when the level changes.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Key of the current content of the level.
+     */
+    String getKey(int number);
+
+    /**
+     * Releases the resources of the source. By default, it does nothing.
+     *
+     * @throws IOException When the resources cannot be released.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+
+    /**
+     * Opens the source of the given location:
+     * <ul>
+     *     <li>Locations that start with FILE_PREFIX are URIs of the file system: a folder with level files,
+     *     a zip file (ending with ZIP_EXTENSION) or a pack file (ending with LevelPack.EXTENSION).</li>
+     *     <li>Otherwise, it is the name of a zip file, a pack file or a folder of the classpath.</li>
+     * </ul>
+     *
+     * @param location Location of the levels.
+     * @return Source of the levels of the location.
+     * @throws IOException When the location cannot be read or it is not valid.
+     */
+    static LevelSource open(String location) throws IOException {
+        try {
+            if (location.startsWith(FILE_PREFIX)) {
+                Path path = Path.of(new URI(location));
+
+                if (location.endsWith(LevelPack.EXTENSION)) {
+                    return LevelPack.open(path);
+                } else if (location.endsWith(ZIP_EXTENSION)) {
+                    return new ZipLevelSource(path);
+                } else if (Files.isDirectory(path)) {
+                    return new DirectoryLevelSource(path);
+                }
+                throw new IOException("Unknown level source: " + location);
+            }
+
+            if (location.endsWith(LevelPack.EXTENSION) || location.endsWith(ZIP_EXTENSION)) {
+                URL url = Objects.requireNonNull(LevelSource.class.getClassLoader().getResource(location));
+
+                if ("file".equals(url.getProtocol())) {
+                    return open(url.toURI().toString());
+                } else if (location.endsWith(ZIP_EXTENSION)) {
+                    throw new IOException("Zip files inside a jar are not supported: " + location);
+                }
+
+                //Packs inside a jar cannot be memory-mapped
+                try (InputStream inputStream = url.openStream()) {
+                    return LevelPack.read(inputStream, location);
+                }
+            }
+
+            return new ClasspathLevelSource(location);
+
+        } catch (URISyntaxException | LevelException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of a level, i.e. its board and metadata once parsed and checked.<br/>
+ * It is used to create new Level objects with that state without parsing the level file again,
+ * so the same template can be shared by many games.
+ *
+ * @version 1.0
+ */
+public final class LevelTemplate {
+
+    /**
+     * Number of rows of the board.
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the board.
+     */
+    private final int columns;
+
+    /**
+     * Difficulty of the level.
+     */
+    private final LevelDifficulty difficulty;
+
+    /**
+     * Ordinal of the CellType of each cell, row after row. It is never modified.
+     */
+    private final Board board;
+
+    /**
+     * Columns of the starting cells (which are in the last row), from left to right.
+     */
+    private final int[] startColumns;
+
+    /**
+     * Columns of the finish cells (which are in the first row), from left to right.
+     */
+    private final int[] finishColumns;
+
+    /**
+     * CellType of each ordinal stored in {@link #board}.
+     */
+    private static final CellType[] TYPES = CellType.values();
+
+    /**
+     * Constructor. It takes a snapshot of the current state of the level.
+     *
+     * @param level Level whose state is copied.
+     */
+    public LevelTemplate(Level level) {
+        rows = level.getRows();
+        columns = level.getColumns();
+        difficulty = level.getDifficulty();
+        board = level.getBoard().copy();
+        //Starting and finish cells cannot be moved, so these arrays never change and can be shared.
+        startColumns = level.getStartColumns();
+        finishColumns = level.getFinishColumns();
+    }
+
+    /**
+     * Getter of the attribute "rows".
+     *
+     * @return Number of rows of the board.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Getter of the attribute "columns".
+     *
+     * @return Number of columns of the board.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Getter of the attribute "difficulty".
+     *
+     * @return Difficulty of the level.
+     */
+    public LevelDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Returns the number of starting/finish pairs of the level.
+     *
+     * @return Number of pairs.
+     */
+    public int getNumPairs() {
+        return startColumns.length;
+    }
+
+    /**
+     * Returns the column of the starting cell of the given pair, which is in the last row.
+     *
+     * @param pair Index of the pair, from 0 to {@link #getNumPairs()} - 1.
+     * @return Column of the starting cell.
+     */
+    public int getStartColumn(int pair) {
+        return startColumns[pair];
+    }
+
+    /**
+     * Returns the column of the finish cell of the given pair, which is in the first row.
+     *
+     * @param pair Index of the pair, from 0 to {@link #getNumPairs()} - 1.
+     * @return Column of the finish cell.
+     */
+    public int getFinishColumn(int pair) {
+        return finishColumns[pair];
+    }
+
+    /**
+     * Returns the type of the given cell, without creating any Cell object.
+     *
+     * @param row Row of the cell.
+     * @param column Column of the cell.
+     * @return CellType of the cell.
+     * @throws IndexOutOfBoundsException When the position is outside the board.
+     */
+    public CellType getCellType(int row, int column) {
+        Objects.checkIndex(row, rows);
+        Objects.checkIndex(column, columns);
+        return TYPES[board.get(row * columns + column)];
+    }
+
+    /**
+     * Creates a new level with the state of this template and no moves. It only copies the board.
+     *
+     * @return New Level object.
+     */
+    public Level newLevel() {
+        try {
+            return new Level(rows, columns, difficulty, board.copy(), startColumns, finishColumns, true);
+        } catch (LevelException e) {
+            //The template was taken from a valid level
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Connectivity check of giant boards by stripe-based connected-component labeling.<br/><br/>
+ *
+ * The board is split in stripes of consecutive rows. Each stripe is labeled in parallel with union-find,
+ * using only the connections between cells of the stripe, so the tasks never share a component.
+ * Then the components are merged across the borders between stripes, which only visits one row per stripe.
+ * Finally, a pair is connected when its starting and finish cells have the same root.<br/><br/>
+ *
+ * The stripes read the cells through the Board interface, so any board gives the same result, but the
+ * union-find forest takes one int per cell. That is 4 times the memory of a dense board, while sparse and tiled
+ * boards exist precisely to avoid memory per cell (the forest of a tiled board would not even fit in the heap),
+ * so the levels only use this check for dense boards (see {@link #isSupported(Board)}).
+ *
+ * @version 1.0
+ */
+final class ParallelConnectivity {
+
+    /**
+     * Minimum number of cells of each stripe, so small boards are not split in tiny tasks.
+     */
+    private static final int MINIMUM_STRIPE_SIZE = 64 * 1024;
+
+    /**
+     * Number of stripes per thread of the pool, so threads that finish earlier can take more stripes.
+     */
+    private static final int STRIPES_PER_THREAD = 4;
+
+    /**
+     * Connection mask (see CellType#getConnectionMask()) of each ordinal of CellType.
+     */
+    private static final int[] MASKS = new int[CellType.values().length];
+
+    static {
+        for (CellType type : CellType.values()) {
+            MASKS[type.ordinal()] = type.getConnectionMask();
+        }
+    }
+
+    private ParallelConnectivity() {
+    }
+
+    /**
+     * Returns whether the levels check the given board with this class when it is big enough, i.e. whether
+     * the union-find forest (one int per cell) is affordable. Only dense boards are: sparse and tiled boards
+     * are checked by the sequential traversal of the level, which only keeps the visited cells.
+     *
+     * @param board Board of a level.
+     * @return True if the board is a dense board. Otherwise, false.
+     */
+    static boolean isSupported(Board board) {
+        return board instanceof DenseBoard;
+    }
+
+    /**
+     * Checks, on the given pool, if the starting cell of every pair is connected by road with its finish cell.
+     *
+     * @param board Board, which must not be modified during the check.
+     * @param rows Number of rows of the board.
+     * @param columns Number of columns of the board.
+     * @param startColumns Columns of the starting cells (which are in the last row).
+     * @param finishColumns Columns of the finish cells (which are in the first row).
+     * @param parent Array with one position per cell, which is overwritten with the union-find forest.
+     * @param pool Pool that labels the stripes.
+     * @return True if every pair is connected. Otherwise, false.
+     */
+    static boolean isSolved(Board board, int rows, int columns, int[] startColumns, int[] finishColumns,
+                            int[] parent, ForkJoinPool pool) {
+        int minimumRows = Math.max(1, MINIMUM_STRIPE_SIZE / columns);
+        int numStripes = Math.max(1, Math.min(pool.getParallelism() * STRIPES_PER_THREAD, rows / minimumRows));
+
+        return isSolved(board, rows, columns, startColumns, finishColumns, parent, pool,
+                (rows + numStripes - 1) / numStripes);
+    }
+
+    /**
+     * Checks, on the given pool, if the starting cell of every pair is connected by road with its finish cell.
+     *
+     * @param board Board, which must not be modified during the check.
+     * @param rows Number of rows of the board.
+     * @param columns Number of columns of the board.
+     * @param startColumns Columns of the starting cells (which are in the last row).
+     * @param finishColumns Columns of the finish cells (which are in the first row).
+     * @param parent Array with one position per cell, which is overwritten with the union-find forest.
+     * @param pool Pool that labels the stripes.
+     * @param stripeRows Number of rows of each stripe (the last one can be shorter).
+     * @return True if every pair is connected. Otherwise, false.
+     */
+    static boolean isSolved(Board board, int rows, int columns, int[] startColumns, int[] finishColumns,
+                            int[] parent, ForkJoinPool pool, int stripeRows) {
+        List<Callable<Void>> labelers = new ArrayList<>();
+
+        for (int first = 0; first < rows; first += stripeRows) {
+            int from = first;
+            int to = Math.min(rows, first + stripeRows);
+            labelers.add(() -> {
+                labelStripe(board, columns, from, to, parent);
+                return null;
+            });
+        }
+
+        for (Future<Void> future : pool.invokeAll(labelers)) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        //Borders: the last row of each stripe with the first row of the next one
+        for (int border = stripeRows; border < rows; border += stripeRows) {
+            int index = border * columns;
+            for (int column = 0; column < columns; column++, index++) {
+                if (connectsDown(board, index - columns, index)) {
+                    union(parent, index - columns, index);
+                }
+            }
+        }
+
+        int lastRow = (rows - 1) * columns;
+        for (int pair = 0; pair < startColumns.length; pair++) {
+            if (find(parent, lastRow + startColumns[pair]) != find(parent, finishColumns[pair])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Labels the components of a stripe, using only the connections between its cells.
+     *
+     * @param board Board.
+     * @param columns Number of columns of the board.
+     * @param from First row of the stripe (inclusive).
+     * @param to Last row of the stripe (exclusive).
+     * @param parent Union-find forest. Only the positions of the stripe are written.
+     */
+    private static void labelStripe(Board board, int columns, int from, int to, int[] parent) {
+        int start = from * columns;
+        int end = to * columns;
+
+        for (int index = start; index < end; index++) {
+            parent[index] = index;
+        }
+
+        for (int index = start; index < end; index++) {
+            int mask = MASKS[board.get(index)];
+
+            //Each connection is checked once, from its left or upper cell.
+            if ((mask & Direction.RIGHT.getMask()) != 0 && (index + 1) % columns != 0
+                    && (MASKS[board.get(index + 1)] & Direction.LEFT.getMask()) != 0) {
+                union(parent, index, index + 1);
+            }
+            if (index + columns < end && connectsDown(board, index, index + columns)) {
+                union(parent, index, index + columns);
+            }
+        }
+    }
+
+    /**
+     * Checks if a cell is connected by road with the cell below it.
+     *
+     * @param board Board.
+     * @param index Index of the upper cell.
+     * @param below Index of the lower cell.
+     * @return True if both cells are connected. Otherwise, false.
+     */
+    private static boolean connectsDown(Board board, int index, int below) {
+        return (MASKS[board.get(index)] & Direction.DOWN.getMask()) != 0
+                && (MASKS[board.get(below)] & Direction.UP.getMask()) != 0;
+    }
+
+    /**
+     * Joins the components of two cells. The root with the lowest index becomes the root of both.
+     *
+     * @param parent Union-find forest.
+     * @param a Index of a cell.
+     * @param b Index of another cell.
+     */
+    private static void union(int[] parent, int a, int b) {
+        int rootA = find(parent, a);
+        int rootB = find(parent, b);
+
+        if (rootA < rootB) {
+            parent[rootB] = rootA;
+        } else if (rootB < rootA) {
+            parent[rootA] = rootB;
+        }
+    }
+
+    /**
+     * Returns the root of the component of a cell, halving the path on the way.
+     *
+     * @param parent Union-find forest.
+     * @param index Index of the cell.
+     * @return Index of the root.
+     */
+    private static int find(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+}
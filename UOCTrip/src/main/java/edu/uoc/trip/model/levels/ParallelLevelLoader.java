@@ -0,0 +1,535 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.Cell;
+import edu.uoc.trip.model.cells.CellFactory;
+import edu.uoc.trip.model.cells.CellType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loader of very large text level files. It accepts the same format as {@link Level#Level(String)}.<br/><br/>
+ *
+ * The file is memory-mapped and the map is split in chunks on line boundaries, which are parsed in parallel:
+ * <ol>
+ *     <li>Each chunk counts its map rows, so the first row of each chunk is known, and the cells of each CellType
+ *     of huge boards, so the board gets the storage that fits its content (see {@link BoardFactory}).</li>
+ *     <li>Each chunk parses its rows into its part of the board and checks its cells. The cells of the default
+ *     type of the board are not written.</li>
+ *     <li>The results of the chunks (starting and finish cells, roads) are merged and the requirements
+ *     of the whole board are checked.</li>
+ * </ol>
+ *
+ * @version 1.0
+ */
+public final class ParallelLevelLoader {
+
+    /**
+     * Minimum size in bytes of the map of each chunk. Small maps are parsed in one single chunk.
+     */
+    private static final int MINIMUM_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Number of chunks per thread of the pool, so that faster threads can parse more chunks.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Number of CellTypes.
+     */
+    private static final int TYPES = CellType.values().length;
+
+    /**
+     * Whether the cells of each ordinal are a road, i.e. movable or rotatable.
+     */
+    private static final boolean[] ROAD = new boolean[TYPES];
+
+    static {
+        for (CellType type : CellType.values()) {
+            Cell cell = CellFactory.getCellInstance(0, 0, type);
+            ROAD[type.ordinal()] = cell.isMovable() || cell.isRotatable();
+        }
+    }
+
+    private ParallelLevelLoader() {
+    }
+
+    /**
+     * Result of parsing a chunk.
+     */
+    private static final class ChunkResult {
+
+        /**
+         * Number of map rows of the chunk (first pass).
+         */
+        private int numRows;
+
+        /**
+         * Number of cells of each CellType of the chunk (first pass), or null if they are not counted.
+         * It also counts the rows after the last row of the board and the rows with errors, so it is an estimate.
+         */
+        private long[] counts;
+
+        /**
+         * Whether the chunk has one road at least.
+         */
+        private boolean isRoad;
+
+        /**
+         * Columns of the starting cells of the chunk, or null if it does not have the last row.
+         */
+        private int[] startColumns;
+
+        /**
+         * Columns of the finish cells of the chunk, or null if it does not have the first row.
+         */
+        private int[] finishColumns;
+    }
+
+    /**
+     * Writer of the cells of the board, which can be shared by the chunks.
+     */
+    private static final class BoardWriter {
+
+        private final Board board;
+
+        /**
+         * Ordinal of the CellType of the cells of the new board, which are not written.
+         */
+        private final int defaultType;
+
+        /**
+         * Whether the chunks can write the board at the same time, or they must synchronize on it.
+         */
+        private final boolean concurrent;
+
+        private BoardWriter(Board board, int defaultType) {
+            this.board = board;
+            this.defaultType = defaultType;
+            this.concurrent = BoardFactory.isConcurrent(board);
+        }
+
+        private void fill(int from, int to, int type) {
+            if (type == defaultType) {
+                return;
+            }
+            if (concurrent) {
+                board.fill(from, to, type);
+            } else {
+                synchronized (board) {
+                    board.fill(from, to, type);
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the level file on the common ForkJoinPool.
+     *
+     * @param file Path of the text level file.
+     * @return Level object with the data of the file.
+     * @throws IOException When the file cannot be read.
+     * @throws LevelException When there is any error while parsing the file
+     *                        or some board's requirement is not satisfied.
+     */
+    public static Level load(Path file) throws IOException, LevelException {
+        return load(file, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads the level file on the given pool.
+     *
+     * @param file Path of the text level file.
+     * @param pool Pool whose threads parse the chunks.
+     * @return Level object with the data of the file.
+     * @throws IOException When the file cannot be read or it is larger than 2 GB.
+     * @throws LevelException When there is any error while parsing the file
+     *                        or some board's requirement is not satisfied.
+     */
+    public static Level load(Path file, ForkJoinPool pool) throws IOException, LevelException {
+        ByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Level files cannot be larger than 2 GB: " + file);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        //Header: size and difficulty
+        int[] position = {0};
+        String line = nextDataLine(buffer, position);
+        int rows;
+        int columns;
+        LevelDifficulty difficulty;
+
+        try {
+            String[] dimensions = line.trim().split("\\s+");
+            rows = Integer.parseInt(dimensions[0]);
+            columns = dimensions.length > 1 ? Integer.parseInt(dimensions[1]) : rows;
+            difficulty = LevelDifficulty.valueOf(nextDataLine(buffer, position));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        Level.checkSize(rows, columns);
+
+        //Chunks of the map, on line boundaries
+        int[] bounds = split(buffer, position[0], pool.getParallelism());
+        int numChunks = bounds.length - 1;
+
+        boolean counted = BoardFactory.isCounted(rows * columns);
+        List<Callable<ChunkResult>> counters = new ArrayList<>(numChunks);
+        for (int i = 0; i < numChunks; i++) {
+            int start = bounds[i];
+            int end = bounds[i + 1];
+            counters.add(() -> countChunk(buffer, start, end, rows, columns, counted));
+        }
+
+        //First row of each chunk and cells of each CellType
+        int[] firstRows = new int[numChunks + 1];
+        long[] counts = new long[TYPES];
+        List<Future<ChunkResult>> chunkCounts = pool.invokeAll(counters);
+        for (int i = 0; i < numChunks; i++) {
+            ChunkResult result = get(chunkCounts.get(i));
+            firstRows[i + 1] = firstRows[i] + result.numRows;
+            for (int type = 0; counted && type < TYPES; type++) {
+                counts[type] += result.counts[type];
+            }
+        }
+
+        if (firstRows[numChunks] < rows) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        Board board = BoardFactory.create(rows * columns, counts);
+        BoardWriter writer = new BoardWriter(board, BoardFactory.getDominantType(counts));
+        List<Callable<ChunkResult>> parsers = new ArrayList<>(numChunks);
+        for (int i = 0; i < numChunks && firstRows[i] < rows; i++) {
+            int start = bounds[i];
+            int end = bounds[i + 1];
+            int firstRow = firstRows[i];
+            parsers.add(() -> parseChunk(buffer, start, end, firstRow, rows, columns, writer));
+        }
+
+        //Merge of the results
+        boolean isRoad = false;
+        int[] startColumns = new int[0];
+        int[] finishColumns = new int[0];
+
+        for (Future<ChunkResult> future : pool.invokeAll(parsers)) {
+            ChunkResult result = get(future);
+            isRoad |= result.isRoad;
+            if (result.startColumns != null) {
+                startColumns = result.startColumns;
+            }
+            if (result.finishColumns != null) {
+                finishColumns = result.finishColumns;
+            }
+        }
+
+        return new Level(rows, columns, difficulty, board, startColumns, finishColumns, isRoad);
+    }
+
+    /**
+     * Returns the result of a finished chunk task, rethrowing its exception.
+     *
+     * @param future Future of the task.
+     * @param <T> Type of the result.
+     * @return Result of the task.
+     * @throws LevelException When the task threw it.
+     */
+    private static <T> T get(Future<T> future) throws LevelException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        } catch (ExecutionException e) {
+            //ForkJoinPool wraps the checked exceptions of the tasks in RuntimeExceptions
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof LevelException) {
+                    throw (LevelException) cause;
+                }
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the next line that is not blank nor a comment, starting at the given position.
+     *
+     * @param buffer Content of the file.
+     * @param position Position where the search starts. It is updated to the beginning of the next line.
+     * @return Line without the line break, or null if there are no more lines.
+     */
+    private static String nextDataLine(ByteBuffer buffer, int[] position) {
+        while (position[0] < buffer.limit()) {
+            int start = position[0];
+            int end = start;
+
+            while (end < buffer.limit() && buffer.get(end) != '\n') {
+                end++;
+            }
+            position[0] = end + 1;
+
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            String line = new String(bytes, StandardCharsets.UTF_8).trim();
+
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                return line;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Splits the map in chunks of similar size that end on line boundaries.
+     *
+     * @param buffer Content of the file.
+     * @param start Position where the map starts.
+     * @param parallelism Number of threads of the pool.
+     * @return Bounds of the chunks: chunk i goes from bounds[i] (inclusive) to bounds[i + 1] (exclusive).
+     */
+    private static int[] split(ByteBuffer buffer, int start, int parallelism) {
+        int size = Math.max(0, buffer.limit() - start);
+        int numChunks = Math.max(1, Math.min(parallelism * CHUNKS_PER_THREAD, size / MINIMUM_CHUNK_SIZE));
+        int[] bounds = new int[numChunks + 1];
+        int count = 1;
+
+        bounds[0] = Math.min(start, buffer.limit());
+
+        for (int i = 1; i < numChunks; i++) {
+            int bound = Math.max(bounds[count - 1], start + (int) ((long) size * i / numChunks));
+
+            while (bound < buffer.limit() && buffer.get(bound - 1) != '\n') {
+                bound++;
+            }
+            if (bound > bounds[count - 1] && bound < buffer.limit()) {
+                bounds[count++] = bound;
+            }
+        }
+
+        bounds[count++] = buffer.limit();
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Returns whether the line that starts at the given position is a map row,
+     * i.e. its first character that is not whitespace exists and is not "#".
+     *
+     * @param buffer Content of the file.
+     * @param position Position of the beginning of the line.
+     * @param end End of the chunk.
+     * @return Position of the first character of the row, or -1 if the line is not a map row.
+     */
+    private static int rowStart(ByteBuffer buffer, int position, int end) {
+        while (position < end) {
+            byte b = buffer.get(position);
+            if (b == '\n') {
+                return -1;
+            }
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\f' && b != 0x0B) {
+                return b == '#' ? -1 : position;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the map rows of a chunk and, optionally, their cells of each CellType.
+     *
+     * @param buffer Content of the file.
+     * @param start Beginning of the chunk (beginning of a line).
+     * @param end End of the chunk (beginning of a line or end of the file).
+     * @param rows Number of rows of the board.
+     * @param columns Number of columns of the board.
+     * @param counted Whether the cells are counted.
+     * @return Result of the chunk with its number of rows and, if counted is true, its counts.
+     */
+    private static ChunkResult countChunk(ByteBuffer buffer, int start, int end, int rows, int columns,
+                                          boolean counted) {
+        ChunkResult result = new ChunkResult();
+        int position = start;
+
+        if (counted) {
+            result.counts = new long[TYPES];
+        }
+
+        while (position < end) {
+            int rowStart = rowStart(buffer, position, end);
+
+            if (rowStart >= 0) {
+                result.numRows++;
+                if (counted) {
+                    try {
+                        parseRow(buffer, rowStart, end, -1, rows, columns, null, result);
+                    } catch (LevelException ignored) {
+                        //The row is checked by the second pass, if it is a row of the board.
+                    }
+                }
+            }
+            while (position < end && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses the map rows of a chunk into the board and checks its cells.
+     * Rows after the last row of the board are ignored.
+     *
+     * @param buffer Content of the file.
+     * @param start Beginning of the chunk.
+     * @param end End of the chunk.
+     * @param firstRow Number of the first row of the chunk.
+     * @param rows Number of rows of the board.
+     * @param columns Number of columns of the board.
+     * @param writer Writer of the board of the level. The chunk only writes its rows.
+     * @return Result of the chunk.
+     * @throws LevelException When a row is incomplete, it has an unknown symbol, or there is a starting or finish
+     *                        cell in a wrong row.
+     */
+    private static ChunkResult parseChunk(ByteBuffer buffer, int start, int end, int firstRow, int rows,
+                                          int columns, BoardWriter writer) throws LevelException {
+        ChunkResult result = new ChunkResult();
+        int row = firstRow;
+        int position = start;
+
+        while (position < end && row < rows) {
+            int rowStart = rowStart(buffer, position, end);
+
+            if (rowStart >= 0) {
+                position = parseRow(buffer, rowStart, end, row, rows, columns, writer, result);
+                row++;
+            }
+
+            while (position < end && buffer.get(position) != '\n') {
+                position++;
+            }
+            position++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Parses one map row (which can use run-length encoding) into the board, or only counts its cells.
+     *
+     * @param buffer Content of the file.
+     * @param position Position of the first character of the row.
+     * @param end End of the chunk.
+     * @param row Number of the row, or -1 if it is not known yet (first pass).
+     * @param rows Number of rows of the board.
+     * @param columns Number of columns of the board.
+     * @param writer Writer of the board of the level, or null if the cells are only counted in the counts of the
+     *               result, without checking their rows.
+     * @param result Result of the chunk, which is updated.
+     * @return Position after the last cell of the row.
+     * @throws LevelException When the row is incomplete, it has an unknown symbol, or there is a starting or finish
+     *                        cell in a wrong row.
+     */
+    private static int parseRow(ByteBuffer buffer, int position, int end, int row, int rows, int columns,
+                                BoardWriter writer, ChunkResult result) throws LevelException {
+        int[] starts = new int[row == rows - 1 ? columns : 0];
+        int[] finishes = new int[row == 0 ? columns : 0];
+        int numStarts = 0;
+        int numFinishes = 0;
+        int index = row * columns;
+        int column = 0;
+        int run = 0;
+
+        while (column < columns) {
+            if (position >= end) {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+
+            //UTF-8 decoding (symbols are in the Basic Multilingual Plane)
+            int b = buffer.get(position++) & 0xFF;
+            char c;
+            if (b < 0x80) {
+                c = (char) b;
+            } else if ((b & 0xE0) == 0xC0 && position < end) {
+                c = (char) (((b & 0x1F) << 6) | (buffer.get(position++) & 0x3F));
+            } else if ((b & 0xF0) == 0xE0 && position + 1 < end) {
+                c = (char) (((b & 0x0F) << 12) | ((buffer.get(position++) & 0x3F) << 6)
+                        | (buffer.get(position++) & 0x3F));
+            } else {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+
+            if (c >= '0' && c <= '9') {
+                run = run * 10 + (c - '0');
+                if (run == 0 || column + run > columns) {
+                    throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                }
+                continue;
+            }
+
+            CellType type = CellType.map2CellType(c);
+
+            if (type == null) {
+                throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+            }
+
+            int count = run == 0 ? 1 : run;
+            run = 0;
+
+            if (writer == null) {
+                result.counts[type.ordinal()] += count;
+                column += count;
+                continue;
+            }
+
+            if (type == CellType.START) {
+                if (row != rows - 1) {
+                    throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                }
+                for (int j = 0; j < count; j++) {
+                    starts[numStarts++] = column + j;
+                }
+            } else if (type == CellType.FINISH) {
+                if (row != 0) {
+                    throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+                }
+                for (int j = 0; j < count; j++) {
+                    finishes[numFinishes++] = column + j;
+                }
+            }
+
+            result.isRoad |= ROAD[type.ordinal()];
+            writer.fill(index, index + count, type.ordinal());
+            index += count;
+            column += count;
+        }
+
+        if (row == rows - 1) {
+            result.startColumns = Arrays.copyOf(starts, numStarts);
+        }
+        if (row == 0) {
+            result.finishColumns = Arrays.copyOf(finishes, numFinishes);
+        }
+
+        return position;
+    }
+}
@@ -0,0 +1,148 @@
+package edu.uoc.trip.model.levels;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Encoder of the map rows of text level files with run-length encoding, e.g. "·····M" is written as "5·M".<br/>
+ * Comments, blank lines, the size and the difficulty are kept as they are. Rows that are already encoded
+ * are expanded and encoded again, so encoding a file twice gives the same result.
+ *
+ * @version 1.0
+ */
+public final class RunLengthEncoder {
+
+    /**
+     * Minimum number of equal consecutive symbols that are written as a run.
+     * Shorter runs would not be shorter than the symbols themselves.
+     */
+    private static final int MINIMUM_RUN = 3;
+
+    /**
+     * Number of lines of data (size and difficulty) that are before the map.
+     */
+    private static final int HEADER_LINES = 2;
+
+    private RunLengthEncoder() {
+    }
+
+    /**
+     * Encodes a map row.
+     *
+     * @param row Map row, which can already have runs.
+     * @return Map row with run-length encoding.
+     */
+    public static String encodeRow(CharSequence row) {
+        StringBuilder sb = new StringBuilder(row.length());
+        char previous = 0;
+        int count = 0;
+        int run = 0;
+
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+
+            if (c >= '0' && c <= '9') {
+                run = run * 10 + (c - '0');
+                continue;
+            }
+
+            int repetitions = run == 0 ? 1 : run;
+            run = 0;
+
+            if (c == previous) {
+                count += repetitions;
+            } else {
+                appendRun(sb, previous, count);
+                previous = c;
+                count = repetitions;
+            }
+        }
+
+        appendRun(sb, previous, count);
+        return sb.toString();
+    }
+
+    /**
+     * Appends a run of the given symbol.
+     *
+     * @param sb Builder of the encoded row.
+     * @param symbol Symbol of the run.
+     * @param count Number of repetitions (nothing is appended if it is 0).
+     */
+    private static void appendRun(StringBuilder sb, char symbol, int count) {
+        if (count >= MINIMUM_RUN) {
+            sb.append(count).append(symbol);
+        } else {
+            for (int i = 0; i < count; i++) {
+                sb.append(symbol);
+            }
+        }
+    }
+
+    /**
+     * Encodes the map rows of a text level file.
+     *
+     * @param reader Reader of the text level file.
+     * @param writer Writer of the encoded file.
+     * @throws IOException When the reader or the writer fail.
+     */
+    public static void encode(BufferedReader reader, Writer writer) throws IOException {
+        int dataLines = 0;
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+
+            if (trimmed.isEmpty() || trimmed.startsWith("#") || dataLines++ < HEADER_LINES) {
+                writer.write(line);
+            } else {
+                writer.write(encodeRow(trimmed));
+            }
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    /**
+     * Encodes the map rows of a text level file.
+     *
+     * @param textFile Path of the text level file.
+     * @param encodedFile Path of the encoded file. It is created or replaced (it can be the same file).
+     * @throws IOException When a file cannot be read or written.
+     */
+    public static void encode(Path textFile, Path encodedFile) throws IOException {
+        //The whole file is read first, so that it can be replaced by the encoded one
+        String content = Files.readString(textFile, StandardCharsets.UTF_8);
+
+        try (BufferedReader reader = new BufferedReader(new StringReader(content));
+             BufferedWriter writer = Files.newBufferedWriter(encodedFile, StandardCharsets.UTF_8)) {
+            encode(reader, writer);
+        }
+    }
+
+    /**
+     * Encodes the map rows of text level files, in place.
+     *
+     * @param args Paths of the text level files.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: RunLengthEncoder <text level file> ...");
+            System.exit(1);
+        }
+
+        for (String file : args) {
+            try {
+                encode(Path.of(file), Path.of(file));
+            } catch (IOException e) {
+                System.err.println(file + ": " + e.getMessage());
+                System.exit(2);
+            }
+        }
+    }
+}
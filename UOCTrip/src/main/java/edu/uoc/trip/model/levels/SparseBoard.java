@@ -0,0 +1,91 @@
+package edu.uoc.trip.model.levels;
+
+/**
+ * Board for huge maps that are mostly filled with one CellType (e.g. FREE).<br/>
+ * The cells of that type are not stored: only the other cells are kept, in a hash map indexed by their index,
+ * so the memory depends on the number of those cells instead of the size of the board.
+ *
+ * @version 1.0
+ */
+final class SparseBoard implements Board {
+
+    /**
+     * Number of cells of the board.
+     */
+    private final int size;
+
+    /**
+     * Ordinal of the CellType of the cells that are not stored.
+     */
+    private final int defaultType;
+
+    /**
+     * Ordinal of the CellType of the cells whose type is not defaultType.
+     */
+    private final IntMap cells;
+
+    /**
+     * Constructor of a board whose cells are all of the default type.
+     *
+     * @param size Number of cells.
+     * @param defaultType Ordinal of the CellType of the cells that are not stored.
+     */
+    SparseBoard(int size, int defaultType) {
+        this(size, defaultType, new IntMap(defaultType));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param size Number of cells.
+     * @param defaultType Ordinal of the CellType of the cells that are not stored.
+     * @param cells Cells whose type is not defaultType.
+     */
+    private SparseBoard(int size, int defaultType, IntMap cells) {
+        this.size = size;
+        this.defaultType = defaultType;
+        this.cells = cells;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int index) {
+        return cells.get(index);
+    }
+
+    @Override
+    public void set(int index, int type) {
+        if (type == defaultType) {
+            cells.remove(index);
+        } else {
+            cells.put(index, type);
+        }
+    }
+
+    @Override
+    public void fill(int from, int to, int type) {
+        //Nothing to do when a range of default cells is filled while there are no stored cells in it
+        if (type == defaultType && cells.size() == 0) {
+            return;
+        }
+        Board.super.fill(from, to, type);
+    }
+
+    @Override
+    public Board copy() {
+        return new SparseBoard(size, defaultType, cells.copy());
+    }
+
+    /**
+     * Returns the number of cells that are stored, i.e. whose type is not the default one.
+     *
+     * @return Number of stored cells.
+     */
+    int getStoredCells() {
+        return cells.size();
+    }
+}
@@ -0,0 +1,346 @@
+package edu.uoc.trip.model.levels;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Board for maps that are too big to be kept in the heap.<br/>
+ * The cells are stored off-heap, one byte per cell, in scratch files that are split in tiles of
+ * {@link #TILE_SIZE} cells. Each tile is memory-mapped once, when it is first accessed, and it stays mapped: a
+ * mapping is only released when it is garbage collected, so unmapping tiles to map others would only increase the
+ * number of mappings of the process, which the operating system limits. The heap used by the board is a few bytes
+ * per tile, and the operating system pages the cells in and out as needed.<br/>
+ * The last tile that has been read and the last one that has been written are kept in cursors, which are used
+ * without locking. The other tiles are looked up while holding the lock of the board.<br/><br/>
+ *
+ * Each byte stores the ordinal of the CellType XOR the default type, so the tiles that have never been written
+ * are filled with the default type without being stored, and the cells of that type are never written to disk.
+ * <br/>
+ * A copy shares the tiles of the original board until one of them writes a tile, which is then copied into its
+ * own scratch file (copy-on-write): copying a board does not copy any cell, and each copy only stores the tiles
+ * that it changes. The scratch files are deleted when no board uses them.<br/>
+ * The board can be read and copied from several threads at the same time, e.g. when it is the board of a
+ * {@link LevelTemplate}, and different cells can be written from several threads, but not while it is copied.
+ *
+ * @version 1.0
+ */
+final class TiledBoard implements Board {
+
+    /**
+     * Number of bits of the position of a cell in its tile.
+     */
+    private static final int TILE_BITS = 20;
+
+    /**
+     * Number of cells of each tile (1 MB).
+     */
+    static final int TILE_SIZE = 1 << TILE_BITS;
+
+    /**
+     * Closes the scratch files that are no longer used.
+     */
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    /**
+     * Number of cells of the board.
+     */
+    private final int size;
+
+    /**
+     * Ordinal of the CellType of the cells of a new board.
+     */
+    private final int defaultType;
+
+    /**
+     * Scratch file that holds each tile, or null if the tile has never been written. Guarded by this board.
+     */
+    private final Scratch[] owners;
+
+    /**
+     * Scratch file of the tiles that only this board uses, or null if the board has not written any tile since
+     * it was copied. Guarded by this board.
+     */
+    private Scratch own;
+
+    /**
+     * Tile of each number that has been accessed by this board, or null. Guarded by this board.
+     */
+    private final Tile[] tiles;
+
+    /**
+     * Last tile that has been read, so consecutive reads of the same tile do not take the lock.
+     */
+    private volatile Tile readCursor = Tile.NONE;
+
+    /**
+     * Last tile that has been written, which is always a tile of the own scratch file.
+     */
+    private volatile Tile writeCursor = Tile.NONE;
+
+    /**
+     * Constructor of a board whose cells are all of the default type.
+     *
+     * @param size Number of cells.
+     * @param defaultType Ordinal of the CellType of the cells.
+     * @throws IOException When the scratch file cannot be created.
+     */
+    TiledBoard(int size, int defaultType) throws IOException {
+        this(size, defaultType, new Scratch[(int) (((long) size + TILE_SIZE - 1) / TILE_SIZE)]);
+        own = new Scratch();
+    }
+
+    /**
+     * Constructor of a copy.
+     *
+     * @param size Number of cells.
+     * @param defaultType Ordinal of the CellType of the cells.
+     * @param owners Scratch file of each tile. The board keeps this array.
+     */
+    private TiledBoard(int size, int defaultType, Scratch[] owners) {
+        this.size = size;
+        this.defaultType = defaultType;
+        this.owners = owners;
+        tiles = new Tile[owners.length];
+    }
+
+    /**
+     * Returns the given tile to read it, mapping it the first time.
+     *
+     * @param number Number of the tile.
+     * @return Tile, whose buffer is null if the tile has never been written.
+     */
+    private synchronized Tile readTile(int number) {
+        Tile tile = tiles[number];
+
+        if (tile == null) {
+            Scratch owner = owners[number];
+            tile = new Tile(number, owner == null ? null : owner.map(number, length(number)));
+            tiles[number] = tile;
+        }
+
+        readCursor = tile;
+        return tile;
+    }
+
+    /**
+     * Returns the given tile to write it. If the tile is shared with other boards (or has never been written),
+     * it is first copied into the own scratch file.
+     *
+     * @param number Number of the tile.
+     * @return Tile of the own scratch file.
+     */
+    private synchronized Tile writeTile(int number) {
+        Tile tile = tiles[number];
+
+        if (owners[number] != own || own == null) {
+            try {
+                if (own == null) {
+                    own = new Scratch();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            //Mapping beyond the end of the file extends it with zeros, i.e. default cells.
+            ByteBuffer buffer = own.map(number, length(number));
+            if (owners[number] != null) {
+                buffer.put(0, owners[number].map(number, length(number)), 0, length(number));
+            }
+
+            owners[number] = own;
+            tile = new Tile(number, buffer);
+            tiles[number] = tile;
+        } else if (tile == null) {
+            tile = new Tile(number, own.map(number, length(number)));
+            tiles[number] = tile;
+        }
+
+        readCursor = tile;
+        writeCursor = tile;
+        return tile;
+    }
+
+    /**
+     * Returns the number of cells of the given tile (the last one can be shorter).
+     */
+    private int length(int number) {
+        return (int) Math.min(TILE_SIZE, size - (long) number * TILE_SIZE);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int get(int index) {
+        int number = index >>> TILE_BITS;
+        Tile tile = readCursor;
+
+        if (tile.number != number) {
+            tile = readTile(number);
+        }
+        return tile.buffer == null ? defaultType : tile.buffer.get(index & (TILE_SIZE - 1)) ^ defaultType;
+    }
+
+    @Override
+    public void set(int index, int type) {
+        int number = index >>> TILE_BITS;
+        Tile tile = writeCursor;
+
+        if (tile.number != number) {
+            tile = writeTile(number);
+        }
+        tile.buffer.put(index & (TILE_SIZE - 1), (byte) (type ^ defaultType));
+    }
+
+    @Override
+    public void fill(int from, int to, int type) {
+        byte value = (byte) (type ^ defaultType);
+
+        while (from < to) {
+            int number = from >>> TILE_BITS;
+            Tile tile = writeCursor;
+            if (tile.number != number) {
+                tile = writeTile(number);
+            }
+            int end = Math.min(to, (from | (TILE_SIZE - 1)) + 1);
+
+            for (int position = from & (TILE_SIZE - 1); from < end; from++) {
+                tile.buffer.put(position++, value);
+            }
+        }
+    }
+
+    /**
+     * Returns an independent copy of the board, which shares the tiles of this board until one of them writes
+     * them. No cell is copied and no file is created.
+     *
+     * @return Copy of the board.
+     */
+    @Override
+    public synchronized Board copy() {
+        //From now on, both boards copy the tiles that they write
+        own = null;
+        writeCursor = Tile.NONE;
+        return new TiledBoard(size, defaultType, owners.clone());
+    }
+
+    /**
+     * Returns the number of tiles that this board has mapped.
+     *
+     * @return Number of mapped tiles.
+     */
+    synchronized int getMappedTiles() {
+        int count = 0;
+        for (Tile tile : tiles) {
+            if (tile != null && tile.buffer != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of tiles that are stored in a scratch file, i.e. that have been written by this board
+     * or by the board that it was copied from.
+     *
+     * @return Number of stored tiles.
+     */
+    synchronized int getStoredTiles() {
+        int count = 0;
+        for (Scratch owner : owners) {
+            if (owner != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Mapped tile. Objects of this class are immutable, so they can be used as cursors without locking.
+     */
+    private static final class Tile {
+
+        /**
+         * Cursor that does not match any tile.
+         */
+        static final Tile NONE = new Tile(-1, null);
+
+        /**
+         * Number of the tile.
+         */
+        final int number;
+
+        /**
+         * Cells of the tile, or null if the tile has never been written.
+         */
+        final ByteBuffer buffer;
+
+        Tile(int number, ByteBuffer buffer) {
+            this.number = number;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Scratch file with tiles of one or more boards. Tile n is always at position n * TILE_SIZE, so the tiles
+     * that are not written do not use disk. The file is deleted when no board uses it.
+     */
+    private static final class Scratch {
+
+        private final FileChannel channel;
+
+        /**
+         * Mapping of each tile that has been mapped, indexed by its number. A mapping is only released when it
+         * is garbage collected, so each tile is mapped once. Guarded by this object.
+         */
+        private final Map<Integer, ByteBuffer> mappings = new HashMap<>();
+
+        Scratch() throws IOException {
+            Path file = Files.createTempFile("level", ".tiles");
+            FileChannel scratch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.DELETE_ON_CLOSE);
+            channel = scratch;
+
+            //The action must not reference this object, or it would never be unreachable.
+            CLEANER.register(this, () -> {
+                try {
+                    scratch.close();
+                } catch (IOException ignored) {
+                    //The file is a scratch file, so nothing is lost.
+                }
+            });
+        }
+
+        /**
+         * Returns the mapping of the given tile, mapping it if it has not been mapped yet.
+         *
+         * @param number Number of the tile.
+         * @param length Number of cells of the tile.
+         * @return Buffer with the cells of the tile.
+         * @throws UncheckedIOException When the tile cannot be mapped.
+         */
+        synchronized ByteBuffer map(int number, int length) {
+            ByteBuffer buffer = mappings.get(number);
+
+            if (buffer == null) {
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, (long) number * TILE_SIZE, length);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                mappings.put(number, buffer);
+            }
+            return buffer;
+        }
+    }
+}
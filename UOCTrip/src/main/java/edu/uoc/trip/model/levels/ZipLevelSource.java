@@ -0,0 +1,104 @@
+package edu.uoc.trip.model.levels;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Source of the level files ("level" + number + ".txt") of a zip file. They can be in any folder of the zip.
+ * Only the directory of the zip is read when it is opened, and each level is decompressed when it is requested.<br/>
+ * Like in the other sources, the levels are numbered from 1 without gaps: level files after a gap
+ * (e.g. "level5.txt" without "level4.txt") are ignored.
+ *
+ * @version 1.0
+ */
+public final class ZipLevelSource implements LevelSource {
+
+    /**
+     * Zip file with the level files.
+     */
+    private final ZipFile zipFile;
+
+    /**
+     * Entry of the zip file of each level.
+     */
+    private final Map<Integer, ZipEntry> entries = new HashMap<>();
+
+    /**
+     * Number of levels of the zip file.
+     */
+    private final int size;
+
+    /**
+     * Constructor
+     *
+     * @param file Path of the zip file.
+     * @throws IOException When the zip file cannot be read.
+     */
+    public ZipLevelSource(Path file) throws IOException {
+        zipFile = new ZipFile(file.toFile());
+
+        zipFile.stream().filter(entry -> !entry.isDirectory()).forEach(entry -> {
+            String name = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+            Matcher matcher = ClasspathLevelSource.LEVEL_FILE.matcher(name);
+            if (matcher.matches()) {
+                entries.put(Integer.parseInt(matcher.group(1)), entry);
+            }
+        });
+
+        int levels = 0;
+        while (entries.containsKey(levels + 1)) {
+            levels++;
+        }
+        size = levels;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Level getLevel(int number) throws LevelException {
+        ZipEntry entry = number <= size ? entries.get(number) : null;
+
+        if (entry == null) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+
+        try {
+            return new Level(zipFile.getInputStream(entry));
+        } catch (IOException e) {
+            throw new LevelException(LevelException.ERROR_PARSING_LEVEL_FILE);
+        }
+    }
+
+    /**
+     * Returns a key that identifies the current content of the given level: the path of the zip file and the name,
+     * CRC-32 and size of the entry of the level, so a zip file that is replaced by another one with different
+     * levels does not give the same keys.
+     *
+     * @param number Number of the level (from 1 to size()).
+     * @return Key of the current content of the level.
+     */
+    @Override
+    public String getKey(int number) {
+        ZipEntry entry = entries.get(number);
+
+        if (entry == null) {
+            return zipFile.getName() + "!" + number;
+        }
+
+        return zipFile.getName() + "!" + entry.getName()
+                + "@" + Long.toHexString(entry.getCrc()) + "." + entry.getSize();
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipFile.close();
+    }
+}
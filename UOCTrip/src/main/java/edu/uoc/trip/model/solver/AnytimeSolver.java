@@ -0,0 +1,188 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Solver that finds a solution quickly and keeps improving it until a deadline.<br/><br/>
+ *
+ * The first solution comes from a {@link HierarchicalSolver}. Then, beam searches with wider and wider beams
+ * look for solutions with fewer moves than the best one so far, until the solution is proven optimal, the
+ * deadline is reached or the search is cancelled. The deadline and the cancellation are checked inside the
+ * searches (at each level of the beams), and the interrupted status of the thread is only read, never changed,
+ * so the interruptions of the caller are kept. Each improvement is given to a listener (or published to the
+ * subscribers of {@link #publisher(Level, Instant, Executor)}) as soon as it is found, so callers with a latency
+ * budget can use a good solution now and a better one later.
+ *
+ * @version 1.0
+ */
+public final class AnytimeSolver implements Solver {
+
+    /**
+     * Time given to {@link #solve(Level)} by default.
+     */
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(1);
+
+    /**
+     * Width of the first beam search. Each one doubles the width of the previous one.
+     */
+    private static final int FIRST_WIDTH = 4;
+
+    /**
+     * Width of the last beam search.
+     */
+    private static final int MAXIMUM_WIDTH = 1 << 12;
+
+    /**
+     * Time given to {@link #solve(Level)}.
+     */
+    private final Duration budget;
+
+    /**
+     * Constructor with the default budget.
+     */
+    public AnytimeSolver() {
+        this(DEFAULT_BUDGET);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param budget Time given to {@link #solve(Level)}.
+     * @throws IllegalArgumentException When the budget is not positive.
+     */
+    public AnytimeSolver(Duration budget) {
+        if (budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("Wrong budget: " + budget);
+        }
+        this.budget = budget;
+    }
+
+    /**
+     * Getter of the attribute "budget".
+     *
+     * @return Time given to {@link #solve(Level)}.
+     */
+    public Duration getBudget() {
+        return budget;
+    }
+
+    /**
+     * Looks for a solution during the budget of the solver.
+     *
+     * @param level Level to solve.
+     * @return The best solution found before the end of the budget, or an empty Optional if none was found.
+     */
+    @Override
+    public Optional<Solution> solve(Level level) {
+        return solve(level, Instant.now().plus(budget), solution -> {
+        });
+    }
+
+    /**
+     * Looks for better and better solutions until the deadline. The level is not modified.<br/>
+     * The search ends earlier when a solution is proven optimal or when the current thread is interrupted,
+     * whose interrupted status is kept.
+     *
+     * @param level Level to solve.
+     * @param deadline Time when the search ends.
+     * @param listener Function that is called, in the current thread, with each solution that has fewer moves
+     *                 than the previous ones.
+     * @return The best solution that has been found, or an empty Optional if none has been found.
+     */
+    public Optional<Solution> solve(Level level, Instant deadline, Consumer<? super Solution> listener) {
+        return solve(level, deadline, listener, () -> false);
+    }
+
+    /**
+     * Looks for better and better solutions until the deadline or until the search is cancelled.
+     *
+     * @param level Level to solve.
+     * @param deadline Time when the search ends.
+     * @param listener Function that is called with each solution that has fewer moves than the previous ones.
+     * @param cancelled Function that tells if the search has been cancelled. It is checked at each level of the
+     *                  beam searches and at each step of the first search.
+     * @return The best solution that has been found, or an empty Optional if none has been found.
+     */
+    private Optional<Solution> solve(Level level, Instant deadline, Consumer<? super Solution> listener,
+                                     BooleanSupplier cancelled) {
+        if (level.isSolved()) {
+            Solution solution = new Solution(List.of(), 0);
+            listener.accept(solution);
+            return Optional.of(solution);
+        }
+
+        Puzzle puzzle = new Puzzle(new LevelTemplate(level));
+        int bound = LowerBound.compute(puzzle);
+        if (bound == Puzzle.INFINITE || new DeadlockAnalysis(puzzle).isUnsolvable()) {
+            return Optional.empty();
+        }
+
+        Thread thread = Thread.currentThread();
+        BooleanSupplier stopped = () -> thread.isInterrupted() || cancelled.getAsBoolean()
+                || !Instant.now().isBefore(deadline);
+        Solution best = null;
+
+        Optional<Solution> first = new HierarchicalSolver().solve(level, stopped);
+        if (first.isPresent()) {
+            best = new Solution(first.get().getMoves(), Math.min(bound, first.get().getNumMoves()));
+            listener.accept(best);
+        }
+
+        for (int width = FIRST_WIDTH; width <= MAXIMUM_WIDTH; width *= 2) {
+            if (stopped.getAsBoolean() || best != null && best.isOptimal()) {
+                break;
+            }
+
+            //Only solutions with fewer moves than the best one are useful
+            int depth = best == null ? 0 : best.getNumMoves() - 1;
+            Optional<Solution> solution = new BeamSearchSolver(width, depth).solve(level, stopped);
+
+            if (solution.isPresent() && (best == null || solution.get().getNumMoves() < best.getNumMoves())) {
+                best = new Solution(solution.get().getMoves(), Math.min(bound, solution.get().getNumMoves()),
+                        solution.get().getBeamWidth());
+                listener.accept(best);
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Returns a publisher of better and better solutions of the level in its current state.<br/>
+     * Each subscriber starts its own search, which runs in the executor until the deadline, and receives each
+     * solution that has fewer moves than the previous ones, followed by onComplete. Cancelling the
+     * subscription stops the search at the next level of its current beam search.
+     *
+     * @param level Level to solve. Later changes of the level do not change the solutions.
+     * @param deadline Time when the searches end.
+     * @param executor Executor that runs the searches and delivers the solutions.
+     * @return Publisher of the solutions.
+     */
+    public Flow.Publisher<Solution> publisher(Level level, Instant deadline, Executor executor) {
+        LevelTemplate template = new LevelTemplate(level);
+
+        return subscriber -> {
+            SubmissionPublisher<Solution> publisher = new SubmissionPublisher<>(executor, Flow.defaultBufferSize());
+            publisher.subscribe(subscriber);
+
+            executor.execute(() -> {
+                try {
+                    solve(template.newLevel(), deadline, publisher::submit, () -> !publisher.hasSubscribers());
+                    publisher.close();
+                } catch (RuntimeException e) {
+                    publisher.closeExceptionally(e);
+                }
+            });
+        };
+    }
+}
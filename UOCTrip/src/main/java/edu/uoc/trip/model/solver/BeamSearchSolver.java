@@ -0,0 +1,772 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Solver with bounded memory and time based on beam search.<br/><br/>
+ *
+ * Each level of the search keeps only the best {@link #getWidth()} states. The moves of a state are the ones
+ * that extend the roads that start at the starting cells: a piece (or a rotation) that connects with an open end
+ * of a road, or another piece for the last cell of a branch. States are scored by how far the open ends of each
+ * road are from its finish cell, so the beam follows the roads that get closer to the finish cells.<br/>
+ * The memory is proportional to the width times the size of the board (only the states of the previous and
+ * the current level are remembered to skip repeated states) and the time to the width times the number of moves,
+ * whatever the number of pieces (the pieces that are given to the roads are tracked from state to state instead
+ * of being looked for in the whole board). Solutions are good but not necessarily optimal:
+ * {@link Solution#getGap()} tells how far they can be from the minimum, and {@link Solution#getBeamWidth()} tells
+ * the width that found them. A narrow beam may also drop all the states that lead to a solution, so wider beams
+ * find solutions more often.
+ *
+ * @version 1.0
+ */
+public final class BeamSearchSolver implements Solver {
+
+    /**
+     * Default number of states that are kept in each level of the search.
+     */
+    public static final int DEFAULT_WIDTH = 64;
+
+    /**
+     * Score of the states where a road cannot be extended anymore.
+     */
+    private static final int DEAD = Integer.MAX_VALUE;
+
+    /**
+     * Number of states that are kept in each level of the search.
+     */
+    private final int width;
+
+    /**
+     * Maximum number of moves of the solutions (0 for the number of cells of the board).
+     */
+    private final int maximumDepth;
+
+    /**
+     * Constructor with the default width.
+     */
+    public BeamSearchSolver() {
+        this(DEFAULT_WIDTH);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param width Number of states that are kept in each level of the search.
+     * @throws IllegalArgumentException When the width is not positive.
+     */
+    public BeamSearchSolver(int width) {
+        this(width, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param width Number of states that are kept in each level of the search.
+     * @param maximumDepth Maximum number of moves of the solutions (0 for the number of cells of the board).
+     * @throws IllegalArgumentException When the width is not positive or the depth is negative.
+     */
+    public BeamSearchSolver(int width, int maximumDepth) {
+        if (width <= 0 || maximumDepth < 0) {
+            throw new IllegalArgumentException("Wrong width or depth: " + width + ", " + maximumDepth);
+        }
+        this.width = width;
+        this.maximumDepth = maximumDepth;
+    }
+
+    /**
+     * Getter of the attribute "width".
+     *
+     * @return Number of states that are kept in each level of the search.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Getter of the attribute "maximumDepth".
+     *
+     * @return Maximum number of moves of the solutions (0 for the number of cells of the board).
+     */
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+
+    @Override
+    public Optional<Solution> solve(Level level) {
+        return solve(level, Thread.currentThread()::isInterrupted);
+    }
+
+    /**
+     * Solves the level, unless the search is stopped before.
+     *
+     * @param level Level to solve. It is not modified.
+     * @param stopped Function that tells if the search must stop. It is checked at each level of the beam.
+     * @return Solution, or an empty Optional if none has been found or the search has been stopped.
+     */
+    Optional<Solution> solve(Level level, BooleanSupplier stopped) {
+        if (level.isSolved()) {
+            return Optional.of(new Solution(List.of(), 0, width));
+        }
+
+        LevelTemplate template = new LevelTemplate(level);
+        Puzzle root = new Puzzle(template);
+        int bound = LowerBound.compute(root);
+        DeadlockAnalysis analysis = new DeadlockAnalysis(root);
+
+        int depthLimit = maximumDepth > 0 ? maximumDepth : root.size();
+
+        //The bound is INFINITE when some pair cannot be connected
+        if (bound > depthLimit || analysis.isUnsolvable()) {
+            return Optional.empty();
+        }
+
+        Search search = new Search(root, analysis);
+        List<State> beam = List.of(new State(root, null, search.newSources()));
+
+        //Hashes of the states of the previous level, so the children do not go back to them
+        Set<Long> previous = Set.of(root.getHash());
+
+        for (int depth = 1; depth <= depthLimit; depth++) {
+            if (stopped.getAsBoolean()) {
+                return Optional.empty();
+            }
+
+            List<Child> children = new ArrayList<>();
+            Set<Long> current = new HashSet<>();
+
+            for (int i = 0; i < beam.size(); i++) {
+                State state = beam.get(i);
+                Puzzle puzzle = state.puzzle;
+
+                for (int[] change : search.candidates(puzzle, state.sources)) {
+                    int undo = apply(puzzle, change);
+                    long hash = puzzle.getHash();
+
+                    if (!previous.contains(hash) && current.add(hash)) {
+                        int score = search.score(puzzle);
+                        if (score != DEAD) {
+                            children.add(new Child(i, change, score, hash));
+                        }
+                    }
+
+                    //Rotations are undone by restoring the type; swaps by swapping again
+                    if (change[0] == Move.Type.ROTATE.ordinal()) {
+                        puzzle.set(change[1], undo);
+                    } else {
+                        puzzle.swap(change[1], change[2]);
+                    }
+                }
+            }
+
+            if (children.isEmpty()) {
+                return Optional.empty();
+            }
+
+            //Stable sort: children with the same score keep the order of their parents
+            children.sort(Comparator.comparingInt(child -> child.score));
+
+            List<State> next = new ArrayList<>(Math.min(width, children.size()));
+            Set<Long> kept = new HashSet<>();
+            for (Child child : children.subList(0, Math.min(width, children.size()))) {
+                State parent = beam.get(child.parent);
+                Puzzle puzzle = new Puzzle(parent.puzzle);
+                apply(puzzle, child.change);
+
+                Sources sources = new Sources(parent.sources);
+                if (child.change[0] == Move.Type.SWAP.ordinal()) {
+                    //The piece that was replaced is now where the given piece was
+                    search.received(puzzle, sources, child.change[2]);
+                }
+
+                next.add(new State(puzzle, new MoveNode(parent.moves, toMove(puzzle, child.change)), sources));
+                kept.add(child.hash);
+            }
+
+            if (children.get(0).score == 0) {
+                List<Move> moves = next.get(0).getMoves();
+                if (!Solution.solves(template, moves)) {
+                    return Optional.empty();
+                }
+                return Optional.of(new Solution(moves, Math.min(bound, moves.size()), width));
+            }
+
+            beam = next;
+            previous = kept;
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Makes a change in the puzzle.
+     *
+     * @param puzzle Puzzle.
+     * @param change Change: {ordinal of Move.Type, index of the first cell, index of the second cell}.
+     * @return Previous type of the first cell.
+     */
+    private static int apply(Puzzle puzzle, int[] change) {
+        int type = puzzle.getType(change[1]);
+        if (change[0] == Move.Type.ROTATE.ordinal()) {
+            puzzle.rotate(change[1]);
+        } else {
+            puzzle.swap(change[1], change[2]);
+        }
+        return type;
+    }
+
+    private static Move toMove(Puzzle puzzle, int[] change) {
+        return change[0] == Move.Type.ROTATE.ordinal()
+                ? Move.rotate(puzzle.getCoordinate(change[1]))
+                : Move.swap(puzzle.getCoordinate(change[1]), puzzle.getCoordinate(change[2]));
+    }
+
+    /**
+     * Last move of a sequence of moves. The sequences of the states share their common moves.
+     */
+    private static final class MoveNode {
+
+        private final MoveNode previous;
+        private final Move move;
+
+        MoveNode(MoveNode previous, Move move) {
+            this.previous = previous;
+            this.move = move;
+        }
+    }
+
+    /**
+     * State of the beam: the puzzle after the moves.
+     */
+    private static final class State {
+
+        private final Puzzle puzzle;
+        private final MoveNode moves;
+        private final Sources sources;
+
+        State(Puzzle puzzle, MoveNode moves, Sources sources) {
+            this.puzzle = puzzle;
+            this.moves = moves;
+            this.sources = sources;
+        }
+
+        List<Move> getMoves() {
+            LinkedList<Move> list = new LinkedList<>();
+            for (MoveNode node = moves; node != null; node = node.previous) {
+                list.addFirst(node.move);
+            }
+            return list;
+        }
+    }
+
+    /**
+     * Candidate for the next level of the beam, which is only built if it is kept.
+     */
+    private static final class Child {
+
+        private final int parent;
+        private final int[] change;
+        private final int score;
+        private final long hash;
+
+        Child(int parent, int[] change, int score, long hash) {
+            this.parent = parent;
+            this.change = change;
+            this.score = score;
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * Cells of a state whose pieces are given to the roads, one for each type of piece. They are updated lazily:
+     * a cell is only replaced when it no longer has its piece or it has become part of a road.
+     */
+    private static final class Sources {
+
+        /**
+         * Cell with a piece of each type, or -1 if there is none.
+         */
+        private final int[] cells;
+
+        /**
+         * Position of each type of piece in {@link Search#pieces} where the search of a new cell goes on.
+         * The positions only move forward, so a state never looks at the same cell twice.
+         */
+        private final int[] cursors;
+
+        Sources(int types) {
+            cells = new int[types];
+            cursors = new int[types];
+            Arrays.fill(cells, -1);
+        }
+
+        Sources(Sources sources) {
+            cells = sources.cells.clone();
+            cursors = sources.cursors.clone();
+        }
+    }
+
+    /**
+     * Traversals of the roads of the states. The arrays are reused by all the states of a search.
+     */
+    private static final class Search {
+
+        /**
+         * Stamp of the last traversal that has reached each cell.
+         */
+        private final int[] marks;
+
+        /**
+         * Direction of the cell from which each cell has been reached in the last traversal that has reached it
+         * (-1 for the starting cells).
+         */
+        private final int[] entries;
+
+        private final int[] queue;
+
+        /**
+         * Stamp of the last call to {@link #candidates(Puzzle, Sources)} whose roads have each cell.
+         */
+        private final int[] roads;
+
+        /**
+         * Stamp of the current call to {@link #candidates(Puzzle, Sources)}.
+         */
+        private int roadStamp;
+
+        /**
+         * Cells of each type of piece in the puzzle of the root, with the dead cells first. Swaps only move
+         * pieces between these cells, so the cells that give pieces are looked for here.
+         */
+        private final int[][] pieces;
+
+        /**
+         * Cells that can never be part of a road: they are not given pieces, and their pieces are the first ones
+         * to be taken.
+         */
+        private final DeadlockAnalysis analysis;
+
+        /**
+         * Number of cells from each cell, entered from each direction (index * 4 + direction), to the finish
+         * cell of each pair, going only through cells that can be part of a road and straight through the
+         * rotatable cells (DEAD if the finish cell cannot be reached). Unlike the Manhattan distance, it goes
+         * around the mountains and rivers, so roads are not led into places from which they cannot get closer.
+         * It is null for the boards whose states do not fit in an int, which use the Manhattan distance instead.
+         */
+        private final int[][] distances;
+
+        /**
+         * Stamp of the current traversal.
+         */
+        private int stamp;
+
+        Search(Puzzle puzzle, DeadlockAnalysis analysis) {
+            this.analysis = analysis;
+            marks = new int[puzzle.size()];
+            entries = new int[puzzle.size()];
+            queue = new int[puzzle.size()];
+            roads = new int[puzzle.size()];
+            distances = new int[puzzle.getNumPairs()][];
+            pieces = pieces(puzzle, analysis);
+
+            if (puzzle.size() <= Puzzle.MAXIMUM_STATES_SIZE) {
+                for (int pair = 0; pair < distances.length; pair++) {
+                    distances[pair] = distances(puzzle, pair);
+                }
+            }
+        }
+
+        /**
+         * Returns the distance from a cell, entered from a direction, to the finish cell of a pair.
+         *
+         * @param puzzle Puzzle.
+         * @param pair Index of the pair.
+         * @param index Index of the cell.
+         * @param entry Direction from which the cell is entered.
+         * @return Distance computed by {@link #distances(Puzzle, int)}, or the Manhattan distance if the board is
+         * too big for it.
+         */
+        private int distance(Puzzle puzzle, int pair, int index, int entry) {
+            if (distances[pair] != null) {
+                return distances[pair][index * 4 + entry];
+            }
+
+            int finish = puzzle.getFinish(pair);
+            int columns = puzzle.getColumns();
+            return Math.abs(index / columns - finish / columns) + Math.abs(index % columns - finish % columns);
+        }
+
+        /**
+         * Lists the cells of each type of piece, with the dead cells first, since no road will ever need their
+         * pieces where they are.
+         *
+         * @param puzzle Puzzle of the root.
+         * @param analysis Dead cells of the puzzle.
+         * @return Cells of each type of piece (empty for the types that are not movable).
+         */
+        private static int[][] pieces(Puzzle puzzle, DeadlockAnalysis analysis) {
+            int[] counts = new int[Puzzle.TYPES.length];
+            for (int index = 0; index < puzzle.size(); index++) {
+                if (Puzzle.MOVABLE[puzzle.getType(index)]) {
+                    counts[puzzle.getType(index)]++;
+                }
+            }
+
+            int[][] pieces = new int[Puzzle.TYPES.length][];
+            for (int type = 0; type < pieces.length; type++) {
+                pieces[type] = new int[counts[type]];
+                counts[type] = 0;
+            }
+            for (boolean dead : new boolean[]{true, false}) {
+                for (int index = 0; index < puzzle.size(); index++) {
+                    int type = puzzle.getType(index);
+                    if (Puzzle.MOVABLE[type] && analysis.isDead(index) == dead) {
+                        pieces[type][counts[type]++] = index;
+                    }
+                }
+            }
+            return pieces;
+        }
+
+        /**
+         * Returns the cells of the root that give pieces to the roads, which are found by the first call to
+         * {@link #candidates(Puzzle, Sources)}.
+         *
+         * @return Sources of the root.
+         */
+        Sources newSources() {
+            return new Sources(Puzzle.TYPES.length);
+        }
+
+        /**
+         * Returns the cell that gives a piece of the given type, which must not be part of any road of the
+         * current call to {@link #candidates(Puzzle, Sources)}.
+         *
+         * @param puzzle Puzzle of a state.
+         * @param sources Sources of the state, which are updated.
+         * @param type Ordinal of the type of the piece.
+         * @return Index of the cell, or -1 if there is none.
+         */
+        private int source(Puzzle puzzle, Sources sources, int type) {
+            int cell = sources.cells[type];
+            if (cell != -1 && puzzle.getType(cell) == type && roads[cell] != roadStamp) {
+                return cell;
+            }
+
+            int[] cells = pieces[type];
+            for (; sources.cursors[type] < cells.length; sources.cursors[type]++) {
+                cell = cells[sources.cursors[type]];
+                if (puzzle.getType(cell) == type && roads[cell] != roadStamp) {
+                    sources.cells[type] = cell;
+                    return cell;
+                }
+            }
+
+            sources.cells[type] = -1;
+            return -1;
+        }
+
+        /**
+         * Updates the sources of a state after a swap with a source: the cell has received the piece that has
+         * been replaced, and it is not part of any road, so it becomes the source of that piece if the current
+         * one is not better.
+         *
+         * @param puzzle Puzzle of the state, after the swap.
+         * @param sources Sources of the state, which are updated.
+         * @param index Index of the cell that gave its piece.
+         */
+        void received(Puzzle puzzle, Sources sources, int index) {
+            int type = puzzle.getType(index);
+            int current = sources.cells[type];
+
+            if (Puzzle.MOVABLE[type] && (current == -1 || puzzle.getType(current) != type
+                    || analysis.isDead(index) && !analysis.isDead(current))) {
+                sources.cells[type] = index;
+            }
+        }
+
+        /**
+         * Computes the distances to the finish cell of a pair with a breadth-first search backwards from it.
+         *
+         * @param puzzle Puzzle.
+         * @param pair Index of the pair.
+         * @return Distance from each cell entered from each direction (index * 4 + direction).
+         */
+        private static int[] distances(Puzzle puzzle, int pair) {
+            int[] distance = new int[puzzle.size() * 4];
+            int[] states = new int[puzzle.size() * 4];
+            int tail = 0;
+            Arrays.fill(distance, DEAD);
+
+            //The finish cell is entered from the cell below it
+            int below = puzzle.neighbour(puzzle.getFinish(pair), Puzzle.opposite(Puzzle.UP));
+            for (int in = 0; in < 4 && below != -1; in++) {
+                if (passes(puzzle, below, in, Puzzle.UP)) {
+                    distance[below * 4 + in] = 1;
+                    states[tail++] = below * 4 + in;
+                }
+            }
+
+            for (int head = 0; head < tail; head++) {
+                int index = states[head] >> 2;
+                int entry = states[head] & 3;
+                int previous = puzzle.neighbour(index, entry);
+                int out = Puzzle.opposite(entry);
+
+                for (int in = 0; in < 4 && previous != -1; in++) {
+                    int state = previous * 4 + in;
+                    if (distance[state] == DEAD && passes(puzzle, previous, in, out)) {
+                        distance[state] = distance[states[head]] + 1;
+                        states[tail++] = state;
+                    }
+                }
+            }
+            return distance;
+        }
+
+        /**
+         * Checks if a road can go through a cell, with some piece or rotation, entering and leaving it from the
+         * given directions.
+         */
+        private static boolean passes(Puzzle puzzle, int index, int in, int out) {
+            int type = puzzle.getType(index);
+            return in != out && (Puzzle.MOVABLE[type] || Puzzle.ROTATABLE[type] && out == Puzzle.opposite(in));
+        }
+
+        /**
+         * Traverses the road that starts at the starting cell of a pair.
+         *
+         * @param puzzle Puzzle.
+         * @param pair Index of the pair.
+         * @return Number of cells of the road (they are in the first positions of the queue),
+         * or -1 if the road reaches the finish cell.
+         */
+        private int traverse(Puzzle puzzle, int pair) {
+            int start = puzzle.getStart(pair);
+            int tail = 0;
+
+            stamp++;
+            marks[start] = stamp;
+            entries[start] = -1;
+            queue[tail++] = start;
+
+            for (int head = 0; head < tail; head++) {
+                int index = queue[head];
+
+                for (int bits = Puzzle.MASKS[puzzle.getType(index)]; bits != 0; bits &= bits - 1) {
+                    int out = Integer.numberOfTrailingZeros(bits);
+                    int next = puzzle.neighbour(index, out);
+
+                    if (next != -1 && marks[next] != stamp && connects(puzzle, next, out)) {
+                        if (next == puzzle.getFinish(pair)) {
+                            return -1;
+                        }
+                        marks[next] = stamp;
+                        entries[next] = Puzzle.opposite(out);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return tail;
+        }
+
+        /**
+         * Checks if a cell has the connection back towards the cell from which it is entered.
+         */
+        private static boolean connects(Puzzle puzzle, int index, int in) {
+            return (Puzzle.MASKS[puzzle.getType(index)] & (1 << Puzzle.opposite(in))) != 0;
+        }
+
+        /**
+         * Returns the distance from an open end of a road to the finish cell of its pair.
+         *
+         * @param puzzle Puzzle.
+         * @param pair Index of the pair.
+         * @param index Index of a cell of the road.
+         * @param out Direction of a connection of the cell.
+         * @return Distance from the adjacent cell, or DEAD if it is not an open end (a cell that does not
+         * connect back but could) or it cannot reach the finish cell.
+         */
+        private int openEnd(Puzzle puzzle, int pair, int index, int out) {
+            int next = puzzle.neighbour(index, out);
+            int distance = next == -1 ? DEAD : distance(puzzle, pair, next, Puzzle.opposite(out));
+
+            if (distance == DEAD || connects(puzzle, next, out)
+                    || puzzle.cost(next, 1 << Puzzle.opposite(out)) == Puzzle.INFINITE) {
+                return DEAD;
+            }
+            return distance;
+        }
+
+        /**
+         * Returns the distance from a cell of a road to the finish cell of its pair if its piece is replaced by
+         * another one that keeps the connection with the road.
+         *
+         * @param puzzle Puzzle.
+         * @param pair Index of the pair.
+         * @param index Index of a cell of the road.
+         * @return Distance from the cell, or DEAD if its piece cannot be replaced or it cannot reach the finish.
+         */
+        private int replacement(Puzzle puzzle, int pair, int index) {
+            if (entries[index] == -1 || !Puzzle.MOVABLE[puzzle.getType(index)]) {
+                return DEAD;
+            }
+            return distance(puzzle, pair, index, entries[index]);
+        }
+
+        /**
+         * Scores a state: the sum, for each road that does not reach its finish cell, of the number of cells
+         * that the road still needs. It is estimated from its closest open end, or from its closest cell, whose
+         * piece can be replaced by another one that leads closer to the finish cell. Both of them are one move
+         * away from a road that is one cell closer.
+         *
+         * @param puzzle Puzzle.
+         * @return Score (0 if the puzzle is solved), or DEAD.
+         */
+        int score(Puzzle puzzle) {
+            int score = 0;
+
+            for (int pair = 0; pair < puzzle.getNumPairs(); pair++) {
+                int size = traverse(puzzle, pair);
+                if (size == -1) {
+                    continue;
+                }
+
+                int best = DEAD;
+                for (int i = 0; i < size; i++) {
+                    int index = queue[i];
+                    best = Math.min(best, replacement(puzzle, pair, index));
+
+                    for (int bits = Puzzle.MASKS[puzzle.getType(index)]; bits != 0; bits &= bits - 1) {
+                        best = Math.min(best, openEnd(puzzle, pair, index, Integer.numberOfTrailingZeros(bits)));
+                    }
+                }
+
+                if (best == DEAD) {
+                    //No road can be built from here
+                    return DEAD;
+                }
+                score += best + 1;
+            }
+            return score;
+        }
+
+        /**
+         * Returns the changes that extend the roads that do not reach their finish cells: for each open end, the
+         * pieces or the rotation that connect with it, and for the closest cells of each road, the pieces that
+         * keep the connection with the road.
+         *
+         * @param puzzle Puzzle of a state.
+         * @param sources Sources of the state, which are updated.
+         * @return Changes: {ordinal of Move.Type, index of the first cell, index of the second cell}.
+         */
+        List<int[]> candidates(Puzzle puzzle, Sources sources) {
+            //Cells of all the roads are stamped, so they are not taken as sources of pieces
+            roadStamp++;
+            List<int[]> ends = new ArrayList<>();
+
+            for (int pair = 0; pair < puzzle.getNumPairs(); pair++) {
+                int size = traverse(puzzle, pair);
+                if (size == -1) {
+                    //Mark the whole road of a solved pair
+                    size = markSolved(puzzle, pair);
+                    for (int i = 0; i < size; i++) {
+                        roads[queue[i]] = roadStamp;
+                    }
+                    continue;
+                }
+
+                int closest = DEAD;
+                for (int i = 0; i < size; i++) {
+                    int index = queue[i];
+                    roads[index] = roadStamp;
+                    closest = Math.min(closest, replacement(puzzle, pair, index));
+
+                    for (int bits = Puzzle.MASKS[puzzle.getType(index)]; bits != 0; bits &= bits - 1) {
+                        int out = Integer.numberOfTrailingZeros(bits);
+                        if (openEnd(puzzle, pair, index, out) != DEAD) {
+                            ends.add(new int[]{puzzle.neighbour(index, out), 1 << Puzzle.opposite(out)});
+                        }
+                    }
+                }
+
+                for (int i = 0; i < size && closest != DEAD; i++) {
+                    int index = queue[i];
+                    if (replacement(puzzle, pair, index) == closest) {
+                        ends.add(new int[]{index, 1 << entries[index]});
+                    }
+                }
+            }
+
+            int[] available = new int[Puzzle.TYPES.length];
+            for (int type = 0; type < available.length; type++) {
+                available[type] = Puzzle.MOVABLE[type] ? source(puzzle, sources, type) : -1;
+            }
+
+            List<int[]> changes = new ArrayList<>();
+            for (int[] end : ends) {
+                int index = end[0];
+                int type = puzzle.getType(index);
+
+                if (analysis.isDead(index)) {
+                    continue;
+                }
+                if (Puzzle.ROTATABLE[type]) {
+                    if ((Puzzle.MASKS[Puzzle.TYPES[type].next().ordinal()] & end[1]) != 0) {
+                        changes.add(new int[]{Move.Type.ROTATE.ordinal(), index, index});
+                    }
+                    continue;
+                }
+
+                for (int other = 0; other < available.length; other++) {
+                    if (other != type && available[other] != -1 && available[other] != index
+                            && (Puzzle.MASKS[other] & end[1]) != 0) {
+                        changes.add(new int[]{Move.Type.SWAP.ordinal(), index, available[other]});
+                    }
+                }
+            }
+            return changes;
+        }
+
+        /**
+         * Traverses the road of a solved pair without stopping at its finish cell.
+         *
+         * @param puzzle Puzzle.
+         * @param pair Index of the pair.
+         * @return Number of cells of the road (they are in the first positions of the queue).
+         */
+        private int markSolved(Puzzle puzzle, int pair) {
+            int start = puzzle.getStart(pair);
+            int tail = 0;
+
+            stamp++;
+            marks[start] = stamp;
+            queue[tail++] = start;
+
+            for (int head = 0; head < tail; head++) {
+                int index = queue[head];
+
+                for (int bits = Puzzle.MASKS[puzzle.getType(index)]; bits != 0; bits &= bits - 1) {
+                    int out = Integer.numberOfTrailingZeros(bits);
+                    int next = puzzle.neighbour(index, out);
+
+                    if (next != -1 && marks[next] != stamp && connects(puzzle, next, out)) {
+                        marks[next] = stamp;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return tail;
+        }
+    }
+}
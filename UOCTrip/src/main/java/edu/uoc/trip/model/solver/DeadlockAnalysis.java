@@ -0,0 +1,357 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelTemplate;
+import edu.uoc.trip.model.utils.Coordinate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Static analysis of a level that finds the cells that can never be part of a route and the levels that can
+ * never be solved, so solvers and hint engines can skip the moves that cannot help.<br/><br/>
+ *
+ * A cell is dead when no route from a starting cell to its finish cell can go through it, whatever the moves:
+ * e.g. cells walled in by mountains, rivers and starting or finish cells, rotatable cells whose two
+ * orientations lead to such cells or out of the board, and movable cells whose routes would need a piece that
+ * the board does not have. The routes are explored over the states (cell, direction from which the cell is
+ * entered), forwards from each starting cell and backwards from its finish cell, and a cell is alive if some
+ * state is reached by both explorations.<br/>
+ * A level is unsolvable when some pair cannot be connected at all, or when the cells that every route needs
+ * (the ones next to the starting and finish cells and one cell per row to go up) need more pieces with some
+ * connections than the board has.<br/>
+ * Moves only exchange pieces and rotate cells, so the result is the same for every state that can be reached
+ * from the analysed one, and every move can be undone: a state of a solvable level is never a dead end.<br/>
+ * Boards whose states do not fit in an int (more than 2^28 cells) are not analysed: none of their cells is dead
+ * and they are not proven unsolvable.
+ *
+ * @version 1.0
+ */
+public final class DeadlockAnalysis {
+
+    /**
+     * Number of columns of the board.
+     */
+    private final int columns;
+
+    /**
+     * Whether each cell is dead, indexed by the index of the cell, or null if the board is too big to be analysed.
+     */
+    private final boolean[] dead;
+
+    /**
+     * Number of dead cells.
+     */
+    private final int numDeadCells;
+
+    /**
+     * Whether the level can never be solved.
+     */
+    private final boolean unsolvable;
+
+    /**
+     * Constructor. It analyses the level in its current state, which is not modified.
+     *
+     * @param level Level.
+     */
+    public DeadlockAnalysis(Level level) {
+        this(new Puzzle(new LevelTemplate(level)));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param puzzle Puzzle, which is not modified.
+     */
+    DeadlockAnalysis(Puzzle puzzle) {
+        columns = puzzle.getColumns();
+
+        if (puzzle.size() > Puzzle.MAXIMUM_STATES_SIZE) {
+            dead = null;
+            numDeadCells = 0;
+            unsolvable = false;
+            return;
+        }
+
+        dead = new boolean[puzzle.size()];
+        Arrays.fill(dead, true);
+
+        boolean connected = true;
+        for (int pair = 0; pair < puzzle.getNumPairs(); pair++) {
+            connected &= markAlive(puzzle, pair);
+        }
+
+        int count = 0;
+        for (boolean cell : dead) {
+            count += cell ? 1 : 0;
+        }
+        numDeadCells = count;
+        unsolvable = !connected || lacksPieces(puzzle) || lacksCrossings(puzzle);
+    }
+
+    /**
+     * Checks if a cell is dead, i.e. it can never be part of a route.
+     *
+     * @param row Row of the cell.
+     * @param column Column of the cell.
+     * @return True if the cell is dead. Otherwise, false.
+     */
+    public boolean isDead(int row, int column) {
+        return isDead(row * columns + column);
+    }
+
+    /**
+     * Checks if a cell is dead.
+     *
+     * @param index Index of the cell.
+     * @return True if the cell is dead. Otherwise, false.
+     */
+    boolean isDead(int index) {
+        return dead != null && dead[index];
+    }
+
+    /**
+     * Returns the dead cells.
+     *
+     * @return Coordinates of the dead cells, row by row.
+     */
+    public List<Coordinate> getDeadCells() {
+        List<Coordinate> cells = new ArrayList<>(numDeadCells);
+        for (int index = 0; cells.size() < numDeadCells; index++) {
+            if (dead[index]) {
+                cells.add(new Coordinate(index / columns, index % columns));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Getter of the attribute "numDeadCells".
+     *
+     * @return Number of dead cells, including the static ones.
+     */
+    public int getNumDeadCells() {
+        return numDeadCells;
+    }
+
+    /**
+     * Checks if the level can never be solved, whatever the moves.
+     *
+     * @return True if it is proven that the level cannot be solved. Otherwise, false (which does not prove that
+     * it can be solved).
+     */
+    public boolean isUnsolvable() {
+        return unsolvable;
+    }
+
+    /**
+     * Checks if a move can help to solve the level. Rotating a dead cell and swapping two dead cells never
+     * change a cell that a route can use, so solutions never need them. Swapping a dead cell with a live one
+     * can help, because the piece of the dead cell can be used by the route.
+     *
+     * @param move Move.
+     * @return False if the move can never help. Otherwise, true.
+     */
+    public boolean isUseful(Move move) {
+        Coordinate first = move.getFirst();
+        if (!isDead(first.getRow(), first.getColumn())) {
+            return true;
+        }
+        Coordinate second = move.getSecond();
+        return move.getType() == Move.Type.SWAP && !isDead(second.getRow(), second.getColumn());
+    }
+
+    /**
+     * Checks if a route can go through a cell, with some piece of the board or rotation, entering and leaving
+     * it from the given directions.
+     */
+    private static boolean passes(Puzzle puzzle, int index, int in, int out) {
+        return in != out && puzzle.cost(index, (1 << in) | (1 << out)) != Puzzle.INFINITE;
+    }
+
+    /**
+     * Marks as alive the cells that some route of a pair can go through.
+     *
+     * @param puzzle Puzzle.
+     * @param pair Index of the pair.
+     * @return True if the pair can be connected. Otherwise, false.
+     */
+    private boolean markAlive(Puzzle puzzle, int pair) {
+        boolean[] forwards = forwards(puzzle, pair);
+        boolean[] backwards = backwards(puzzle, pair);
+        //The starting cell may be right below the finish cell
+        boolean connected = puzzle.neighbour(puzzle.getStart(pair), Puzzle.UP) == puzzle.getFinish(pair);
+
+        for (int state = 0; state < forwards.length; state++) {
+            if (forwards[state] && backwards[state]) {
+                dead[state >> 2] = false;
+                connected = true;
+            }
+        }
+
+        if (connected) {
+            dead[puzzle.getStart(pair)] = false;
+            dead[puzzle.getFinish(pair)] = false;
+        }
+        return connected;
+    }
+
+    /**
+     * Finds the states that can be reached from the starting cell of a pair.
+     *
+     * @param puzzle Puzzle.
+     * @param pair Index of the pair.
+     * @return Whether each state (index * 4 + direction of entry) can be reached.
+     */
+    private static boolean[] forwards(Puzzle puzzle, int pair) {
+        boolean[] reached = new boolean[puzzle.size() * 4];
+        int[] states = new int[puzzle.size() * 4];
+        int tail = 0;
+
+        //The starting cell only connects upwards
+        int above = puzzle.neighbour(puzzle.getStart(pair), Puzzle.UP);
+        if (above != -1) {
+            reached[above * 4 + Puzzle.opposite(Puzzle.UP)] = true;
+            states[tail++] = above * 4 + Puzzle.opposite(Puzzle.UP);
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int index = states[head] >> 2;
+            int in = states[head] & 3;
+
+            for (int out = 0; out < 4; out++) {
+                int next = puzzle.neighbour(index, out);
+                int state = next * 4 + Puzzle.opposite(out);
+
+                if (next != -1 && !reached[state] && passes(puzzle, index, in, out)) {
+                    reached[state] = true;
+                    states[tail++] = state;
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Finds the states from which the finish cell of a pair can be reached.
+     *
+     * @param puzzle Puzzle.
+     * @param pair Index of the pair.
+     * @return Whether the finish cell can be reached from each state (index * 4 + direction of entry).
+     */
+    private static boolean[] backwards(Puzzle puzzle, int pair) {
+        boolean[] reaching = new boolean[puzzle.size() * 4];
+        int[] states = new int[puzzle.size() * 4];
+        int tail = 0;
+
+        //The finish cell is entered from the cell below it
+        int below = puzzle.neighbour(puzzle.getFinish(pair), Puzzle.opposite(Puzzle.UP));
+        for (int in = 0; in < 4 && below != -1; in++) {
+            if (passes(puzzle, below, in, Puzzle.UP)) {
+                reaching[below * 4 + in] = true;
+                states[tail++] = below * 4 + in;
+            }
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int index = states[head] >> 2;
+            int entry = states[head] & 3;
+            int previous = puzzle.neighbour(index, entry);
+            int out = Puzzle.opposite(entry);
+
+            for (int in = 0; in < 4 && previous != -1; in++) {
+                int state = previous * 4 + in;
+                if (!reaching[state] && passes(puzzle, previous, in, out)) {
+                    reaching[state] = true;
+                    states[tail++] = state;
+                }
+            }
+        }
+        return reaching;
+    }
+
+    /**
+     * Checks if the board lacks the pieces that the cells next to the starting and finish cells need. Every
+     * route goes through the cell above its starting cell, which needs a downward connection, and through the
+     * cell below its finish cell, which needs an upward connection. For each set of connections, the movable
+     * cells of them that need all of those connections cannot be more than the pieces that have them.
+     *
+     * @param puzzle Puzzle.
+     * @return True if the pieces are not enough. Otherwise, false.
+     */
+    private static boolean lacksPieces(Puzzle puzzle) {
+        int down = 1 << Puzzle.opposite(Puzzle.UP);
+        int[] required = new int[puzzle.size()];
+
+        for (int pair = 0; pair < puzzle.getNumPairs(); pair++) {
+            int above = puzzle.neighbour(puzzle.getStart(pair), Puzzle.UP);
+            int below = puzzle.neighbour(puzzle.getFinish(pair), Puzzle.opposite(Puzzle.UP));
+            if (above != -1) {
+                required[above] |= down;
+            }
+            if (below != -1) {
+                required[below] |= 1 << Puzzle.UP;
+            }
+        }
+
+        //Movable cells by the connections that they need, and pieces by their connections
+        int[] needs = new int[16];
+        int[] pieces = new int[16];
+        for (int index = 0; index < puzzle.size(); index++) {
+            int type = puzzle.getType(index);
+            if (Puzzle.MOVABLE[type]) {
+                needs[required[index]]++;
+                pieces[Puzzle.MASKS[type]]++;
+            }
+        }
+
+        for (int mask = 1; mask < 16; mask++) {
+            int needed = 0;
+            int available = 0;
+            for (int other = mask; other < 16; other = (other + 1) | mask) {
+                needed += needs[other];
+                available += pieces[other];
+            }
+            if (needed > available) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the board lacks the pieces that a route needs to go up from the last row to the first one. The
+     * route crosses the border between each two rows, so each row between them has a cell that goes up and
+     * a cell that comes from below. In a row without a live rotatable cell, which can be turned vertical,
+     * those cells are movable and need pieces with the upward and downward connections.
+     *
+     * @param puzzle Puzzle.
+     * @return True if the pieces are not enough. Otherwise, false.
+     */
+    private boolean lacksCrossings(Puzzle puzzle) {
+        int up = 1 << Puzzle.UP;
+        int down = 1 << Puzzle.opposite(Puzzle.UP);
+        int needed = 0;
+        int ups = 0;
+        int downs = 0;
+
+        for (int row = 1; row < puzzle.getRows() - 1; row++) {
+            boolean rotatable = false;
+            for (int index = row * columns; index < (row + 1) * columns; index++) {
+                int type = puzzle.getType(index);
+                rotatable |= Puzzle.ROTATABLE[type] && !dead[index];
+            }
+            needed += rotatable ? 0 : 1;
+        }
+
+        for (int index = 0; index < puzzle.size(); index++) {
+            int type = puzzle.getType(index);
+            if (Puzzle.MOVABLE[type]) {
+                ups += (Puzzle.MASKS[type] & up) != 0 ? 1 : 0;
+                downs += (Puzzle.MASKS[type] & down) != 0 ? 1 : 0;
+            }
+        }
+        return needed > ups || needed > downs;
+    }
+}
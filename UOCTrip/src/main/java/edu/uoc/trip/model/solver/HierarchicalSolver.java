@@ -0,0 +1,457 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Solver for large boards based on a hierarchical abstraction of the board (HPA*-style).<br/><br/>
+ *
+ * The board is split in square clusters. The nodes of the abstract graph are the crossings between adjacent
+ * cells of different clusters, and its edges are the cheapest ways to go through a cluster from one crossing
+ * to another, where the cost of a cell is the number of moves that it needs to get the connections of the
+ * route (0 or 1, see Puzzle#cost). A route from each starting cell to its finish cell is planned on the
+ * abstract graph with A* and then refined with the paths inside the clusters that it goes through.
+ * Finally, the pieces of the routes are assigned by MovePlanner.<br/><br/>
+ *
+ * The clusters are only explored when the abstract search reaches them, so the time grows with the length
+ * of the routes instead of with the number of pieces. Solutions are valid but not necessarily optimal.
+ *
+ * @version 1.0
+ */
+public final class HierarchicalSolver implements Solver {
+
+    /**
+     * Default number of rows and columns of the clusters.
+     */
+    public static final int DEFAULT_CLUSTER_SIZE = 8;
+
+    /**
+     * Maximum number of times that the routes are planned again when there are not enough pieces for them.
+     */
+    private static final int MAXIMUM_REPLANS = 16;
+
+    /**
+     * Key of the goal of the abstract search (i.e. the finish cell).
+     */
+    private static final long GOAL = -1;
+
+    /**
+     * Number of rows and columns of the clusters.
+     */
+    private final int clusterSize;
+
+    /**
+     * Constructor with clusters of the default size.
+     */
+    public HierarchicalSolver() {
+        this(DEFAULT_CLUSTER_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param clusterSize Number of rows and columns of the clusters.
+     * @throws IllegalArgumentException When the size is less than 2.
+     */
+    public HierarchicalSolver(int clusterSize) {
+        if (clusterSize < 2) {
+            throw new IllegalArgumentException("Wrong cluster size: " + clusterSize);
+        }
+        this.clusterSize = clusterSize;
+    }
+
+    /**
+     * Getter of the attribute "clusterSize".
+     *
+     * @return Number of rows and columns of the clusters.
+     */
+    public int getClusterSize() {
+        return clusterSize;
+    }
+
+    @Override
+    public Optional<Solution> solve(Level level) {
+        return solve(level, Thread.currentThread()::isInterrupted);
+    }
+
+    /**
+     * Solves the level, unless the search is stopped before.
+     *
+     * @param level Level to solve. It is not modified.
+     * @param stopped Function that tells if the search must stop. It is checked at each step of the searches
+     *                of the routes.
+     * @return Solution, or an empty Optional if none has been found or the search has been stopped.
+     */
+    Optional<Solution> solve(Level level, BooleanSupplier stopped) {
+        if (level.isSolved()) {
+            return Optional.of(new Solution(List.of(), 0));
+        }
+
+        LevelTemplate template = new LevelTemplate(level);
+        Puzzle puzzle = new Puzzle(template);
+        //Extra cost of giving each mask to a cell, raised each time that there are not enough pieces for it
+        int[] prices = new int[16];
+
+        for (int attempt = 0; attempt < MAXIMUM_REPLANS; attempt++) {
+            Map<Integer, Integer> required = new HashMap<>();
+
+            for (int pair = 0; pair < puzzle.getNumPairs(); pair++) {
+                List<int[]> route = new RouteSearch(puzzle, pair, required, prices, stopped).search();
+
+                if (route == null) {
+                    return Optional.empty();
+                }
+                for (int[] cell : route) {
+                    required.merge(cell[0], cell[1], (a, b) -> a | b);
+                }
+            }
+
+            List<Move> moves = MovePlanner.plan(new Puzzle(puzzle), required, prices);
+
+            if (moves != null) {
+                return Solution.solves(template, moves) ? Optional.of(new Solution(moves, 0)) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the key of a crossing, i.e. the connection from a cell towards its neighbour in a direction.
+     *
+     * @param index Index of the cell.
+     * @param direction Index of the direction.
+     * @return Key of the crossing.
+     */
+    private static long crossing(int index, int direction) {
+        return (long) index * 4 + direction;
+    }
+
+    /**
+     * Abstract search of the route of one pair.
+     */
+    private final class RouteSearch {
+
+        private final Puzzle puzzle;
+
+        /**
+         * Connection mask that the cells of the routes of the previous pairs must have.
+         */
+        private final Map<Integer, Integer> required;
+
+        /**
+         * Extra cost of giving each mask to a movable cell.
+         */
+        private final int[] prices;
+
+        /**
+         * Index of the starting cell of the pair.
+         */
+        private final int start;
+
+        /**
+         * Index of the finish cell of the pair.
+         */
+        private final int finish;
+
+        /**
+         * Searches inside the clusters, indexed by the crossing through which they are entered.
+         */
+        private final Map<Long, ClusterSearch> clusterSearches = new HashMap<>();
+
+        /**
+         * Function that tells if the search must stop.
+         */
+        private final BooleanSupplier stopped;
+
+        RouteSearch(Puzzle puzzle, int pair, Map<Integer, Integer> required, int[] prices, BooleanSupplier stopped) {
+            this.puzzle = puzzle;
+            this.required = required;
+            this.prices = prices;
+            this.stopped = stopped;
+            start = puzzle.getStart(pair);
+            finish = puzzle.getFinish(pair);
+        }
+
+        /**
+         * Returns the number of moves that a cell needs to have the connections of the mask.
+         * The cells of the routes of the previous pairs can be shared when they can also have the connections
+         * of those routes. A movable cell that needs a new piece also costs the price of the mask.
+         *
+         * @param index Index of the cell.
+         * @param mask Connection mask.
+         * @return Cost of the cell, or INFINITE.
+         */
+        int cost(int index, int mask) {
+            Integer reserved = required.get(index);
+
+            if (reserved == null) {
+                int cost = puzzle.cost(index, mask);
+                return cost == 1 && Puzzle.MOVABLE[puzzle.getType(index)] ? cost + prices[mask] : cost;
+            }
+            return puzzle.cost(index, reserved | mask) == Puzzle.INFINITE ? Puzzle.INFINITE : 0;
+        }
+
+        ClusterSearch getClusterSearch(long crossing) {
+            return clusterSearches.computeIfAbsent(crossing, ClusterSearch::new);
+        }
+
+        /**
+         * Returns the estimated cost from a crossing to the finish cell: the number of cells between the cell
+         * that the crossing enters and the finish cell, as if every cell needed a move. It is not a lower bound
+         * (cells that already have the right piece cost 0), but it leads the search towards the finish cell,
+         * so only the clusters around the route are explored.
+         *
+         * @param crossing Key of the crossing.
+         * @return Estimated cost.
+         */
+        private int estimate(long crossing) {
+            if (crossing == GOAL) {
+                return 0;
+            }
+            int index = puzzle.neighbour((int) (crossing >>> 2), (int) (crossing & 3));
+            return index / puzzle.getColumns() + Math.abs(index % puzzle.getColumns() - finish);
+        }
+
+        /**
+         * Plans the route on the abstract graph (A* with {@link #estimate(long)}) and refines it.
+         *
+         * @return Cells of the route, from the starting cell to the finish cell (both excluded),
+         * as pairs {index, connection mask}, or null if there is no route or the search has been cancelled.
+         */
+        List<int[]> search() {
+            long first = crossing(start, Puzzle.UP);
+            Map<Long, Integer> distances = new HashMap<>();
+            Map<Long, Long> parents = new HashMap<>();
+            PriorityQueue<long[]> open = new PriorityQueue<>(Comparator.comparingLong(node -> node[0]));
+
+            //Each element is {distance + estimate, crossing}
+            distances.put(first, 0);
+            open.add(new long[]{estimate(first), first});
+
+            while (!open.isEmpty()) {
+                if (stopped.getAsBoolean()) {
+                    return null;
+                }
+
+                long[] node = open.poll();
+                long key = node[1];
+                int distance = distances.get(key);
+
+                if (key == GOAL) {
+                    return refine(parents);
+                }
+                if (node[0] > distance + estimate(key)) {
+                    continue;
+                }
+
+                ClusterSearch cluster = getClusterSearch(key);
+                List<Long> exits = new ArrayList<>(cluster.exits.keySet());
+                if (cluster.finishCost != Puzzle.INFINITE) {
+                    exits.add(GOAL);
+                }
+
+                for (long exit : exits) {
+                    int next = distance + (exit == GOAL ? cluster.finishCost : cluster.exits.get(exit));
+
+                    if (next < distances.getOrDefault(exit, Puzzle.INFINITE)) {
+                        distances.put(exit, next);
+                        parents.put(exit, key);
+                        open.add(new long[]{next + estimate(exit), exit});
+                    }
+                }
+            }
+
+            return null;
+        }
+
+        /**
+         * Joins the paths inside the clusters of the abstract route.
+         *
+         * @param parents Previous crossing of each crossing of the abstract route.
+         * @return Cells of the route.
+         */
+        private List<int[]> refine(Map<Long, Long> parents) {
+            List<List<int[]>> segments = new ArrayList<>();
+
+            for (long exit = GOAL; parents.containsKey(exit); exit = parents.get(exit)) {
+                segments.add(getClusterSearch(parents.get(exit)).path(exit));
+            }
+            Collections.reverse(segments);
+
+            List<int[]> route = new ArrayList<>();
+            segments.forEach(route::addAll);
+            return route;
+        }
+
+        /**
+         * Search inside one cluster from the crossing through which it is entered (Dijkstra over the states
+         * (cell, direction from which the cell is entered)).
+         */
+        private final class ClusterSearch {
+
+            private final int firstRow;
+            private final int firstColumn;
+            private final int lastRow;
+            private final int lastColumn;
+            private final int width;
+
+            /**
+             * Cost of each state from the entry, or INFINITE.
+             */
+            private final int[] distances;
+
+            /**
+             * Previous state of each state (-1 for the entry).
+             */
+            private final int[] parents;
+
+            /**
+             * Cost of each crossing towards another cluster.
+             */
+            private final Map<Long, Integer> exits = new HashMap<>();
+
+            /**
+             * State from which each crossing is left.
+             */
+            private final Map<Long, Integer> exitStates = new HashMap<>();
+
+            /**
+             * Cost of reaching the finish cell from the entry, or INFINITE.
+             */
+            private int finishCost = Puzzle.INFINITE;
+
+            /**
+             * State from which the finish cell is reached.
+             */
+            private int finishState = -1;
+
+            ClusterSearch(long entry) {
+                int from = (int) (entry >>> 2);
+                int direction = (int) (entry & 3);
+                int index = puzzle.neighbour(from, direction);
+                int row = index / puzzle.getColumns();
+                int column = index % puzzle.getColumns();
+
+                firstRow = row - row % clusterSize;
+                firstColumn = column - column % clusterSize;
+                lastRow = Math.min(puzzle.getRows(), firstRow + clusterSize);
+                lastColumn = Math.min(puzzle.getColumns(), firstColumn + clusterSize);
+                width = lastColumn - firstColumn;
+
+                distances = new int[width * (lastRow - firstRow) * 4];
+                parents = new int[distances.length];
+                Arrays.fill(distances, Puzzle.INFINITE);
+
+                run(state(index, Puzzle.opposite(direction)));
+            }
+
+            private int state(int index, int in) {
+                int row = index / puzzle.getColumns() - firstRow;
+                int column = index % puzzle.getColumns() - firstColumn;
+                return (row * width + column) * 4 + in;
+            }
+
+            private int cell(int state) {
+                int local = state >> 2;
+                return (firstRow + local / width) * puzzle.getColumns() + firstColumn + local % width;
+            }
+
+            private boolean isInside(int index) {
+                int row = index / puzzle.getColumns();
+                int column = index % puzzle.getColumns();
+                return row >= firstRow && row < lastRow && column >= firstColumn && column < lastColumn;
+            }
+
+            private void run(int entry) {
+                //Each element is (distance << 32 | state), so they are sorted by distance
+                PriorityQueue<Long> open = new PriorityQueue<>();
+
+                distances[entry] = 0;
+                parents[entry] = -1;
+                open.add((long) entry);
+
+                while (!open.isEmpty()) {
+                    long element = open.poll();
+                    int state = (int) element;
+                    int distance = (int) (element >>> 32);
+
+                    if (distance > distances[state]) {
+                        continue;
+                    }
+
+                    int index = cell(state);
+                    int in = state & 3;
+
+                    for (int out = 0; out < 4; out++) {
+                        int cost = out == in ? Puzzle.INFINITE : cost(index, (1 << in) | (1 << out));
+                        int next = cost == Puzzle.INFINITE ? -1 : puzzle.neighbour(index, out);
+
+                        if (next == -1) {
+                            continue;
+                        }
+
+                        if (next == finish && out == Puzzle.UP) {
+                            if (distance + cost < finishCost) {
+                                finishCost = distance + cost;
+                                finishState = state;
+                            }
+                        } else if (cost(next, 1 << Puzzle.opposite(out)) == Puzzle.INFINITE) {
+                            //The next cell cannot be entered from this side
+                            continue;
+                        } else if (!isInside(next)) {
+                            long crossing = crossing(index, out);
+                            if (distance + cost < exits.getOrDefault(crossing, Puzzle.INFINITE)) {
+                                exits.put(crossing, distance + cost);
+                                exitStates.put(crossing, state);
+                            }
+                        } else {
+                            int nextState = state(next, Puzzle.opposite(out));
+                            if (distance + cost < distances[nextState]) {
+                                distances[nextState] = distance + cost;
+                                parents[nextState] = state;
+                                open.add((long) (distance + cost) << 32 | nextState);
+                            }
+                        }
+                    }
+                }
+            }
+
+            /**
+             * Returns the cells of the path from the entry to the given exit.
+             *
+             * @param exit Crossing through which the cluster is left, or GOAL.
+             * @return Cells of the path, as pairs {index, connection mask}.
+             */
+            List<int[]> path(long exit) {
+                List<int[]> path = new ArrayList<>();
+                int state = exit == GOAL ? finishState : exitStates.get(exit);
+                int out = exit == GOAL ? Puzzle.UP : (int) (exit & 3);
+
+                while (state != -1) {
+                    int index = cell(state);
+                    path.add(new int[]{index, (1 << (state & 3)) | (1 << out)});
+
+                    int parent = parents[state];
+                    if (parent != -1) {
+                        out = puzzle.direction(cell(parent), index);
+                    }
+                    state = parent;
+                }
+
+                Collections.reverse(path);
+                return path;
+            }
+        }
+    }
+}
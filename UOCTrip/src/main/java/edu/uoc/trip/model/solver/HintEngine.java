@@ -0,0 +1,252 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Gives the player the next move towards a solution of the level, reusing the previous plans between
+ * requests.<br/><br/>
+ *
+ * Each plan is kept in a transposition table, indexed by the hash of every state that the plan goes through, so
+ * a player who follows the hints gets the next one without any search. When the player makes another move, the
+ * previous plan is repaired: if the move was a later move of the plan, it is taken out of it; if the move does
+ * not break the plan, the plan is kept; otherwise, the move is undone first, which is always possible. Only when
+ * the state is unknown (e.g. after several moves or a reload) the level is solved again.<br/>
+ * Repaired plans may be longer than new ones, but they are given with the latency of a table lookup or a
+ * replay instead of a whole search. Objects of this class are thread-safe.
+ *
+ * @version 1.0
+ */
+public final class HintEngine {
+
+    /**
+     * Maximum number of states in the transposition table. The least recently used ones are removed first.
+     */
+    private static final int MAXIMUM_STATES = 1 << 12;
+
+    /**
+     * Solver of the unknown states.
+     */
+    private final Solver solver;
+
+    /**
+     * Moves that solve each known state, indexed by the hash of the state.
+     */
+    private final Map<Long, List<Move>> plans = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<Move>> eldest) {
+            return size() > MAXIMUM_STATES;
+        }
+    };
+
+    /**
+     * State of the last request, or null if there has not been any.
+     */
+    private Puzzle last;
+
+    /**
+     * Moves that solve the state of the last request.
+     */
+    private List<Move> lastPlan;
+
+    /**
+     * Number of times that the solver has been run.
+     */
+    private int numSearches;
+
+    /**
+     * Constructor with an AnytimeSolver with the default budget.
+     */
+    public HintEngine() {
+        this(new AnytimeSolver());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param solver Solver of the states that cannot be found in the table or repaired.
+     */
+    public HintEngine(Solver solver) {
+        this.solver = solver;
+    }
+
+    /**
+     * Returns the next move towards a solution of the level. The level is not modified.
+     *
+     * @param level Level, in its current state.
+     * @return The first move of the plan, or an empty Optional if the level is solved or no solution is found.
+     */
+    public Optional<Move> hint(Level level) {
+        return plan(level).filter(moves -> !moves.isEmpty()).map(moves -> moves.get(0));
+    }
+
+    /**
+     * Returns the moves that solve the level from its current state. The level is not modified.
+     *
+     * @param level Level, in its current state.
+     * @return Unmodifiable list with the moves, in order (empty if the level is solved), or an empty Optional
+     * if no solution is found.
+     */
+    public synchronized Optional<List<Move>> plan(Level level) {
+        LevelTemplate template = new LevelTemplate(level);
+        Puzzle puzzle = new Puzzle(template);
+
+        if (last != null && (last.getRows() != puzzle.getRows() || last.getColumns() != puzzle.getColumns())) {
+            //Another level: its states cannot be in the table
+            clear();
+        }
+
+        List<Move> plan = plans.get(puzzle.getHash());
+        if (plan == null && last != null) {
+            plan = repair(template, puzzle);
+        }
+        if (plan == null) {
+            numSearches++;
+            Optional<Solution> solution = solver.solve(level);
+            if (solution.isEmpty()) {
+                return Optional.empty();
+            }
+            plan = solution.get().getMoves();
+        }
+
+        remember(puzzle, plan);
+        return Optional.of(plan);
+    }
+
+    /**
+     * Getter of the attribute "numSearches".
+     *
+     * @return Number of times that the solver has been run, i.e. requests that could not reuse a plan.
+     */
+    public synchronized int getNumSearches() {
+        return numSearches;
+    }
+
+    /**
+     * Forgets all the plans.
+     */
+    public synchronized void clear() {
+        plans.clear();
+        last = null;
+        lastPlan = null;
+    }
+
+    /**
+     * Adds to the table all the states that the plan goes through and makes the state the last one.
+     *
+     * @param puzzle State.
+     * @param plan Moves that solve the state.
+     */
+    private void remember(Puzzle puzzle, List<Move> plan) {
+        Puzzle state = new Puzzle(puzzle);
+
+        for (int i = 0; i <= plan.size(); i++) {
+            plans.put(state.getHash(), plan.subList(i, plan.size()));
+            if (i < plan.size()) {
+                apply(state, plan.get(i));
+            }
+        }
+        last = puzzle;
+        lastPlan = plan;
+    }
+
+    /**
+     * Repairs the plan of the last state after a move of the player.
+     *
+     * @param template Snapshot of the level.
+     * @param puzzle Current state.
+     * @return Moves that solve the current state, or null if it is not one move away from the last state.
+     */
+    private List<Move> repair(LevelTemplate template, Puzzle puzzle) {
+        Move move = difference(last, puzzle);
+        if (move == null) {
+            return null;
+        }
+
+        //A move of the plan made earlier than planned
+        for (int i = 0; i < lastPlan.size(); i++) {
+            if (same(lastPlan.get(i), move)) {
+                List<Move> plan = new ArrayList<>(lastPlan);
+                plan.remove(i);
+                if (Solution.solves(template, plan)) {
+                    return List.copyOf(plan);
+                }
+                break;
+            }
+        }
+
+        //A move that does not change the cells that the plan needs
+        if (Solution.solves(template, lastPlan)) {
+            return lastPlan;
+        }
+
+        //Both swaps and rotations are undone by making them again
+        List<Move> plan = new ArrayList<>(lastPlan.size() + 1);
+        plan.add(move);
+        plan.addAll(lastPlan);
+        return List.copyOf(plan);
+    }
+
+    /**
+     * Finds the move that turns a state into another one.
+     *
+     * @param before First state.
+     * @param after Second state.
+     * @return Move, or null if the states are not one move away from each other.
+     */
+    private static Move difference(Puzzle before, Puzzle after) {
+        int[] changed = new int[2];
+        int count = 0;
+
+        for (int index = 0; index < before.size(); index++) {
+            if (before.getType(index) != after.getType(index)) {
+                if (count == changed.length) {
+                    return null;
+                }
+                changed[count++] = index;
+            }
+        }
+
+        if (count == 1) {
+            int type = before.getType(changed[0]);
+            if (Puzzle.ROTATABLE[type] && Puzzle.TYPES[type].next().ordinal() == after.getType(changed[0])) {
+                return Move.rotate(before.getCoordinate(changed[0]));
+            }
+        } else if (count == 2) {
+            int first = changed[0];
+            int second = changed[1];
+            if (Puzzle.MOVABLE[before.getType(first)] && Puzzle.MOVABLE[before.getType(second)]
+                    && before.getType(first) == after.getType(second)
+                    && before.getType(second) == after.getType(first)) {
+                return Move.swap(before.getCoordinate(first), before.getCoordinate(second));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if two moves have the same effect (swaps are the same in both orders).
+     */
+    private static boolean same(Move first, Move second) {
+        return first.equals(second) || first.getType() == Move.Type.SWAP && second.getType() == Move.Type.SWAP
+                && first.getFirst().equals(second.getSecond()) && first.getSecond().equals(second.getFirst());
+    }
+
+    /**
+     * Makes a move in a puzzle.
+     */
+    private static void apply(Puzzle puzzle, Move move) {
+        int first = move.getFirst().getRow() * puzzle.getColumns() + move.getFirst().getColumn();
+        if (move.getType() == Move.Type.SWAP) {
+            puzzle.swap(first, move.getSecond().getRow() * puzzle.getColumns() + move.getSecond().getColumn());
+        } else {
+            puzzle.rotate(first);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Exact solver based on iterative deepening A* (IDA*).<br/><br/>
+ *
+ * Depth-first searches are repeated with a growing limit of moves, starting at the lower bound of the level.
+ * A branch is cut as soon as its moves plus the lower bound of its state exceed the limit, so the first solution
+ * has the minimum number of moves and is returned as proven optimal. The memory is proportional to the number of
+ * moves, but the time grows exponentially with it: this solver is meant for shallow levels, and it gives up
+ * (with an empty Optional) when the limit exceeds {@link #getMaximumDepth()} or the current thread is
+ * interrupted.<br/>
+ * Moves that can never help are not tried: those of cells that are dead for {@link DeadlockAnalysis}, swaps of
+ * equal pieces, and all but one of the swaps that take the same piece from different dead cells. Moves that
+ * change different cells are only tried in one order.
+ *
+ * @version 1.0
+ */
+public final class IterativeDeepeningSolver implements Solver {
+
+    /**
+     * Default maximum number of moves of the solutions.
+     */
+    public static final int DEFAULT_MAXIMUM_DEPTH = 16;
+
+    /**
+     * Maximum number of moves of the solutions.
+     */
+    private final int maximumDepth;
+
+    /**
+     * Constructor with the default maximum depth.
+     */
+    public IterativeDeepeningSolver() {
+        this(DEFAULT_MAXIMUM_DEPTH);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param maximumDepth Maximum number of moves of the solutions.
+     * @throws IllegalArgumentException When the depth is negative.
+     */
+    public IterativeDeepeningSolver(int maximumDepth) {
+        if (maximumDepth < 0) {
+            throw new IllegalArgumentException("Wrong depth: " + maximumDepth);
+        }
+        this.maximumDepth = maximumDepth;
+    }
+
+    /**
+     * Getter of the attribute "maximumDepth".
+     *
+     * @return Maximum number of moves of the solutions.
+     */
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+
+    @Override
+    public Optional<Solution> solve(Level level) {
+        if (level.isSolved()) {
+            return Optional.of(new Solution(List.of(), 0));
+        }
+
+        LevelTemplate template = new LevelTemplate(level);
+        Puzzle puzzle = new Puzzle(template);
+        DeadlockAnalysis analysis = new DeadlockAnalysis(puzzle);
+        int bound = LowerBound.compute(puzzle);
+
+        if (bound == Puzzle.INFINITE || analysis.isUnsolvable()) {
+            return Optional.empty();
+        }
+
+        Search search = new Search(template, puzzle, analysis);
+        for (int limit = Math.max(bound, 1); limit <= maximumDepth; limit++) {
+            if (search.search(limit)) {
+                return Optional.of(new Solution(search.getMoves(), search.path.size()));
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Depth-first search of one limit. It works on a single puzzle, whose moves are undone when backtracking.
+     */
+    private static final class Search {
+
+        private final LevelTemplate template;
+
+        private final Puzzle puzzle;
+
+        /**
+         * Movable cells that are alive.
+         */
+        private final int[] live;
+
+        /**
+         * Movable cells that are dead.
+         */
+        private final int[] dead;
+
+        /**
+         * Rotatable cells that are alive.
+         */
+        private final int[] rotatables;
+
+        /**
+         * Changes of the current branch: {ordinal of Move.Type, index of the first cell, index of the second
+         * cell}, with the first index lower than the second one in swaps.
+         */
+        private final List<int[]> path = new ArrayList<>();
+
+        Search(LevelTemplate template, Puzzle puzzle, DeadlockAnalysis analysis) {
+            this.template = template;
+            this.puzzle = puzzle;
+
+            List<Integer> live = new ArrayList<>();
+            List<Integer> dead = new ArrayList<>();
+            List<Integer> rotatable = new ArrayList<>();
+
+            for (int index = 0; index < puzzle.size(); index++) {
+                int type = puzzle.getType(index);
+                if (Puzzle.ROTATABLE[type] && !analysis.isDead(index)) {
+                    rotatable.add(index);
+                } else if (Puzzle.MOVABLE[type]) {
+                    (analysis.isDead(index) ? dead : live).add(index);
+                }
+            }
+
+            this.live = live.stream().mapToInt(Integer::intValue).toArray();
+            this.dead = dead.stream().mapToInt(Integer::intValue).toArray();
+            rotatables = rotatable.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * Returns the live movable cells followed by one dead movable cell of each type. The pieces of the
+         * dead cells never matter where they are, so taking a piece from one of them or another of the same
+         * type leads to equivalent states.
+         *
+         * @return Indices of the cells.
+         */
+        private int[] sources() {
+            int[] sources = Arrays.copyOf(live, live.length + Puzzle.TYPES.length);
+            boolean[] taken = new boolean[Puzzle.TYPES.length];
+            int count = live.length;
+
+            for (int index : dead) {
+                int type = puzzle.getType(index);
+                if (!taken[type]) {
+                    taken[type] = true;
+                    sources[count++] = index;
+                }
+            }
+            return Arrays.copyOf(sources, count);
+        }
+
+        /**
+         * Searches a solution with at most the given number of moves.
+         *
+         * @param limit Maximum number of moves.
+         * @return True if a solution has been found (its changes are in the path). Otherwise, false.
+         */
+        boolean search(int limit) {
+            path.clear();
+            return search(limit, null);
+        }
+
+        private boolean search(int limit, int[] previous) {
+            int bound = LowerBound.compute(puzzle);
+
+            if (bound == 0 && Solution.solves(template, getMoves())) {
+                return true;
+            }
+            if (bound == Puzzle.INFINITE || path.size() + Math.max(bound, 1) > limit
+                    || Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+
+            for (int index : rotatables) {
+                int[] change = {Move.Type.ROTATE.ordinal(), index, index};
+                if (isCanonical(previous, change)) {
+                    int type = puzzle.getType(index);
+                    puzzle.rotate(index);
+                    if (descend(limit, change)) {
+                        return true;
+                    }
+                    puzzle.set(index, type);
+                }
+            }
+
+            //Dead cells are only swapped with live ones, since their pieces never matter where they are
+            int[] sources = sources();
+            for (int i = 0; i < live.length; i++) {
+                for (int j = i + 1; j < sources.length; j++) {
+                    int first = Math.min(sources[i], sources[j]);
+                    int second = Math.max(sources[i], sources[j]);
+                    int[] change = {Move.Type.SWAP.ordinal(), first, second};
+
+                    if (puzzle.getType(first) != puzzle.getType(second) && isCanonical(previous, change)) {
+                        puzzle.swap(first, second);
+                        if (descend(limit, change)) {
+                            return true;
+                        }
+                        puzzle.swap(first, second);
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean descend(int limit, int[] change) {
+            path.add(change);
+            if (search(limit, change)) {
+                return true;
+            }
+            path.remove(path.size() - 1);
+            return false;
+        }
+
+        /**
+         * Checks if a change can follow the previous one. A change is never followed by itself, which would
+         * undo it, and two changes of different cells give the same state in both orders, so they are only
+         * tried in increasing order of their cells.
+         */
+        private static boolean isCanonical(int[] previous, int[] change) {
+            if (previous == null) {
+                return true;
+            }
+            if (Arrays.equals(previous, change)) {
+                return false;
+            }
+
+            boolean independent = previous[1] != change[1] && previous[1] != change[2]
+                    && previous[2] != change[1] && previous[2] != change[2];
+            return !independent || previous[1] < change[1] || previous[1] == change[1] && previous[2] < change[2];
+        }
+
+        List<Move> getMoves() {
+            List<Move> moves = new ArrayList<>(path.size());
+            for (int[] change : path) {
+                moves.add(change[0] == Move.Type.ROTATE.ordinal()
+                        ? Move.rotate(puzzle.getCoordinate(change[1]))
+                        : Move.swap(puzzle.getCoordinate(change[1]), puzzle.getCoordinate(change[2])));
+            }
+            return moves;
+        }
+    }
+}
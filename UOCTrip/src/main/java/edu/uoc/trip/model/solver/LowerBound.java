@@ -0,0 +1,115 @@
+package edu.uoc.trip.model.solver;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Proven lower bound of the number of moves that solve a puzzle.<br/><br/>
+ *
+ * In any solved board, the route of each pair goes through cells whose initial piece either already had the
+ * connections of the route or was changed by some move. A swap changes at most two movable cells and a rotation
+ * changes one rotatable cell, so, counting a movable cell as 1 and a rotatable cell as 2, any solution needs at
+ * least half of the cost of the cheapest route. The cheapest route of each pair is found with Dijkstra over the
+ * states (cell, direction from which the cell is entered), and the bound is the maximum over all the pairs.
+ *
+ * @version 1.0
+ */
+final class LowerBound {
+
+    private LowerBound() {
+    }
+
+    /**
+     * Computes the lower bound.
+     *
+     * @param puzzle Puzzle.
+     * @return Lower bound of the number of moves (0 if the board is too big), or INFINITE if some pair cannot
+     * be connected whatever the moves.
+     */
+    static int compute(Puzzle puzzle) {
+        if (puzzle.size() > Puzzle.MAXIMUM_STATES_SIZE) {
+            return 0;
+        }
+
+        int bound = 0;
+        for (int pair = 0; pair < puzzle.getNumPairs(); pair++) {
+            int cost = cheapestRoute(puzzle, pair);
+            if (cost == Puzzle.INFINITE) {
+                return Puzzle.INFINITE;
+            }
+            bound = Math.max(bound, (cost + 1) / 2);
+        }
+        return bound;
+    }
+
+    /**
+     * Returns the cost of a cell in half moves: 1 for a movable cell that needs another piece and 2 for a
+     * rotatable cell that needs to be rotated.
+     *
+     * @param puzzle Puzzle.
+     * @param index Index of the cell.
+     * @param mask Connections that the cell must have.
+     * @return Cost of the cell, or INFINITE.
+     */
+    private static int halfCost(Puzzle puzzle, int index, int mask) {
+        int cost = puzzle.cost(index, mask);
+        return cost == 1 && Puzzle.ROTATABLE[puzzle.getType(index)] ? 2 : cost;
+    }
+
+    /**
+     * Returns the cost of the cheapest route of a pair in half moves.
+     *
+     * @param puzzle Puzzle.
+     * @param pair Index of the pair.
+     * @return Cost of the route, or INFINITE if there is none.
+     */
+    private static int cheapestRoute(Puzzle puzzle, int pair) {
+        int finish = puzzle.getFinish(pair);
+        int[] distances = new int[puzzle.size() * 4];
+        //Each element is (distance << 32 | state), where state = index * 4 + direction of entry
+        PriorityQueue<Long> open = new PriorityQueue<>();
+        Arrays.fill(distances, Puzzle.INFINITE);
+
+        int best = Puzzle.INFINITE;
+        int first = puzzle.neighbour(puzzle.getStart(pair), Puzzle.UP) * 4 + Puzzle.opposite(Puzzle.UP);
+        distances[first] = 0;
+        open.add((long) first);
+
+        while (!open.isEmpty()) {
+            long element = open.poll();
+            int state = (int) element;
+            int distance = (int) (element >>> 32);
+            int index = state >> 2;
+            int in = state & 3;
+
+            //The queue is sorted, so no route can be cheaper than the best one found so far
+            if (distance >= best) {
+                break;
+            }
+            if (distance > distances[state]) {
+                continue;
+            }
+
+            for (int out = 0; out < 4; out++) {
+                int cost = out == in ? Puzzle.INFINITE : halfCost(puzzle, index, (1 << in) | (1 << out));
+                int next = cost == Puzzle.INFINITE ? -1 : puzzle.neighbour(index, out);
+
+                if (next == -1) {
+                    continue;
+                }
+                if (next == finish && out == Puzzle.UP) {
+                    best = Math.min(best, distance + cost);
+                    continue;
+                }
+
+                int nextState = next * 4 + Puzzle.opposite(out);
+                if (puzzle.cost(next, 1 << Puzzle.opposite(out)) != Puzzle.INFINITE
+                        && distance + cost < distances[nextState]) {
+                    distances[nextState] = distance + cost;
+                    open.add((long) (distance + cost) << 32 | nextState);
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,167 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.utils.Coordinate;
+
+import java.util.Objects;
+
+/**
+ * Move of the player: a swap of two movable cells or a rotation of a rotatable cell.
+ * Objects of this class are immutable.
+ *
+ * @version 1.0
+ */
+public final class Move {
+
+    /**
+     * Kind of move.
+     */
+    public enum Type {
+        SWAP,
+        ROTATE
+    }
+
+    /**
+     * Kind of move.
+     */
+    private final Type type;
+
+    /**
+     * First cell of a swap, or the cell of a rotation.
+     */
+    private final Coordinate first;
+
+    /**
+     * Second cell of a swap, or null for a rotation.
+     */
+    private final Coordinate second;
+
+    /**
+     * Constructor
+     *
+     * @param type Kind of move.
+     * @param first First cell of a swap, or the cell of a rotation.
+     * @param second Second cell of a swap, or null for a rotation.
+     */
+    private Move(Type type, Coordinate first, Coordinate second) {
+        this.type = type;
+        this.first = Objects.requireNonNull(first);
+        this.second = second;
+    }
+
+    /**
+     * Creates the swap of two cells.
+     *
+     * @param first First cell.
+     * @param second Second cell.
+     * @return Move that swaps both cells.
+     */
+    public static Move swap(Coordinate first, Coordinate second) {
+        return new Move(Type.SWAP, first, Objects.requireNonNull(second));
+    }
+
+    /**
+     * Creates the rotation of a cell.
+     *
+     * @param coordinate Cell to rotate.
+     * @return Move that rotates the cell.
+     */
+    public static Move rotate(Coordinate coordinate) {
+        return new Move(Type.ROTATE, coordinate, null);
+    }
+
+    /**
+     * Reads a move from its textual representation, i.e. the one returned by toString():
+     * "swap row column row column" or "rotate row column".
+     *
+     * @param text Textual representation of the move.
+     * @return Move.
+     * @throws IllegalArgumentException When the text is not a valid move.
+     */
+    public static Move parse(String text) {
+        String[] tokens = text.trim().split("\\s+");
+
+        try {
+            if (tokens.length == 5 && tokens[0].equals(Type.SWAP.name().toLowerCase())) {
+                return swap(new Coordinate(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2])),
+                        new Coordinate(Integer.parseInt(tokens[3]), Integer.parseInt(tokens[4])));
+            }
+            if (tokens.length == 3 && tokens[0].equals(Type.ROTATE.name().toLowerCase())) {
+                return rotate(new Coordinate(Integer.parseInt(tokens[1]), Integer.parseInt(tokens[2])));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Wrong move: " + text, e);
+        }
+        throw new IllegalArgumentException("Wrong move: " + text);
+    }
+
+    /**
+     * Getter of the attribute "type".
+     *
+     * @return Kind of move.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Getter of the attribute "first".
+     *
+     * @return First cell of a swap, or the cell of a rotation.
+     */
+    public Coordinate getFirst() {
+        return first;
+    }
+
+    /**
+     * Getter of the attribute "second".
+     *
+     * @return Second cell of a swap, or null for a rotation.
+     */
+    public Coordinate getSecond() {
+        return second;
+    }
+
+    /**
+     * Makes this move in the level, i.e. calls swapCells or rotateCell.
+     *
+     * @param level Level where the move is made.
+     * @throws LevelException When the move is not valid in the level.
+     */
+    public void apply(Level level) throws LevelException {
+        if (type == Type.SWAP) {
+            level.swapCells(first, second);
+        } else {
+            level.rotateCell(first);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Move other = (Move) obj;
+        return type == other.type && first.equals(other.first) && Objects.equals(second, other.second);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, first, second);
+    }
+
+    /**
+     * Returns the move as text, e.g. "swap 1 2 3 4" or "rotate 1 2" (row and column of each cell).
+     *
+     * @return Text of the move.
+     */
+    @Override
+    public String toString() {
+        String text = type.name().toLowerCase() + " " + first.getRow() + " " + first.getColumn();
+        return second == null ? text : text + " " + second.getRow() + " " + second.getColumn();
+    }
+}
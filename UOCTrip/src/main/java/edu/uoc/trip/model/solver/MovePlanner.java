@@ -0,0 +1,212 @@
+package edu.uoc.trip.model.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the connections that some cells must have (e.g. the cells of the planned routes) into moves.<br/><br/>
+ *
+ * Rotatable cells are rotated when needed. Then, pairs of movable cells that need each other's piece are
+ * swapped, which fixes two cells with one move. Finally, each remaining cell gets a piece from a cell that
+ * has no requirement: the most constrained cells (those that need more connections) go first and they take
+ * the suitable piece with the fewest extra connections, so crosses and junctions are kept for the cells that
+ * need them.
+ *
+ * @version 1.0
+ */
+final class MovePlanner {
+
+    /**
+     * Ordinals of CellType sorted by their number of connections, from the fewest to the most.
+     */
+    private static final Integer[] BY_CONNECTIONS = new Integer[Puzzle.TYPES.length];
+
+    static {
+        for (int type = 0; type < BY_CONNECTIONS.length; type++) {
+            BY_CONNECTIONS[type] = type;
+        }
+        Arrays.sort(BY_CONNECTIONS, Comparator.comparingInt(type -> Integer.bitCount(Puzzle.MASKS[type])));
+    }
+
+    private MovePlanner() {
+    }
+
+    /**
+     * Plans the moves that give every required cell its connections. The puzzle is updated with the moves.
+     *
+     * @param puzzle Puzzle, in its current state.
+     * @param required Connection mask that each cell must have, indexed by the index of the cell.
+     * @param shortages Number of times that no piece has been found for each mask (from 0 to 15).
+     *                  The mask of the cell that makes the planning fail is counted.
+     * @return Moves, in order, or null if the requirements cannot be satisfied with the pieces of the board.
+     */
+    static List<Move> plan(Puzzle puzzle, Map<Integer, Integer> required, int[] shortages) {
+        List<Move> moves = new ArrayList<>();
+        List<Integer> needs = new ArrayList<>();
+
+        for (Map.Entry<Integer, Integer> entry : required.entrySet()) {
+            int index = entry.getKey();
+            int mask = entry.getValue();
+            int type = puzzle.getType(index);
+
+            if (fits(type, mask)) {
+                if (!Puzzle.MOVABLE[type] && !Puzzle.ROTATABLE[type]) {
+                    return null;
+                }
+            } else if (Puzzle.ROTATABLE[type]) {
+                puzzle.rotate(index);
+                if (!fits(puzzle.getType(index), mask)) {
+                    return null;
+                }
+                moves.add(Move.rotate(puzzle.getCoordinate(index)));
+            } else if (Puzzle.MOVABLE[type]) {
+                needs.add(index);
+            } else {
+                return null;
+            }
+        }
+
+        swapPairs(puzzle, required, needs, moves);
+
+        //Pieces that can be taken: movable cells without requirements, indexed by their type
+        List<ArrayDeque<Integer>> sources = new ArrayList<>();
+        for (int type = 0; type < Puzzle.TYPES.length; type++) {
+            sources.add(new ArrayDeque<>());
+        }
+        for (int index = 0; index < puzzle.size(); index++) {
+            if (Puzzle.MOVABLE[puzzle.getType(index)] && !required.containsKey(index)) {
+                sources.get(puzzle.getType(index)).add(index);
+            }
+        }
+
+        needs.removeIf(index -> fits(puzzle.getType(index), required.get(index)));
+        needs.sort(Comparator.comparingInt((Integer index) -> Integer.bitCount(required.get(index))).reversed());
+
+        for (int i = 0; i < needs.size(); i++) {
+            int index = needs.get(i);
+            int mask = required.get(index);
+
+            if (fits(puzzle.getType(index), mask)) {
+                continue;
+            }
+
+            int type = puzzle.getType(index);
+            int source = takeSource(sources, mask);
+
+            if (source != -1) {
+                //The source gets the piece of the cell, so that piece can still be taken by another cell
+                sources.get(type).add(source);
+            } else {
+                //The piece can also be taken from a cell that is waiting for its own piece
+                source = takeNeed(puzzle, required, needs, i + 1, mask);
+                if (source == -1) {
+                    shortages[mask]++;
+                    return null;
+                }
+            }
+
+            puzzle.swap(index, source);
+            moves.add(Move.swap(puzzle.getCoordinate(index), puzzle.getCoordinate(source)));
+        }
+
+        return moves;
+    }
+
+    /**
+     * Swaps the pairs of cells that need each other's piece.
+     *
+     * @param puzzle Puzzle.
+     * @param required Connection mask that each cell must have.
+     * @param needs Movable cells whose piece does not have their connections.
+     * @param moves Moves, where the swaps are added.
+     */
+    private static void swapPairs(Puzzle puzzle, Map<Integer, Integer> required, List<Integer> needs,
+                                  List<Move> moves) {
+        List<List<Integer>> byType = new ArrayList<>();
+        for (int type = 0; type < Puzzle.TYPES.length; type++) {
+            byType.add(new ArrayList<>());
+        }
+        for (int index : needs) {
+            byType.get(puzzle.getType(index)).add(index);
+        }
+
+        for (int index : needs) {
+            int mask = required.get(index);
+            int type = puzzle.getType(index);
+
+            if (fits(type, mask)) {
+                continue;
+            }
+
+            search:
+            for (int other : BY_CONNECTIONS) {
+                if (!fits(other, mask)) {
+                    continue;
+                }
+                for (int candidate : byType.get(other)) {
+                    if (puzzle.getType(candidate) == other && !fits(other, required.get(candidate))
+                            && fits(type, required.get(candidate))) {
+                        puzzle.swap(index, candidate);
+                        moves.add(Move.swap(puzzle.getCoordinate(index), puzzle.getCoordinate(candidate)));
+                        break search;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the source with the suitable piece that has the fewest connections.
+     *
+     * @param sources Sources, indexed by their type.
+     * @param mask Connections that the piece must have.
+     * @return Index of the source, or -1 if there is no suitable piece.
+     */
+    private static int takeSource(List<ArrayDeque<Integer>> sources, int mask) {
+        for (int type : BY_CONNECTIONS) {
+            if (fits(type, mask) && !sources.get(type).isEmpty()) {
+                return sources.get(type).poll();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Looks for a suitable piece in the cells that still need a piece. Those cells get the piece of the cell
+     * that takes it, so they are processed afterwards with that piece.
+     *
+     * @param puzzle Puzzle.
+     * @param required Connection mask that each cell must have.
+     * @param needs Cells that need a piece.
+     * @param from Position of the first cell of needs that has not been processed yet.
+     * @param mask Connections that the piece must have.
+     * @return Index of the cell, or -1 if no pending cell has a suitable piece.
+     */
+    private static int takeNeed(Puzzle puzzle, Map<Integer, Integer> required, List<Integer> needs, int from,
+                                int mask) {
+        for (int i = from; i < needs.size(); i++) {
+            int index = needs.get(i);
+            int type = puzzle.getType(index);
+
+            if (fits(type, mask) && !fits(type, required.get(index))) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a CellType has all the connections of the mask.
+     *
+     * @param type Ordinal of the CellType.
+     * @param mask Connection mask.
+     * @return True if it has them. Otherwise, false.
+     */
+    private static boolean fits(int type, int mask) {
+        return (Puzzle.MASKS[type] & mask) == mask;
+    }
+}
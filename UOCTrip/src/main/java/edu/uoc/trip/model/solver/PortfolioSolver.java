@@ -0,0 +1,233 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solver that races several strategies on separate threads and keeps the best answer.<br/><br/>
+ *
+ * Each strategy solves its own copy of the level. The race ends as soon as a strategy returns a solution that
+ * is proven optimal, when all the strategies have finished, or at the deadline; then the strategies that are
+ * still running are cancelled by interrupting their threads. The solution with the fewest moves is returned
+ * (among equal ones, the first one, unless another one is proven optimal), with the greatest lower bound proven
+ * by any strategy. Its strategy is recorded as the winner, so the strategy that suits each kind of level is used
+ * without tuning per level.<br/>
+ * By default, the portfolio has an exact solver for shallow levels ({@link IterativeDeepeningSolver}), a fast
+ * one for large levels ({@link HierarchicalSolver}) and a beam search in between ({@link BeamSearchSolver}).
+ * Objects of this class are thread-safe.
+ *
+ * @version 1.0
+ */
+public final class PortfolioSolver implements Solver {
+
+    /**
+     * Time given to {@link #solve(Level)} by default.
+     */
+    public static final Duration DEFAULT_BUDGET = Duration.ofSeconds(2);
+
+    /**
+     * Threads that run the strategies.
+     */
+    private static final ExecutorService STRATEGIES = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "portfolio-strategy");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Strategies, by name, in the order in which they are started.
+     */
+    private final Map<String, Solver> strategies;
+
+    /**
+     * Time given to {@link #solve(Level)}.
+     */
+    private final Duration budget;
+
+    /**
+     * Number of races won by each strategy.
+     */
+    private final Map<String, Integer> wins = new LinkedHashMap<>();
+
+    /**
+     * Name of the strategy that won the last race, or null if none has been won.
+     */
+    private String lastWinner;
+
+    /**
+     * Constructor with the default strategies and budget.
+     */
+    public PortfolioSolver() {
+        this(defaultStrategies(), DEFAULT_BUDGET);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param strategies Strategies, by name, in the order in which they are started.
+     * @param budget Time given to {@link #solve(Level)}.
+     * @throws IllegalArgumentException When there are no strategies or the budget is not positive.
+     */
+    public PortfolioSolver(Map<String, ? extends Solver> strategies, Duration budget) {
+        if (strategies.isEmpty() || budget.isNegative() || budget.isZero()) {
+            throw new IllegalArgumentException("Wrong strategies or budget: " + strategies.keySet() + ", " + budget);
+        }
+        this.strategies = new LinkedHashMap<>(strategies);
+        this.budget = budget;
+    }
+
+    /**
+     * Returns the default strategies.
+     *
+     * @return Strategies, by name.
+     */
+    private static Map<String, Solver> defaultStrategies() {
+        Map<String, Solver> strategies = new LinkedHashMap<>();
+        strategies.put("iterative-deepening", new IterativeDeepeningSolver());
+        strategies.put("hierarchical", new HierarchicalSolver());
+        strategies.put("beam-search", new BeamSearchSolver());
+        return strategies;
+    }
+
+    /**
+     * Returns the names of the strategies.
+     *
+     * @return Unmodifiable list with the names, in the order in which the strategies are started.
+     */
+    public List<String> getStrategies() {
+        return List.copyOf(strategies.keySet());
+    }
+
+    /**
+     * Getter of the attribute "budget".
+     *
+     * @return Time given to {@link #solve(Level)}.
+     */
+    public Duration getBudget() {
+        return budget;
+    }
+
+    /**
+     * Looks for a solution during the budget of the solver.
+     *
+     * @param level Level to solve.
+     * @return The best solution found before the end of the budget, or an empty Optional if none was found.
+     */
+    @Override
+    public Optional<Solution> solve(Level level) {
+        return solve(level, Instant.now().plus(budget));
+    }
+
+    /**
+     * Races the strategies until one of them proves its solution optimal, all of them finish or the deadline is
+     * reached. The level is not modified. If the current thread is interrupted, the race ends and the interrupted
+     * status is kept.
+     *
+     * @param level Level to solve.
+     * @param deadline Time when the race ends.
+     * @return The best solution that has been found, or an empty Optional if none has been found.
+     */
+    public Optional<Solution> solve(Level level, Instant deadline) {
+        LevelTemplate template = new LevelTemplate(level);
+        CompletionService<Optional<Solution>> race = new ExecutorCompletionService<>(STRATEGIES);
+        Map<Future<Optional<Solution>>, String> names = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Solver> strategy : strategies.entrySet()) {
+            Solver solver = strategy.getValue();
+            names.put(race.submit(() -> solver.solve(template.newLevel())), strategy.getKey());
+        }
+
+        Solution best = null;
+        String winner = null;
+        //The lower bounds of all the strategies are proven, so the greatest one holds for every solution
+        int bound = 0;
+
+        try {
+            for (int finished = 0; finished < names.size(); finished++) {
+                long remaining = Duration.between(Instant.now(), deadline).toNanos();
+                Future<Optional<Solution>> future = race.poll(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                if (future == null) {
+                    break;
+                }
+
+                Optional<Solution> solution = result(future);
+                if (solution.isEmpty()) {
+                    continue;
+                }
+
+                bound = Math.max(bound, solution.get().getLowerBound());
+                //Among equal solutions, the one that is proven optimal by its own strategy wins
+                if (best == null || solution.get().getNumMoves() < best.getNumMoves()
+                        || solution.get().getNumMoves() == best.getNumMoves() && solution.get().isOptimal()) {
+                    best = solution.get();
+                    winner = names.get(future);
+                }
+                best = new Solution(best.getMoves(), Math.min(bound, best.getNumMoves()), best.getBeamWidth());
+                if (best.isOptimal()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            names.keySet().forEach(future -> future.cancel(true));
+        }
+
+        if (winner != null) {
+            record(winner);
+        }
+        return Optional.ofNullable(best);
+    }
+
+    /**
+     * Returns the result of a strategy that has finished. Strategies that fail do not stop the race.
+     *
+     * @param future Future of the strategy.
+     * @return Solution of the strategy, or an empty Optional if it has failed.
+     * @throws InterruptedException Never: the future has already finished.
+     */
+    private static Optional<Solution> result(Future<Optional<Solution>> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private synchronized void record(String winner) {
+        wins.merge(winner, 1, Integer::sum);
+        lastWinner = winner;
+    }
+
+    /**
+     * Returns the strategy that won the last race.
+     *
+     * @return Name of the strategy, or an empty Optional if no race has been won.
+     */
+    public synchronized Optional<String> getLastWinner() {
+        return Optional.ofNullable(lastWinner);
+    }
+
+    /**
+     * Returns the number of races won by each strategy.
+     *
+     * @return Unmodifiable map with the number of wins of each strategy that has won some race.
+     */
+    public synchronized Map<String, Integer> getWins() {
+        return Map.copyOf(wins);
+    }
+}
@@ -0,0 +1,329 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.cells.Cell;
+import edu.uoc.trip.model.cells.CellFactory;
+import edu.uoc.trip.model.cells.CellType;
+import edu.uoc.trip.model.levels.Direction;
+import edu.uoc.trip.model.levels.LevelTemplate;
+import edu.uoc.trip.model.utils.Coordinate;
+
+/**
+ * Compact, mutable copy of the state of a level that the solvers work on.<br/>
+ * Cells are identified by their index (row * columns + column) and store the ordinal of their CellType.
+ * Directions are identified by their index in Direction (UP, RIGHT, DOWN, LEFT), whose bit in the connection
+ * masks is 1 &lt;&lt; index.
+ *
+ * @version 1.0
+ */
+final class Puzzle {
+
+    /**
+     * Cost of a cell that cannot be part of a route.
+     */
+    static final int INFINITE = Integer.MAX_VALUE;
+
+    /**
+     * Maximum number of cells of the boards whose searches are done over the states (index * 4 + direction of
+     * entry) of their cells: the states of bigger boards do not fit in an int.
+     */
+    static final int MAXIMUM_STATES_SIZE = 1 << 28;
+
+    /**
+     * Index of the direction UP.
+     */
+    static final int UP = Direction.UP.ordinal();
+
+    /**
+     * CellType of each ordinal.
+     */
+    static final CellType[] TYPES = CellType.values();
+
+    /**
+     * Connection mask of each ordinal of CellType.
+     */
+    static final int[] MASKS = new int[TYPES.length];
+
+    /**
+     * Whether the cells of each ordinal of CellType can be swapped.
+     */
+    static final boolean[] MOVABLE = new boolean[TYPES.length];
+
+    /**
+     * Whether the cells of each ordinal of CellType can be rotated.
+     */
+    static final boolean[] ROTATABLE = new boolean[TYPES.length];
+
+    static {
+        for (CellType type : TYPES) {
+            Cell cell = CellFactory.getCellInstance(0, 0, type);
+            MASKS[type.ordinal()] = type.getConnectionMask();
+            MOVABLE[type.ordinal()] = cell.isMovable();
+            ROTATABLE[type.ordinal()] = cell.isRotatable();
+        }
+    }
+
+    /**
+     * Number of rows of the board.
+     */
+    private final int rows;
+
+    /**
+     * Number of columns of the board.
+     */
+    private final int columns;
+
+    /**
+     * Ordinal of the CellType of each cell.
+     */
+    private final int[] types;
+
+    /**
+     * Index of the starting cell of each pair.
+     */
+    private final int[] starts;
+
+    /**
+     * Index of the finish cell of each pair.
+     */
+    private final int[] finishes;
+
+    /**
+     * Number of movable cells of each CellType. Swaps do not change it.
+     */
+    private final int[] pieces;
+
+    /**
+     * Whether some movable cell has all the connections of each mask (from 0 to 15).
+     */
+    private final boolean[] available = new boolean[16];
+
+    /**
+     * Hash of the types of all the cells: the XOR of the key of each cell with its type.
+     * It is updated by each change, so equal states are found without comparing whole boards.
+     */
+    private long hash;
+
+    /**
+     * Constructor. It copies the state of the template.
+     *
+     * @param template Snapshot of the level.
+     */
+    Puzzle(LevelTemplate template) {
+        rows = template.getRows();
+        columns = template.getColumns();
+        types = new int[rows * columns];
+        pieces = new int[TYPES.length];
+
+        for (int row = 0, index = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++, index++) {
+                types[index] = template.getCellType(row, column).ordinal();
+                hash ^= key(index, types[index]);
+                if (MOVABLE[types[index]]) {
+                    pieces[types[index]]++;
+                }
+            }
+        }
+
+        for (int mask = 0; mask < available.length; mask++) {
+            for (int type = 0; type < TYPES.length; type++) {
+                available[mask] |= pieces[type] > 0 && (MASKS[type] & mask) == mask;
+            }
+        }
+
+        starts = new int[template.getNumPairs()];
+        finishes = new int[template.getNumPairs()];
+        for (int pair = 0; pair < starts.length; pair++) {
+            starts[pair] = (rows - 1) * columns + template.getStartColumn(pair);
+            finishes[pair] = template.getFinishColumn(pair);
+        }
+    }
+
+    /**
+     * Constructor of a copy.
+     *
+     * @param other Puzzle that is copied.
+     */
+    Puzzle(Puzzle other) {
+        rows = other.rows;
+        columns = other.columns;
+        types = other.types.clone();
+        hash = other.hash;
+        starts = other.starts;
+        finishes = other.finishes;
+        pieces = other.pieces;
+        System.arraycopy(other.available, 0, available, 0, available.length);
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getColumns() {
+        return columns;
+    }
+
+    int size() {
+        return types.length;
+    }
+
+    int getNumPairs() {
+        return starts.length;
+    }
+
+    int getStart(int pair) {
+        return starts[pair];
+    }
+
+    int getFinish(int pair) {
+        return finishes[pair];
+    }
+
+    int getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Returns the coordinate of a cell.
+     *
+     * @param index Index of the cell.
+     * @return Coordinate of the cell.
+     */
+    Coordinate getCoordinate(int index) {
+        return new Coordinate(index / columns, index % columns);
+    }
+
+    /**
+     * Returns the index of the adjacent cell in the given direction.
+     *
+     * @param index Index of the cell.
+     * @param direction Index of the direction.
+     * @return Index of the adjacent cell, or -1 if it is outside the board.
+     */
+    int neighbour(int index, int direction) {
+        Direction value = Direction.getValueByIndex(direction);
+        int row = index / columns + value.getDRow();
+        int column = index % columns + value.getDColumn();
+
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return -1;
+        }
+        return row * columns + column;
+    }
+
+    /**
+     * Returns the direction from a cell to an adjacent one.
+     *
+     * @param from Index of the cell.
+     * @param to Index of the adjacent cell.
+     * @return Index of the direction.
+     */
+    int direction(int from, int to) {
+        for (int direction = 0; direction < 4; direction++) {
+            if (neighbour(from, direction) == to) {
+                return direction;
+            }
+        }
+        throw new IllegalArgumentException("The cells are not adjacent");
+    }
+
+    /**
+     * Returns the index of the opposite direction.
+     *
+     * @param direction Index of a direction.
+     * @return Index of the opposite direction.
+     */
+    static int opposite(int direction) {
+        return (direction + 2) & 3;
+    }
+
+    /**
+     * Checks if some movable cell of the board has all the connections of the mask.
+     *
+     * @param mask Connection mask.
+     * @return True if there is such a cell. Otherwise, false.
+     */
+    boolean isAvailable(int mask) {
+        return available[mask];
+    }
+
+    /**
+     * Returns the number of moves that a cell needs to have all the connections of the mask, ignoring how
+     * many pieces of each type are used by other cells: 0 if it already has them, 1 if a swap or a rotation
+     * can give them to the cell, and INFINITE otherwise.
+     *
+     * @param index Index of the cell.
+     * @param mask Connection mask.
+     * @return Number of moves (0 or 1), or INFINITE.
+     */
+    int cost(int index, int mask) {
+        int type = types[index];
+
+        if ((MASKS[type] & mask) == mask) {
+            return MOVABLE[type] || ROTATABLE[type] ? 0 : INFINITE;
+        }
+        if (MOVABLE[type]) {
+            return isAvailable(mask) ? 1 : INFINITE;
+        }
+        if (ROTATABLE[type]) {
+            return (MASKS[TYPES[type].next().ordinal()] & mask) == mask ? 1 : INFINITE;
+        }
+        return INFINITE;
+    }
+
+    /**
+     * Swaps two cells.
+     *
+     * @param first Index of the first cell.
+     * @param second Index of the second cell.
+     */
+    void swap(int first, int second) {
+        int type = types[first];
+        set(first, types[second]);
+        set(second, type);
+    }
+
+    /**
+     * Rotates a cell.
+     *
+     * @param index Index of the cell.
+     */
+    void rotate(int index) {
+        set(index, TYPES[types[index]].next().ordinal());
+    }
+
+    /**
+     * Sets the type of a cell, e.g. to undo a move.
+     *
+     * @param index Index of the cell.
+     * @param type Ordinal of the CellType.
+     */
+    void set(int index, int type) {
+        hash ^= key(index, types[index]) ^ key(index, type);
+        types[index] = type;
+    }
+
+    /**
+     * Getter of the attribute "hash".
+     *
+     * @return Hash of the types of all the cells.
+     */
+    long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns the random key of a cell with a type (Zobrist hashing). The keys are computed instead of stored,
+     * so huge boards do not need a table.
+     *
+     * @param index Index of the cell.
+     * @param type Ordinal of the CellType.
+     * @return Key of the cell with the type.
+     */
+    private static long key(int index, int type) {
+        //SplitMix64 finalizer
+        long z = ((long) index * TYPES.length + type + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,154 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.util.List;
+
+/**
+ * Sequence of moves that solves a level, found by a Solver. Objects of this class are immutable.
+ *
+ * @version 1.0
+ */
+public final class Solution {
+
+    /**
+     * Moves, in the order in which they must be made.
+     */
+    private final List<Move> moves;
+
+    /**
+     * Proven lower bound of the number of moves of any solution of the level (0 if nothing is known).
+     */
+    private final int lowerBound;
+
+    /**
+     * Width of the beam search that found the solution (0 if it was not found by a beam search).
+     */
+    private final int beamWidth;
+
+    /**
+     * Constructor of a solution that was not found by a beam search.
+     *
+     * @param moves Moves, in the order in which they must be made.
+     * @param lowerBound Proven lower bound of the number of moves of any solution (0 if nothing is known).
+     * @throws IllegalArgumentException When the bound is negative or greater than the number of moves.
+     */
+    public Solution(List<Move> moves, int lowerBound) {
+        this(moves, lowerBound, 0);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param moves Moves, in the order in which they must be made.
+     * @param lowerBound Proven lower bound of the number of moves of any solution (0 if nothing is known).
+     * @param beamWidth Width of the beam search that found the solution (0 if it was not found by a beam search).
+     * @throws IllegalArgumentException When the bound is negative or greater than the number of moves,
+     *                                  or the width is negative.
+     */
+    public Solution(List<Move> moves, int lowerBound, int beamWidth) {
+        if (lowerBound < 0 || lowerBound > moves.size()) {
+            throw new IllegalArgumentException("Wrong lower bound: " + lowerBound);
+        }
+        if (beamWidth < 0) {
+            throw new IllegalArgumentException("Wrong beam width: " + beamWidth);
+        }
+        this.moves = List.copyOf(moves);
+        this.lowerBound = lowerBound;
+        this.beamWidth = beamWidth;
+    }
+
+    /**
+     * Getter of the attribute "moves".
+     *
+     * @return Unmodifiable list with the moves, in order.
+     */
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of moves of the solution.
+     *
+     * @return Number of moves.
+     */
+    public int getNumMoves() {
+        return moves.size();
+    }
+
+    /**
+     * Getter of the attribute "lowerBound".
+     *
+     * @return Proven lower bound of the number of moves of any solution (0 if nothing is known).
+     */
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Getter of the attribute "beamWidth".
+     *
+     * @return Width of the beam search that found the solution (0 if it was not found by a beam search).
+     */
+    public int getBeamWidth() {
+        return beamWidth;
+    }
+
+    /**
+     * Returns how many moves the solution may have over the minimum.
+     *
+     * @return Number of moves minus the lower bound (0 for optimal solutions).
+     */
+    public int getGap() {
+        return moves.size() - lowerBound;
+    }
+
+    /**
+     * Checks if the solution is proven to have the minimum number of moves.
+     *
+     * @return True if the number of moves is equal to the lower bound. Otherwise, false.
+     */
+    public boolean isOptimal() {
+        return moves.size() == lowerBound;
+    }
+
+    /**
+     * Makes all the moves in the level.
+     *
+     * @param level Level where the moves are made. It must be in the state in which the solution was found.
+     * @throws LevelException When a move is not valid in the level.
+     */
+    public void apply(Level level) throws LevelException {
+        for (Move move : moves) {
+            move.apply(level);
+        }
+    }
+
+    /**
+     * Checks if the moves solve a new level created from the template.
+     *
+     * @param template Snapshot of the level.
+     * @param moves Moves, in order.
+     * @return True if all the moves are valid and the level ends solved. Otherwise, false.
+     */
+    static boolean solves(LevelTemplate template, List<Move> moves) {
+        Level level = template.newLevel();
+
+        try {
+            for (Move move : moves) {
+                move.apply(level);
+            }
+        } catch (LevelException e) {
+            return false;
+        }
+        return level.isSolved();
+    }
+
+    @Override
+    public String toString() {
+        return moves.size() + " moves (lower bound " + lowerBound
+                + (beamWidth > 0 ? ", beam width " + beamWidth : "") + "): " + moves;
+    }
+}
@@ -0,0 +1,122 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.levels.LevelSource;
+import edu.uoc.trip.model.levels.LevelTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Checks the submissions of players and bots by replaying their moves in a new copy of the level.<br/><br/>
+ *
+ * Each level is read from the source only once: its template is kept and shared by all the threads, so
+ * verifying a submission only copies the board and makes the moves. Submissions are independent, so streams
+ * of them are verified in parallel. Objects of this class are thread-safe.
+ *
+ * @version 1.0
+ */
+public final class SolutionVerifier {
+
+    /**
+     * Source of the levels.
+     */
+    private final LevelSource source;
+
+    /**
+     * Template of each level that has been read, by number.
+     */
+    private final Map<Integer, LevelTemplate> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param source Source of the levels. Its levels must not change while the verifier is used.
+     */
+    public SolutionVerifier(LevelSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Verifies a submission.
+     *
+     * @param submission Submission to verify.
+     * @return Verdict of the submission.
+     */
+    public Verdict verify(Submission submission) {
+        LevelTemplate template;
+        try {
+            template = getTemplate(submission.getLevel());
+        } catch (LevelException e) {
+            return new Verdict(submission, Verdict.Reason.UNKNOWN_LEVEL,
+                    "Level " + submission.getLevel() + ": " + e.getMessage());
+        }
+
+        if (template == null) {
+            return new Verdict(submission, Verdict.Reason.UNKNOWN_LEVEL, "There is no level " + submission.getLevel());
+        }
+
+        List<Move> moves = submission.getMoves();
+        if (moves.size() != submission.getClaimedMoves()) {
+            return new Verdict(submission, Verdict.Reason.WRONG_MOVE_COUNT,
+                    moves.size() + " moves instead of " + submission.getClaimedMoves());
+        }
+
+        Level level = template.newLevel();
+        for (int i = 0; i < moves.size(); i++) {
+            try {
+                moves.get(i).apply(level);
+            } catch (LevelException e) {
+                return new Verdict(submission, Verdict.Reason.INVALID_MOVE,
+                        "Move " + (i + 1) + " (" + moves.get(i) + "): " + e.getMessage());
+            }
+        }
+
+        if (!level.isSolved()) {
+            return new Verdict(submission, Verdict.Reason.NOT_SOLVED, "The level is not solved after the moves");
+        }
+        return new Verdict(submission, Verdict.Reason.ACCEPTED, "");
+    }
+
+    /**
+     * Verifies a stream of submissions in parallel. The verdicts are computed lazily, when the returned stream
+     * is consumed, and they keep the order of the submissions if it is ordered (e.g. with forEachOrdered).
+     *
+     * @param submissions Submissions to verify.
+     * @return Stream with the verdict of each submission.
+     */
+    public Stream<Verdict> verify(Stream<Submission> submissions) {
+        return submissions.parallel().map(this::verify);
+    }
+
+    /**
+     * Returns the template of a level, reading the level the first time. The number of levels of the source
+     * is only checked then (e.g. a DirectoryLevelSource lists its folder to count them), so the submissions
+     * of the levels that have been read do not use the source at all.
+     *
+     * @param number Number of the level.
+     * @return Template of the level, or null if the source has no level with that number.
+     * @throws LevelException When the level cannot be read or it is not valid.
+     */
+    private LevelTemplate getTemplate(int number) throws LevelException {
+        LevelTemplate template = templates.get(number);
+
+        if (template == null) {
+            //Sources are not thread-safe. Other levels are still verified while a new one is read.
+            synchronized (source) {
+                template = templates.get(number);
+                if (template == null) {
+                    if (number < 1 || number > source.size()) {
+                        return null;
+                    }
+                    template = new LevelTemplate(source.getLevel(number));
+                    templates.put(number, template);
+                }
+            }
+        }
+        return template;
+    }
+}
@@ -0,0 +1,24 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+
+import java.util.Optional;
+
+/**
+ * Strategy that finds a sequence of moves that solves a level.
+ *
+ * @version 1.0
+ */
+public interface Solver {
+
+    /**
+     * Looks for a solution of the level from its current state. The level is not modified.<br/>
+     * Solvers check the interrupted status of the current thread, so a search can be cancelled
+     * by interrupting the thread that runs it.
+     *
+     * @param level Level to solve.
+     * @return The solution that has been found, or an empty Optional if none has been found
+     * (the level has no solution, the solver gave up or the search was cancelled).
+     */
+    Optional<Solution> solve(Level level);
+}
@@ -0,0 +1,127 @@
+package edu.uoc.trip.model.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sequence of moves that a player or a bot claims to solve a level. Objects of this class are immutable.
+ *
+ * @version 1.0
+ */
+public final class Submission {
+
+    /**
+     * Separator of the fields of the textual representation.
+     */
+    public static final String SEPARATOR = ";";
+
+    /**
+     * Identifier of the submission, given by the caller (e.g. to match it with its verdict).
+     */
+    private final String id;
+
+    /**
+     * Number of the level (from 1).
+     */
+    private final int level;
+
+    /**
+     * Moves, in the order in which they were made.
+     */
+    private final List<Move> moves;
+
+    /**
+     * Number of moves that the submitter claims to have made.
+     */
+    private final int claimedMoves;
+
+    /**
+     * Constructor
+     *
+     * @param id Identifier of the submission.
+     * @param level Number of the level (from 1).
+     * @param moves Moves, in the order in which they were made.
+     * @param claimedMoves Number of moves that the submitter claims to have made.
+     */
+    public Submission(String id, int level, List<Move> moves, int claimedMoves) {
+        this.id = Objects.requireNonNull(id);
+        this.level = level;
+        this.moves = List.copyOf(moves);
+        this.claimedMoves = claimedMoves;
+    }
+
+    /**
+     * Reads a submission from its textual representation, i.e. the one returned by toString(): the identifier,
+     * the number of the level, the claimed number of moves and the moves (as in Move.toString()), separated by
+     * SEPARATOR. E.g. "42;3;2;swap 1 2 1 3;rotate 2 2".
+     *
+     * @param text Textual representation of the submission.
+     * @return Submission.
+     * @throws IllegalArgumentException When the text is not a valid submission.
+     */
+    public static Submission parse(String text) {
+        String[] fields = text.split(SEPARATOR, -1);
+
+        if (fields.length < 3) {
+            throw new IllegalArgumentException("Wrong submission: " + text);
+        }
+
+        try {
+            List<Move> moves = new ArrayList<>(fields.length - 3);
+            for (int i = 3; i < fields.length; i++) {
+                moves.add(Move.parse(fields[i]));
+            }
+            return new Submission(fields[0], Integer.parseInt(fields[1].trim()), moves,
+                    Integer.parseInt(fields[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Wrong submission: " + text, e);
+        }
+    }
+
+    /**
+     * Getter of the attribute "id".
+     *
+     * @return Identifier of the submission.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Getter of the attribute "level".
+     *
+     * @return Number of the level (from 1).
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Getter of the attribute "moves".
+     *
+     * @return Unmodifiable list with the moves, in order.
+     */
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    /**
+     * Getter of the attribute "claimedMoves".
+     *
+     * @return Number of moves that the submitter claims to have made.
+     */
+    public int getClaimedMoves() {
+        return claimedMoves;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(id).append(SEPARATOR).append(level).append(SEPARATOR)
+                .append(claimedMoves);
+        for (Move move : moves) {
+            text.append(SEPARATOR).append(move);
+        }
+        return text.toString();
+    }
+}
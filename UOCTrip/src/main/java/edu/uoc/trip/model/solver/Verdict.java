@@ -0,0 +1,106 @@
+package edu.uoc.trip.model.solver;
+
+import java.util.Objects;
+
+/**
+ * Result of the verification of a submission. Objects of this class are immutable.
+ *
+ * @version 1.0
+ */
+public final class Verdict {
+
+    /**
+     * Reason of a verdict.
+     */
+    public enum Reason {
+        /**
+         * The moves solve the level and their number is the claimed one.
+         */
+        ACCEPTED,
+        /**
+         * The level does not exist or it cannot be read.
+         */
+        UNKNOWN_LEVEL,
+        /**
+         * Some move cannot be made (e.g. it swaps a static cell).
+         */
+        INVALID_MOVE,
+        /**
+         * All the moves can be made, but the level is not solved at the end.
+         */
+        NOT_SOLVED,
+        /**
+         * The number of moves is not the claimed one. It is checked before making any move.
+         */
+        WRONG_MOVE_COUNT
+    }
+
+    /**
+     * Submission that has been verified.
+     */
+    private final Submission submission;
+
+    /**
+     * Reason of the verdict.
+     */
+    private final Reason reason;
+
+    /**
+     * Details of the reason (empty for accepted submissions).
+     */
+    private final String message;
+
+    /**
+     * Constructor
+     *
+     * @param submission Submission that has been verified.
+     * @param reason Reason of the verdict.
+     * @param message Details of the reason (empty for accepted submissions).
+     */
+    public Verdict(Submission submission, Reason reason, String message) {
+        this.submission = Objects.requireNonNull(submission);
+        this.reason = Objects.requireNonNull(reason);
+        this.message = Objects.requireNonNull(message);
+    }
+
+    /**
+     * Getter of the attribute "submission".
+     *
+     * @return Submission that has been verified.
+     */
+    public Submission getSubmission() {
+        return submission;
+    }
+
+    /**
+     * Getter of the attribute "reason".
+     *
+     * @return Reason of the verdict.
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Getter of the attribute "message".
+     *
+     * @return Details of the reason (empty for accepted submissions).
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Checks if the submission has been accepted.
+     *
+     * @return True if the moves solve the level and their number is the claimed one. Otherwise, false.
+     */
+    public boolean isAccepted() {
+        return reason == Reason.ACCEPTED;
+    }
+
+    @Override
+    public String toString() {
+        return submission.getId() + " " + reason + (message.isEmpty() ? "" : ": " + message);
+    }
+}
@@ -1,12 +1,17 @@
 package edu.uoc.trip.view.cmd;
 
+import edu.uoc.trip.controller.Autoplay;
 import edu.uoc.trip.controller.Game;
 
 import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.solver.Move;
+import edu.uoc.trip.model.solver.Solution;
 import edu.uoc.trip.model.utils.Coordinate;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.Scanner;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Class that controls the interaction in the textual/command view.
@@ -16,11 +21,21 @@ import java.util.Scanner;
  */
 
  public class CmdApp {
+    /**
+     * Command that starts the "solve for me" mode. It can be followed by the delay between moves in milliseconds.
+     */
+    private static final String SOLVE_COMMAND = "solve";
+
     /**
      * Game object that allows to manage the game.
      */
     Game game;
 
+    /**
+     * "Solve for me" mode, which plays a solution of the current level step by step.
+     */
+    private final Autoplay autoplay;
+
     /**
      * Initializes a new game with the folder which contains
      * the levels' configuration files and with the game mode "turns".
@@ -29,6 +44,7 @@ import java.util.Scanner;
      */
     public CmdApp() throws IOException {
         this.game = new Game("levels/");
+        this.autoplay = new Autoplay(game);
     }
 
     /**
@@ -47,9 +63,17 @@ import java.util.Scanner;
             while (!game.isLevelSolved()) {
                 System.out.println("Moves done: "+game.getNumMoves());
                 System.out.println(game.getBoardText());
-                System.out.println("Enter starting cell (row,col), e.g. a3: ");
+                System.out.println("Enter starting cell (row,col), e.g. a3, or \"" + SOLVE_COMMAND
+                        + " [delay in ms]\" to watch a solution: ");
                 try{
-                    coordinateStarting = coordinateFromInput(sc.nextLine());
+                    String input = sc.nextLine().trim();
+
+                    if (input.toLowerCase().startsWith(SOLVE_COMMAND)) {
+                        solve(input.substring(SOLVE_COMMAND.length()).trim());
+                        continue;
+                    }
+
+                    coordinateStarting = coordinateFromInput(input);
 
                     //If it is a rotatable cell, then we don't ask for a second coordinate/cell
                     if(game.getCell(coordinateStarting) != null){
@@ -75,28 +99,85 @@ import java.util.Scanner;
         sc.close();
     }
 
+    /**
+     * Plays a solution of the current level, printing the board after each move. The solution is found and
+     * played by the Autoplay in background, while this thread waits for the end of the playback.
+     *
+     * @param delay Delay between moves in milliseconds, or an empty String for the default one.
+     * @throws LevelException When the delay is not a valid number or there is no current level.
+     */
+    private void solve(String delay) throws LevelException {
+        try {
+            autoplay.setDelay(delay.isEmpty() ? Autoplay.DEFAULT_DELAY : Duration.ofMillis(Long.parseLong(delay)));
+        } catch (IllegalArgumentException e) {
+            throw new LevelException("[ERROR] The delay must be a number of milliseconds!!");
+        }
+
+        CountDownLatch finished = new CountDownLatch(1);
+        System.out.println("Looking for a solution...");
+
+        //The moves are made in the timer thread of the Autoplay while this thread only waits
+        autoplay.start(Runnable::run, new Autoplay.Listener() {
+            @Override
+            public void onSolution(Solution solution) {
+                System.out.println("Solution with " + solution.getNumMoves() + " moves found!!");
+            }
+
+            @Override
+            public void onStep(Move move) {
+                System.out.println("Move " + game.getNumMoves() + ":");
+                System.out.println(game.getBoardText());
+            }
+
+            @Override
+            public void onFinished(boolean solved) {
+                if (!solved) {
+                    System.out.println("No solution has been found for this level.");
+                }
+                finished.countDown();
+            }
+        });
+
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            autoplay.cancel();
+            Thread.currentThread().interrupt();
+        }
+    }
+
     /**
      * Transform a user input (String) in the corresponding Coordinate object.
      *
      * @param input User input (captured from the keyboard) with the format rowColumn, e.g. "a1".
+     *              Rows after "z" are "aa", "ab", ... and columns can have several digits, e.g. "ab12".
      * @return Coordinate object that corresponds to the user input.
      * @throws LevelException When the input format or the coordinate is incorrect.
      */
     private Coordinate coordinateFromInput(String input) throws LevelException{
-        char x = input.toLowerCase().charAt(1);
-        char y = input.toLowerCase().charAt(0);
+        String text = input.trim().toLowerCase();
+        int row = 0;
+        int column = 0;
+        int i = 0;
+
+        //Row: letters in base 26 (a=1, ..., z=26, aa=27, ...)
+        for (; i < text.length() && text.charAt(i) >= 'a' && text.charAt(i) <= 'z'; i++) {
+            row = row * 26 + (text.charAt(i) - 'a' + 1);
+            if (row > game.getBoardRows()) throw new LevelException(LevelException.ERROR_COORDINATE);
+        }
 
-        if(input.length()!=2) throw new LevelException(LevelException.ERROR_COORDINATE);
+        if (i == 0 || i == text.length()) throw new LevelException(LevelException.ERROR_COORDINATE);
 
-        if(!Character.isLetter(y) //no letter
-                || !(y >= 'a' && y < 97 +  game.getBoardSize()))
-            throw new LevelException(LevelException.ERROR_COORDINATE);
+        //Column: digits starting at 1
+        for (; i < text.length(); i++) {
+            if (!Character.isDigit(text.charAt(i))) throw new LevelException(LevelException.ERROR_COORDINATE);
+            column = column * 10 + (text.charAt(i) - '0');
+            if (column > game.getBoardColumns()) throw new LevelException(LevelException.ERROR_COORDINATE);
+        }
 
-        if(!Character.isDigit(x) //no number
-            || !(x >= 49 && x < 49 +  game.getBoardSize())
-        ) throw new LevelException(LevelException.ERROR_COORDINATE);
+        if (column < 1) throw new LevelException(LevelException.ERROR_COORDINATE);
 
-        return new Coordinate(((int)y - 97), ((int)x-49));
+        return new Coordinate(row - 1, column - 1);
     }
 
     /**
@@ -1,18 +1,24 @@
 package edu.uoc.trip.view.gui;
 
+import edu.uoc.trip.controller.Autoplay;
 import edu.uoc.trip.controller.Game;
 import edu.uoc.trip.model.cells.Cell;
+import edu.uoc.trip.model.cells.CellType;
 
 
 import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.solver.Move;
 import edu.uoc.trip.model.utils.Coordinate;
+import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Label;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import javafx.collections.FXCollections;
@@ -43,10 +49,31 @@ public class PlayController {
     private List<Coordinate> move;
 
     /**
-     * Size of each cell in the board.
+     * "Solve for me" mode, which plays a solution of the current level step by step.
+     */
+    private Autoplay autoplay;
+
+    /**
+     * Image of each type of cell, loaded only once.
+     */
+    private final Map<CellType, Image> images = new EnumMap<>(CellType.class);
+
+    /**
+     * Maximum size of each cell in the board.
      */
     private static final int CELL_SIZE = 126;
 
+    /**
+     * Width and height of the area in which the board is painted.
+     */
+    private static final int BOARD_WIDTH = 615;
+    private static final int BOARD_HEIGHT = 630;
+
+    /**
+     * Size of each cell in the board of the current level, so that the whole board fits in the canvas.
+     */
+    private double cellSize = CELL_SIZE;
+
     /**
      * It connects to the UI item that displays the board.
      */
@@ -88,6 +115,7 @@ public class PlayController {
     private void initialize() throws IOException, LevelException {
         move = new ArrayList<>();
         game = new Game("levels/");
+        autoplay = new Autoplay(game);
         alert = new Alert(AlertType.INFORMATION);
         alert.setHeaderText("Congratulations!");
         if(game.nextLevel()) update();
@@ -98,10 +126,53 @@ public class PlayController {
      */
     @FXML
     public void reload () throws LevelException {
+        autoplay.cancel();
         game.reload();
         update();
     }
 
+    /**
+     * Starts the "solve for me" mode, or stops it if it is running. The solution is found in background,
+     * so the GUI keeps responding, and each move is painted as it is made.
+     *
+     * @throws LevelException When there is no current level.
+     */
+    @FXML
+    public void solve() throws LevelException {
+        if (autoplay.isRunning()) {
+            autoplay.cancel();
+            return;
+        }
+
+        move.clear();
+        autoplay.start(Platform::runLater, new Autoplay.Listener() {
+            @Override
+            public void onStep(Move step) {
+                try {
+                    paintCell(step.getFirst());
+                    if (step.getType() == Move.Type.SWAP) {
+                        paintCell(step.getSecond());
+                    }
+                    uiMoves.setText(String.valueOf(game.getNumMoves()));
+                } catch (LevelException e) {
+                    e.printStackTrace();
+                }
+            }
+
+            @Override
+            public void onFinished(boolean solved) {
+                try {
+                    if (!solved) {
+                        new Alert(AlertType.WARNING, "No solution has been found for this level.").show();
+                    }
+                    update();
+                } catch (LevelException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
     /**
      * Updates the status of the level (i.e. the flow of the game). It also paints the game in the GUI.
      *
@@ -143,28 +214,60 @@ public class PlayController {
 
         uiMoves.setText(String.valueOf(game.getNumMoves()));
 
-        for (int i = 0; i < game.getBoardSize(); i++) {
-            for (int j = 0; j < game.getBoardSize(); j++){
+        cellSize = Math.min(CELL_SIZE, Math.min((double) BOARD_WIDTH / game.getBoardColumns(),
+                (double) BOARD_HEIGHT / game.getBoardRows()));
+
+        for (int i = 0; i < game.getBoardRows(); i++) {
+            for (int j = 0; j < game.getBoardColumns(); j++){
                 Cell cell = game.getCell(i,j);
                 StackPane sprite = new StackPane();
 
-                ImageView spriteImage = new ImageView(new Image("/images/"+ cell.getType().getImageSrc()));
+                ImageView spriteImage = new ImageView(getImage(cell.getType()));
 
-                spriteImage.setFitWidth(CELL_SIZE);
-                spriteImage.setFitHeight(CELL_SIZE);
+                spriteImage.setFitWidth(cellSize);
+                spriteImage.setFitHeight(cellSize);
                 sprite.getChildren().add(spriteImage);
-                sprite.setTranslateX(CELL_SIZE * cell.getCoordinate().getColumn());
-                sprite.setTranslateY(CELL_SIZE * cell.getCoordinate().getRow());
+                sprite.setTranslateX(cellSize * cell.getCoordinate().getColumn());
+                sprite.setTranslateY(cellSize * cell.getCoordinate().getRow());
 
 
                 nodeList.addAll(sprite);
 
-                sprite.setOnMouseClicked(e -> onClick(cell.getCoordinate()));
+                Coordinate coord = new Coordinate(i, j);
+                sprite.setOnMouseClicked(e -> onClick(coord));
             }
         }
 
         canvas.getChildren().addAll(nodeList);
 
+        //Highlights the route when the level is solved.
+        for (Coordinate coord : game.getRoute()) {
+            nodeList.get(coord.getRow() * game.getBoardColumns() + coord.getColumn()).getStyleClass().add("route");
+        }
+
+    }
+
+    /**
+     * Paints again a single cell, e.g. after a move of the "solve for me" mode, without rebuilding the board.
+     * The sprites are in the canvas row after row, as paint() adds them.
+     *
+     * @param coord Coordinate of the cell.
+     * @throws LevelException When the coordinate of the cell is invalid.
+     */
+    private void paintCell(Coordinate coord) throws LevelException {
+        StackPane sprite = (StackPane) canvas.getChildren()
+                .get(coord.getRow() * game.getBoardColumns() + coord.getColumn());
+        ((ImageView) sprite.getChildren().get(0)).setImage(getImage(game.getCell(coord).getType()));
+    }
+
+    /**
+     * Returns the image of a type of cell. Each image is loaded the first time it is needed.
+     *
+     * @param type Type of the cell.
+     * @return Image of the type.
+     */
+    private Image getImage(CellType type) {
+        return images.computeIfAbsent(type, t -> new Image("/images/" + t.getImageSrc()));
     }
 
     /**
@@ -180,8 +283,14 @@ public class PlayController {
      *              that has been clicked.
      */
     private void onClick(Coordinate coord){
+        //The moves of the "solve for me" mode must not be mixed with the player's ones
+        if (autoplay.isRunning()) {
+            return;
+        }
+
         Optional<Node> nodeOptional = canvas.getChildren().stream()
-                .filter(n -> n.getTranslateX()/CELL_SIZE==coord.getColumn() && n.getTranslateY()/CELL_SIZE == coord.getRow())
+                .filter(n -> Math.round(n.getTranslateX()/cellSize)==coord.getColumn()
+                        && Math.round(n.getTranslateY()/cellSize) == coord.getRow())
                 .findFirst();
 
         if(nodeOptional.isPresent()){
@@ -0,0 +1,209 @@
+package edu.uoc.trip.controller;
+
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.solver.HierarchicalSolver;
+import edu.uoc.trip.model.solver.Move;
+import edu.uoc.trip.model.solver.Solution;
+import edu.uoc.trip.model.solver.Solver;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class AutoplayTest {
+
+    private Game game;
+
+    /**
+     * Listener that records the progress of a playback.
+     */
+    private static final class Recorder implements Autoplay.Listener {
+
+        private final List<Move> steps = new ArrayList<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private Solution solution;
+        private boolean solved;
+
+        @Override
+        public void onSolution(Solution solution) {
+            this.solution = solution;
+        }
+
+        @Override
+        public void onStep(Move move) {
+            steps.add(move);
+        }
+
+        @Override
+        public void onFinished(boolean solved) {
+            this.solved = solved;
+            finished.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return finished.await(30, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Solver that waits for a signal before solving the level.
+     */
+    private static Solver gated(CountDownLatch gate) {
+        return level -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                return Optional.empty();
+            }
+            return new HierarchicalSolver().solve(level);
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        try {
+            game = new Game("levels/");
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("setUp failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Playback")
+    void playback() {
+        try {
+            Autoplay autoplay = new Autoplay(game);
+            autoplay.setDelay(Duration.ZERO);
+
+            //The moves are made in the background threads, while this thread waits
+            while (game.nextLevel()) {
+                Recorder recorder = new Recorder();
+                autoplay.start(Runnable::run, recorder);
+
+                assertTrue(recorder.await(), "Level " + game.getCurrentLevel());
+                assertTrue(recorder.solved);
+                assertTrue(game.isLevelSolved());
+                assertFalse(autoplay.isRunning());
+                assertEquals(recorder.solution.getMoves(), recorder.steps);
+                assertEquals(recorder.steps.size(), game.getNumMoves());
+            }
+        } catch (LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("playback failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Game changed during the search")
+    void gameChanged() {
+        try {
+            CountDownLatch gate = new CountDownLatch(1);
+            Autoplay autoplay = new Autoplay(game, gated(gate));
+            autoplay.setDelay(Duration.ZERO);
+            assertTrue(game.nextLevel());
+
+            Recorder recorder = new Recorder();
+            autoplay.start(Runnable::run, recorder);
+            assertTrue(autoplay.isRunning());
+            assertThrows(IllegalStateException.class, () -> autoplay.start(Runnable::run, new Recorder()));
+
+            //The player moves while the solution is searched, so it cannot be played
+            game.swap(new Coordinate(0, 1), new Coordinate(0, 2));
+            gate.countDown();
+
+            assertTrue(recorder.await());
+            assertFalse(recorder.solved);
+            assertTrue(recorder.steps.isEmpty());
+            assertEquals(1, game.getNumMoves());
+        } catch (LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("gameChanged failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Solver failure")
+    void solverFailure() {
+        try {
+            Autoplay autoplay = new Autoplay(game, level -> {
+                throw new NegativeArraySizeException("-4");
+            });
+            assertTrue(game.nextLevel());
+
+            //The failure ends the playback instead of leaving it running forever
+            Recorder recorder = new Recorder();
+            autoplay.start(Runnable::run, recorder);
+
+            assertTrue(recorder.await());
+            assertFalse(recorder.solved);
+            assertTrue(recorder.steps.isEmpty());
+            assertFalse(autoplay.isRunning());
+            assertEquals(0, game.getNumMoves());
+        } catch (LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("solverFailure failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Cancellation")
+    void cancellation() {
+        try {
+            Autoplay autoplay = new Autoplay(game, gated(new CountDownLatch(1)));
+            assertTrue(game.nextLevel());
+
+            AtomicBoolean called = new AtomicBoolean();
+            autoplay.start(Runnable::run, new Autoplay.Listener() {
+                @Override
+                public void onStep(Move move) {
+                    called.set(true);
+                }
+
+                @Override
+                public void onFinished(boolean solved) {
+                    called.set(true);
+                }
+            });
+
+            autoplay.cancel();
+            assertFalse(autoplay.isRunning());
+
+            //The interrupted search ends without calling the listener
+            Thread.sleep(200);
+            assertFalse(called.get());
+            assertEquals(0, game.getNumMoves());
+        } catch (LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("cancellation failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Delay")
+    void delay() {
+        Autoplay autoplay = new Autoplay(game);
+
+        assertEquals(Autoplay.DEFAULT_DELAY, autoplay.getDelay());
+        autoplay.setDelay(Duration.ofMillis(20));
+        assertEquals(Duration.ofMillis(20), autoplay.getDelay());
+        assertThrows(IllegalArgumentException.class, () -> autoplay.setDelay(Duration.ofMillis(-1)));
+        assertThrows(LevelException.class, () -> autoplay.start(Runnable::run, new Recorder()));
+    }
+}
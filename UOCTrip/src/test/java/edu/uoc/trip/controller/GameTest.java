@@ -1,15 +1,26 @@
 package edu.uoc.trip.controller;
 
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelDifficulty;
 import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.levels.LevelPack;
 
 import edu.uoc.trip.model.utils.Coordinate;
 import org.junit.jupiter.api.*;
 import org.junit.platform.commons.support.ModifierSupport;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
@@ -69,8 +80,8 @@ class GameTest {
     void checkMethodsSanity() {
         //Min 16 methods
         assertTrue(ownClass.getDeclaredMethods().length>=16);
-        //Max 12 public methods
-        assertEquals(12,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isPublic(p.getModifiers())).count());
+        //Max 15 public methods
+        assertEquals(15,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isPublic(p.getModifiers())).count());
         //Max 0 protected methods
         assertEquals(0,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isProtected(p.getModifiers())).count());
         //Max 0 package-private methods
@@ -144,4 +155,188 @@ class GameTest {
             e.printStackTrace();
         }
     }
+
+    @Test
+    @Tag("controller")
+    @DisplayName("Controller - goToLevel")
+    void goToLevel() {
+        try {
+            assertFalse(game.goToLevel(0));
+            assertFalse(game.goToLevel(3));
+            assertTrue(game.goToLevel(2));
+            assertEquals(2,game.getCurrentLevel());
+            assertFalse(game.nextLevel());
+            assertTrue(game.goToLevel(1));
+            assertTrue(game.nextLevel());
+        } catch (LevelException e) {
+            fail("goToLevel failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("controller")
+    @DisplayName("Controller - pack")
+    void pack() {
+        try {
+            Game packGame = new Game("levels/pack/levels.pack");
+            assertTrue(packGame.goToLevel(3));
+            assertEquals(3,packGame.getBoardRows());
+            assertEquals(8,packGame.getBoardColumns());
+            assertFalse(packGame.nextLevel());
+            assertTrue(packGame.goToLevel(1));
+            assertTrue(game.nextLevel());
+            assertEquals(game.getBoardText(),packGame.getBoardText());
+            packGame.swap(new Coordinate(1,0),new Coordinate(2,0));
+            assertEquals(1,packGame.getNumMoves());
+            packGame.reload();
+            assertEquals(0,packGame.getNumMoves());
+            assertEquals(game.getBoardText(),packGame.getBoardText());
+        } catch (LevelException | IOException e) {
+            fail("pack failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("controller")
+    @DisplayName("Controller - manifest")
+    void manifest() {
+        try {
+            //The manifest only lists level1.txt, although the folder has two level files
+            Game manifestGame = new Game("levels/manifest/");
+            assertTrue(manifestGame.nextLevel());
+            assertFalse(manifestGame.nextLevel());
+
+            //Folder without manifest: level files are scanned (other files are not counted)
+            Game scanGame = new Game("levels/pairs/");
+            assertTrue(scanGame.goToLevel(2));
+            assertFalse(scanGame.goToLevel(3));
+        } catch (LevelException | IOException e) {
+            fail("manifest failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("controller")
+    @DisplayName("Controller - prefetch")
+    void prefetch() {
+        try {
+            //level2.txt has a wrong symbol: the error of the prefetched level appears when it is requested
+            Game prefetchGame = new Game("levels/prefetch/");
+            assertTrue(prefetchGame.nextLevel());
+            LevelException ex = assertThrows(LevelException.class, prefetchGame::nextLevel);
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+            //Going back and forth uses the right levels
+            assertTrue(game.goToLevel(2));
+            String second = game.getBoardText();
+            assertTrue(game.goToLevel(1));
+            game.swap(new Coordinate(1,0),new Coordinate(2,0));
+            assertTrue(game.nextLevel());
+            assertEquals(second, game.getBoardText());
+            assertEquals(0, game.getNumMoves());
+        } catch (LevelException | IOException e) {
+            fail("prefetch failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("controller")
+    @DisplayName("Controller - hot reload")
+    void hotReload() {
+        try {
+            Path directory = Files.createTempDirectory("levels");
+            Path file = directory.resolve("level1.txt");
+            try {
+                Files.copy(Objects.requireNonNull(getClass().getClassLoader()
+                        .getResourceAsStream("levels/test/level1.txt")), file);
+
+                Game fileGame = new Game(directory.toUri().toString());
+                assertTrue(fileGame.nextLevel());
+                assertTrue(game.nextLevel());
+                assertEquals(game.getBoardText(), fileGame.getBoardText());
+
+                //The edited level is used when the level is reloaded
+                Files.copy(Objects.requireNonNull(getClass().getClassLoader()
+                        .getResourceAsStream("levels/pairs/level1.txt")), file, StandardCopyOption.REPLACE_EXISTING);
+                String board = fileGame.getBoardText();
+                for (int i = 0; i < 100 && board.equals(fileGame.getBoardText()); i++) {
+                    Thread.sleep(100);
+                    fileGame.reload();
+                }
+                assertEquals(5, fileGame.getBoardColumns());
+
+                //A new game of the folder does not get an old board from the cache of templates
+                Files.copy(Objects.requireNonNull(getClass().getClassLoader()
+                        .getResourceAsStream("levels/pairs/level2.txt")), file, StandardCopyOption.REPLACE_EXISTING);
+                Game newGame = new Game(directory.toUri().toString());
+                assertTrue(newGame.nextLevel());
+                assertEquals(LevelDifficulty.MASTER, newGame.getDifficulty());
+            } finally {
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(directory);
+            }
+        } catch (LevelException | IOException | InterruptedException e) {
+            fail("hotReload failed");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes a zip file whose only entry is "level1.txt", with the content of the given level file.
+     */
+    private void writeZip(Path zip, String levelFile) throws IOException {
+        try (ZipOutputStream outputStream = new ZipOutputStream(Files.newOutputStream(zip));
+             InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader()
+                     .getResourceAsStream(levelFile))) {
+            outputStream.putNextEntry(new ZipEntry("level1.txt"));
+            inputStream.transferTo(outputStream);
+            outputStream.closeEntry();
+        }
+    }
+
+    @Test
+    @Tag("controller")
+    @DisplayName("Controller - rewritten pack and zip")
+    void rewrittenArchives() {
+        try {
+            Path directory = Files.createTempDirectory("levels");
+            Path pack = directory.resolve("levels.pack");
+            Path zip = directory.resolve("levels.zip");
+            try {
+                LevelPack.write(List.of(new Level("levels/test/level1.txt")), null, pack);
+                writeZip(zip, "levels/test/level1.txt");
+
+                Game packGame = new Game(pack.toUri().toString());
+                Game zipGame = new Game(zip.toUri().toString());
+                assertTrue(packGame.nextLevel());
+                assertTrue(zipGame.nextLevel());
+                assertTrue(game.nextLevel());
+                assertEquals(game.getBoardText(), packGame.getBoardText());
+                assertEquals(game.getBoardText(), zipGame.getBoardText());
+
+                //The cache of templates is shared by all the games: new games of the rewritten files
+                //must not get the old boards from it
+                LevelPack.write(List.of(new Level("levels/pairs/level2.txt")), null, pack);
+                writeZip(zip, "levels/pairs/level2.txt");
+
+                Game newPackGame = new Game(pack.toUri().toString());
+                Game newZipGame = new Game(zip.toUri().toString());
+                assertTrue(newPackGame.nextLevel());
+                assertTrue(newZipGame.nextLevel());
+                assertEquals(LevelDifficulty.MASTER, newPackGame.getDifficulty());
+                assertEquals(LevelDifficulty.MASTER, newZipGame.getDifficulty());
+            } finally {
+                Files.deleteIfExists(pack);
+                Files.deleteIfExists(zip);
+                Files.deleteIfExists(directory);
+            }
+        } catch (LevelException | IOException e) {
+            fail("rewrittenArchives failed");
+            e.printStackTrace();
+        }
+    }
 }
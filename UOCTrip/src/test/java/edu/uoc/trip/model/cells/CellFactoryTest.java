@@ -51,6 +51,8 @@ class CellFactoryTest {
         assertTrue(CellFactory.getCellInstance(0, 0, CellType.HORIZONTAL) instanceof MovableCell);
         assertTrue(CellFactory.getCellInstance(0, 0, CellType.VERTICAL) instanceof MovableCell);
         assertTrue(CellFactory.getCellInstance(0, 0, CellType.FREE) instanceof MovableCell);
+        assertTrue(CellFactory.getCellInstance(0, 0, CellType.JUNCTION_TOP) instanceof MovableCell);
+        assertTrue(CellFactory.getCellInstance(0, 0, CellType.CROSS) instanceof MovableCell);
         assertTrue(CellFactory.getCellInstance(0, 0, CellType.ROTATABLE_VERTICAL) instanceof RotatableCell);
         assertTrue(CellFactory.getCellInstance(0, 0, CellType.ROTATABLE_HORIZONTAL) instanceof RotatableCell);
         assertTrue(CellFactory.getCellInstance(0, 0, CellType.RIVER) instanceof Cell
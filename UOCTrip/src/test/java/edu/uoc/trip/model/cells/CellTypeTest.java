@@ -37,8 +37,8 @@ class CellTypeTest {
         //Minimum number of fields. There is an implicit private static $VALUES field
         assertTrue(ownClass.getDeclaredFields().length >= 18);
 
-        //Max 13 public fields
-        assertEquals(13, Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isPublic).count());
+        //Max 18 public fields
+        assertEquals(18, Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isPublic).count());
         //Max 0 protected fields
         assertEquals(0, Arrays.stream(ownClass.getDeclaredFields()).filter(p -> Modifier.isProtected(p.getModifiers())).count());
         //Max 0 package-private fields
@@ -48,10 +48,10 @@ class CellTypeTest {
                         && !Modifier.isPrivate(p.getModifiers())).count());
         //Minimum 5 private fields. There is an implicit private static $VALUES field
         assertTrue(Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isPrivate).count() >= 5);
-        //Max 4 Enum values
-        assertEquals(13, Arrays.stream(ownClass.getDeclaredFields()).filter(Field::isEnumConstant).count());
-        //Max 14 static values. There is an implicit private static $VALUES field
-        assertEquals(14, Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isStatic).count());
+        //Max 18 Enum values
+        assertEquals(18, Arrays.stream(ownClass.getDeclaredFields()).filter(Field::isEnumConstant).count());
+        //Max 20 static values. There is an implicit private static $VALUES field and the symbol lookup table
+        assertEquals(20, Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isStatic).count());
 
         //Min 4 char fields
         assertTrue(Arrays.stream(ownClass.getDeclaredFields()).filter(p -> p.getType().getSimpleName().equals("char")).count() >= 2);
@@ -65,8 +65,8 @@ class CellTypeTest {
     void checkMethodsSanity() {
         //Min 4 methods
         assertTrue(ownClass.getDeclaredMethods().length>=4);
-        //Max 6 public methods + 2 implicit public methods (values() and valueOf()).
-        assertEquals(8,Arrays.stream(ownClass.getDeclaredMethods()).filter(ModifierSupport::isPublic).count());
+        //Max 7 public methods + 2 implicit public methods (values() and valueOf()).
+        assertEquals(9,Arrays.stream(ownClass.getDeclaredMethods()).filter(ModifierSupport::isPublic).count());
         //Max 0 protected methods
         assertEquals(0,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isProtected(p.getModifiers())).count());
         //Max 0 package-private methods
@@ -101,6 +101,11 @@ class CellTypeTest {
         assertEquals('·', CellType.FREE.getFileSymbol());
         assertEquals('G', CellType.ROTATABLE_VERTICAL.getFileSymbol());
         assertEquals('g', CellType.ROTATABLE_HORIZONTAL.getFileSymbol());
+        assertEquals('T', CellType.JUNCTION_TOP.getFileSymbol());
+        assertEquals('E', CellType.JUNCTION_RIGHT.getFileSymbol());
+        assertEquals('t', CellType.JUNCTION_BOTTOM.getFileSymbol());
+        assertEquals('W', CellType.JUNCTION_LEFT.getFileSymbol());
+        assertEquals('X', CellType.CROSS.getFileSymbol());
     }
 
     @Test
@@ -120,6 +125,11 @@ class CellTypeTest {
         assertEquals('\u00b7', CellType.FREE.getUnicodeRepresentation());
         assertEquals('\u2503', CellType.ROTATABLE_VERTICAL.getUnicodeRepresentation());
         assertEquals('\u2501', CellType.ROTATABLE_HORIZONTAL.getUnicodeRepresentation());
+        assertEquals('\u2569', CellType.JUNCTION_TOP.getUnicodeRepresentation());
+        assertEquals('\u2560', CellType.JUNCTION_RIGHT.getUnicodeRepresentation());
+        assertEquals('\u2566', CellType.JUNCTION_BOTTOM.getUnicodeRepresentation());
+        assertEquals('\u2563', CellType.JUNCTION_LEFT.getUnicodeRepresentation());
+        assertEquals('\u256C', CellType.CROSS.getUnicodeRepresentation());
     }
 
     @Test
@@ -139,6 +149,11 @@ class CellTypeTest {
         assertEquals("free.png", CellType.FREE.getImageSrc());
         assertEquals("road_rotatable_vertical.png", CellType.ROTATABLE_VERTICAL.getImageSrc());
         assertEquals("road_rotatable_horizontal.png", CellType.ROTATABLE_HORIZONTAL.getImageSrc());
+        assertEquals("road_junction_top.png", CellType.JUNCTION_TOP.getImageSrc());
+        assertEquals("road_junction_right.png", CellType.JUNCTION_RIGHT.getImageSrc());
+        assertEquals("road_junction_bottom.png", CellType.JUNCTION_BOTTOM.getImageSrc());
+        assertEquals("road_junction_left.png", CellType.JUNCTION_LEFT.getImageSrc());
+        assertEquals("road_cross.png", CellType.CROSS.getImageSrc());
     }
 
     @Test
@@ -151,12 +166,48 @@ class CellTypeTest {
         assertTrue(CellType.RIVER.getAvailableConnections().isEmpty());
         assertEquals(EnumSet.of(Direction.UP, Direction.DOWN), CellType.VERTICAL.getAvailableConnections());
         assertEquals(EnumSet.of(Direction.LEFT, Direction.RIGHT), CellType.HORIZONTAL.getAvailableConnections());
+        assertEquals(EnumSet.of(Direction.RIGHT, Direction.DOWN), CellType.BOTTOM_RIGHT.getAvailableConnections());
         assertEquals(EnumSet.of(Direction.LEFT, Direction.DOWN), CellType.BOTTOM_LEFT.getAvailableConnections());
         assertEquals(EnumSet.of(Direction.UP, Direction.RIGHT), CellType.TOP_RIGHT.getAvailableConnections());
         assertEquals(EnumSet.of(Direction.LEFT, Direction.UP), CellType.TOP_LEFT.getAvailableConnections());
         assertTrue(CellType.FREE.getAvailableConnections().isEmpty());
         assertEquals(EnumSet.of(Direction.UP, Direction.DOWN), CellType.ROTATABLE_VERTICAL.getAvailableConnections());
         assertEquals(EnumSet.of(Direction.LEFT, Direction.RIGHT), CellType.ROTATABLE_HORIZONTAL.getAvailableConnections());
+        assertEquals(EnumSet.of(Direction.LEFT, Direction.UP, Direction.RIGHT), CellType.JUNCTION_TOP.getAvailableConnections());
+        assertEquals(EnumSet.of(Direction.UP, Direction.RIGHT, Direction.DOWN), CellType.JUNCTION_RIGHT.getAvailableConnections());
+        assertEquals(EnumSet.of(Direction.LEFT, Direction.DOWN, Direction.RIGHT), CellType.JUNCTION_BOTTOM.getAvailableConnections());
+        assertEquals(EnumSet.of(Direction.UP, Direction.LEFT, Direction.DOWN), CellType.JUNCTION_LEFT.getAvailableConnections());
+        assertEquals(EnumSet.allOf(Direction.class), CellType.CROSS.getAvailableConnections());
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - getConnectionMask")
+    void getConnectionMask() {
+        assertEquals(1, CellType.START.getConnectionMask());
+        assertEquals(4, CellType.FINISH.getConnectionMask());
+        assertEquals(0, CellType.MOUNTAINS.getConnectionMask());
+        assertEquals(0, CellType.FREE.getConnectionMask());
+        assertEquals(5, CellType.VERTICAL.getConnectionMask());
+        assertEquals(10, CellType.HORIZONTAL.getConnectionMask());
+        assertEquals(6, CellType.BOTTOM_RIGHT.getConnectionMask());
+        assertEquals(12, CellType.BOTTOM_LEFT.getConnectionMask());
+        assertEquals(3, CellType.TOP_RIGHT.getConnectionMask());
+        assertEquals(9, CellType.TOP_LEFT.getConnectionMask());
+        assertEquals(11, CellType.JUNCTION_TOP.getConnectionMask());
+        assertEquals(15, CellType.CROSS.getConnectionMask());
+
+        for (CellType type : CellType.values()) {
+            int mask = 0;
+            for (Direction direction : type.getAvailableConnections()) {
+                mask |= direction.getMask();
+            }
+            assertEquals(mask, type.getConnectionMask());
+        }
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> CellType.VERTICAL.getAvailableConnections().add(Direction.LEFT));
+        assertSame(CellType.VERTICAL.getAvailableConnections(), CellType.VERTICAL.getAvailableConnections());
     }
 
     @Test
@@ -176,6 +227,13 @@ class CellTypeTest {
         assertEquals(CellType.FREE, CellType.map2CellType('·'));
         assertEquals(CellType.ROTATABLE_VERTICAL, CellType.map2CellType('G'));
         assertEquals(CellType.ROTATABLE_HORIZONTAL, CellType.map2CellType('g'));
+        assertEquals(CellType.JUNCTION_TOP, CellType.map2CellType('T'));
+        assertEquals(CellType.JUNCTION_RIGHT, CellType.map2CellType('E'));
+        assertEquals(CellType.JUNCTION_BOTTOM, CellType.map2CellType('t'));
+        assertEquals(CellType.JUNCTION_LEFT, CellType.map2CellType('W'));
+        assertEquals(CellType.CROSS, CellType.map2CellType('X'));
+        assertNull(CellType.map2CellType('x'));
+        assertNull(CellType.map2CellType('\uffff'));
     }
 
     @Test
@@ -195,5 +253,10 @@ class CellTypeTest {
         assertNull(CellType.FREE.next());
         assertEquals(CellType.ROTATABLE_HORIZONTAL, CellType.ROTATABLE_VERTICAL.next());
         assertEquals(CellType.ROTATABLE_VERTICAL, CellType.ROTATABLE_HORIZONTAL.next());
+        assertEquals(CellType.JUNCTION_RIGHT, CellType.JUNCTION_TOP.next());
+        assertEquals(CellType.JUNCTION_BOTTOM, CellType.JUNCTION_RIGHT.next());
+        assertEquals(CellType.JUNCTION_LEFT, CellType.JUNCTION_BOTTOM.next());
+        assertEquals(CellType.JUNCTION_TOP, CellType.JUNCTION_LEFT.next());
+        assertEquals(CellType.CROSS, CellType.CROSS.next());
     }
 }
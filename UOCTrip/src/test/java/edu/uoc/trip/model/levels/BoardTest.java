@@ -0,0 +1,280 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class BoardTest {
+
+    private static final int SIZE = 10000;
+
+    private void checkBoard(Board board) {
+        assertEquals(SIZE, board.size());
+
+        board.set(0, 3);
+        board.set(SIZE - 1, 4);
+        board.fill(100, 200, 5);
+        assertEquals(3, board.get(0));
+        assertEquals(4, board.get(SIZE - 1));
+        assertEquals(5, board.get(150));
+        assertEquals(5, board.get(199));
+        assertNotEquals(5, board.get(200));
+
+        Board copy = board.copy();
+        board.set(0, 6);
+        assertEquals(3, copy.get(0));
+        assertEquals(6, board.get(0));
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Dense board")
+    void testDenseBoard() {
+        checkBoard(new DenseBoard(SIZE));
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Sparse board")
+    void testSparseBoard() {
+        SparseBoard board = new SparseBoard(SIZE, 2);
+        assertEquals(2, board.get(1234));
+        assertEquals(0, board.getStoredCells());
+
+        checkBoard(board);
+        assertEquals(102, board.getStoredCells());
+
+        //Default cells are not stored
+        board.fill(100, 200, 2);
+        board.set(SIZE - 1, 2);
+        assertEquals(1, board.getStoredCells());
+        assertEquals(2, board.get(150));
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Tiled board")
+    void testTiledBoard() {
+        try {
+            TiledBoard board = new TiledBoard(SIZE, 2);
+            assertEquals(2, board.get(1234));
+
+            checkBoard(board);
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("testTiledBoard failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Tiled board with many tiles")
+    void testTiledBoardTiles() {
+        try {
+            int tiles = 33;
+            TiledBoard board = new TiledBoard(tiles * TiledBoard.TILE_SIZE - 7, 2);
+
+            //A range that crosses the boundary between two tiles
+            board.fill(TiledBoard.TILE_SIZE - 3, TiledBoard.TILE_SIZE + 1, 5);
+            for (int tile = 0; tile < tiles; tile++) {
+                board.set(tile * TiledBoard.TILE_SIZE + tile, tile % 16);
+            }
+            board.set(board.size() - 1, 9);
+
+            //Each tile is mapped once, however many times the board jumps between them
+            for (int round = 0; round < 2; round++) {
+                for (int tile = 0; tile < tiles; tile++) {
+                    assertEquals(tile % 16, board.get(tile * TiledBoard.TILE_SIZE + tile));
+                    assertEquals(2, board.get(tile * TiledBoard.TILE_SIZE + tile + 1));
+                }
+            }
+            assertEquals(tiles, board.getMappedTiles());
+            assertEquals(5, board.get(TiledBoard.TILE_SIZE - 3));
+            assertEquals(5, board.get(TiledBoard.TILE_SIZE));
+            assertEquals(9, board.get(board.size() - 1));
+
+            Board copy = board.copy();
+            board.set(0, 7);
+            assertEquals(0, copy.get(0));
+            assertEquals(9, copy.get(board.size() - 1));
+            assertEquals(5, copy.get(TiledBoard.TILE_SIZE));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("testTiledBoardTiles failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Copies of tiled boards share their tiles")
+    void testTiledBoardCopyOnWrite() {
+        try {
+            TiledBoard board = new TiledBoard(4 * TiledBoard.TILE_SIZE, 2);
+            board.set(0, 3);
+            board.set(2 * TiledBoard.TILE_SIZE, 4);
+            assertEquals(2, board.getStoredTiles());
+
+            TiledBoard copy = (TiledBoard) board.copy();
+            assertEquals(2, copy.getStoredTiles());
+            assertEquals(4, copy.get(2 * TiledBoard.TILE_SIZE));
+
+            //Each board copies a shared tile before writing it, so the other one does not see the change
+            copy.set(2 * TiledBoard.TILE_SIZE + 1, 5);
+            board.set(1, 6);
+            assertEquals(2, copy.get(2 * TiledBoard.TILE_SIZE - 1));
+            assertEquals(5, copy.get(2 * TiledBoard.TILE_SIZE + 1));
+            assertEquals(2, board.get(2 * TiledBoard.TILE_SIZE + 1));
+            assertEquals(4, board.get(2 * TiledBoard.TILE_SIZE));
+            assertEquals(2, copy.get(1));
+            assertEquals(6, board.get(1));
+            assertEquals(3, copy.get(0));
+
+            //Tiles that have never been written are not stored by the copies either
+            copy.fill(3 * TiledBoard.TILE_SIZE, 4 * TiledBoard.TILE_SIZE, 7);
+            assertEquals(3, copy.getStoredTiles());
+            assertEquals(2, board.get(4 * TiledBoard.TILE_SIZE - 1));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("testTiledBoardCopyOnWrite failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Tiled boards shared by several threads")
+    void testTiledBoardThreads() {
+        try {
+            int tiles = 20;
+            TiledBoard board = new TiledBoard(tiles * TiledBoard.TILE_SIZE, 2);
+            for (int tile = 0; tile < tiles; tile++) {
+                board.set(tile * TiledBoard.TILE_SIZE + 1, tile % 16);
+            }
+
+            //Reads and copies at the same time, each thread jumping between the tiles
+            IntStream.range(0, 64).parallel().forEach(thread -> {
+                Board copy = board.copy();
+                int written = thread % tiles;
+                copy.set(written * TiledBoard.TILE_SIZE, thread % 16);
+
+                for (int i = 0; i < 2000; i++) {
+                    int tile = (thread + i * 7) % tiles;
+                    assertEquals(tile % 16, board.get(tile * TiledBoard.TILE_SIZE + 1));
+                    assertEquals(2, board.get(tile * TiledBoard.TILE_SIZE));
+                    assertEquals(tile == written ? thread % 16 : 2, copy.get(tile * TiledBoard.TILE_SIZE));
+                }
+            });
+
+            //Writes of different cells at the same time
+            IntStream.range(0, tiles).parallel().forEach(tile ->
+                    board.fill(tile * TiledBoard.TILE_SIZE + 2, (tile + 1) * TiledBoard.TILE_SIZE, 9));
+            for (int tile = 0; tile < tiles; tile++) {
+                assertEquals(2, board.get(tile * TiledBoard.TILE_SIZE));
+                assertEquals(tile % 16, board.get(tile * TiledBoard.TILE_SIZE + 1));
+                assertEquals(9, board.get((tile + 1) * TiledBoard.TILE_SIZE - 1));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("testTiledBoardThreads failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Storage chosen by the board factory")
+    void testBoardFactory() {
+        try {
+            int size = BoardFactory.SPARSE_BOARD_SIZE;
+            long[] counts = new long[CellType.values().length];
+
+            //Huge map filled with mountains: sparse, and the mountains are not stored
+            counts[CellType.MOUNTAINS.ordinal()] = size - 5000;
+            counts[CellType.VERTICAL.ordinal()] = 5000;
+            Board board = BoardFactory.create(size, counts);
+            assertTrue(board instanceof SparseBoard);
+            assertEquals(CellType.MOUNTAINS.ordinal(), board.get(size / 2));
+            assertEquals(0, ((SparseBoard) board).getStoredCells());
+
+            //Same size, but with many cells of other types: dense
+            counts[CellType.MOUNTAINS.ordinal()] = size / 2;
+            counts[CellType.VERTICAL.ordinal()] = size / 2;
+            board = BoardFactory.create(size, counts);
+            assertTrue(board instanceof DenseBoard);
+            assertEquals(CellType.MOUNTAINS.ordinal(), board.get(size - 1));
+
+            //Small boards are always dense, filled with the dominant type
+            counts = new long[CellType.values().length];
+            counts[CellType.RIVER.ordinal()] = SIZE;
+            board = BoardFactory.create(SIZE, counts);
+            assertTrue(board instanceof DenseBoard);
+            assertEquals(CellType.RIVER.ordinal(), board.get(0));
+
+            //The builder counts the cells while they are written
+            BoardFactory.Builder builder = new BoardFactory.Builder(size);
+            builder.fill(0, size, CellType.RIVER.ordinal());
+            assertTrue(builder.build() instanceof SparseBoard);
+
+            builder = new BoardFactory.Builder(size);
+            builder.fill(0, size - 1000, CellType.RIVER.ordinal());
+            builder.fill(size - 1000, size - 1, CellType.HORIZONTAL.ordinal());
+            builder.set(size - 1, CellType.FINISH.ordinal());
+            board = builder.build();
+            assertTrue(board instanceof SparseBoard);
+            assertEquals(1000, ((SparseBoard) board).getStoredCells());
+            assertEquals(CellType.RIVER.ordinal(), board.get(0));
+            assertEquals(CellType.HORIZONTAL.ordinal(), board.get(size - 2));
+            assertEquals(CellType.FINISH.ordinal(), board.get(size - 1));
+
+            builder = new BoardFactory.Builder(size);
+            for (int index = 0; index < size; index++) {
+                builder.set(index, index % 2 == 0 ? CellType.VERTICAL.ordinal() : CellType.FREE.ordinal());
+            }
+            board = builder.build();
+            assertTrue(board instanceof DenseBoard);
+            assertEquals(CellType.VERTICAL.ordinal(), board.get(size - 2));
+            assertEquals(CellType.FREE.ordinal(), board.get(size - 1));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("testBoardFactory failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - IntMap")
+    void testIntMap() {
+        IntMap map = new IntMap(-1);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            } else {
+                map.put(key, i);
+                expected.put(key, i);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 5000; key++) {
+            assertEquals((int) expected.getOrDefault(key, -1), map.get(key));
+        }
+
+        IntMap copy = map.copy();
+        map.put(1, 1);
+        map.remove(2);
+        assertEquals((int) expected.getOrDefault(1, -1), copy.get(1));
+        assertEquals((int) expected.getOrDefault(2, -1), copy.get(2));
+    }
+}
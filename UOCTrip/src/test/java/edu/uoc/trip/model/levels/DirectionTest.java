@@ -48,8 +48,8 @@ class DirectionTest {
         assertTrue(Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isPrivate).count() >= 4);
         //Max 4 Enum values
         assertEquals(4, Arrays.stream(ownClass.getDeclaredFields()).filter(Field::isEnumConstant).count());
-        //Max 5 static values
-        assertEquals(5, Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isStatic).count());
+        //Max 6 static values (4 values, $VALUES and the lookup table)
+        assertEquals(6, Arrays.stream(ownClass.getDeclaredFields()).filter(ModifierSupport::isStatic).count());
         //All fields must be final
         assertTrue(Arrays.stream(ownClass.getDeclaredFields()).filter(p ->
                 Modifier.isFinal(p.getModifiers())).count() >= 7
@@ -64,8 +64,8 @@ class DirectionTest {
     void checkMethodsSanity() {
         //Min 4 methods
         assertTrue(ownClass.getDeclaredMethods().length>=4);
-        //Max 4 public methods + 2 implicit public methods (values() and valueOf()).
-        assertEquals(6,Arrays.stream(ownClass.getDeclaredMethods()).filter(ModifierSupport::isPublic).count());
+        //Max 5 public methods + 2 implicit public methods (values() and valueOf()).
+        assertEquals(7,Arrays.stream(ownClass.getDeclaredMethods()).filter(ModifierSupport::isPublic).count());
         //Max 0 protected methods
         assertEquals(0,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isProtected(p.getModifiers())).count());
         //Max 0 package-private methods
@@ -96,6 +96,8 @@ class DirectionTest {
         assertEquals(Direction.RIGHT,Direction.getValueByIndex(1));
         assertEquals(Direction.DOWN,Direction.getValueByIndex(2));
         assertEquals(Direction.LEFT,Direction.getValueByIndex(3));
+        assertEquals(Direction.LEFT,Direction.getValueByIndex(4));
+        assertEquals(Direction.LEFT,Direction.getValueByIndex(-1));
     }
 
     @Test
@@ -127,4 +129,14 @@ class DirectionTest {
         assertEquals(Direction.LEFT,Direction.RIGHT.getOpposite());
         assertEquals(Direction.UP,Direction.DOWN.getOpposite());
     }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - getMask")
+    void getMask() {
+        assertEquals(1,Direction.UP.getMask());
+        assertEquals(2,Direction.RIGHT.getMask());
+        assertEquals(4,Direction.DOWN.getMask());
+        assertEquals(8,Direction.LEFT.getMask());
+    }
 }
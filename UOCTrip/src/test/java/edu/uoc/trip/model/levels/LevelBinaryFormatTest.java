@@ -0,0 +1,206 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class LevelBinaryFormatTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            file = Files.createTempFile("level", ".bin");
+        } catch (IOException e) {
+            fail("setUp failed");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private void assertSameLevel(Level expected, Level actual) {
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getColumns(), actual.getColumns());
+        assertEquals(expected.getDifficulty(), actual.getDifficulty());
+        assertEquals(expected.getNumPairs(), actual.getNumPairs());
+        assertEquals(expected.isSolved(), actual.isSolved());
+        assertEquals(0, actual.getNumMoves());
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Round trip")
+    void testRoundTrip() {
+        try {
+            for (String fileName : new String[]{"levels/test/level1.txt", "levels/junctions/level1.txt",
+                    "levels/pairs/level2.txt", "levels/rectangular/level1.txt", "levels/rectangular/level2.txt"}) {
+                Level level = new Level(fileName);
+                LevelBinaryFormat.write(level, file);
+                assertSameLevel(level, LevelBinaryFormat.read(file));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testRoundTrip failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Huge sparse level")
+    void testSparseLevel() {
+        try {
+            Level level = new Level("levels/sparse/level1.txt");
+            LevelBinaryFormat.write(level, file);
+            Level binary = LevelBinaryFormat.read(file);
+
+            //The binary level is not expanded to a dense board
+            assertTrue(binary.getBoard() instanceof SparseBoard);
+            assertEquals(((SparseBoard) level.getBoard()).getStoredCells(),
+                    ((SparseBoard) binary.getBoard()).getStoredCells());
+            assertEquals(CellType.FREE, binary.getCell(new Coordinate(1500, 1500)).getType());
+            assertTrue(binary.isSolved());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testSparseLevel failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Current state is written")
+    void testWriteCurrentState() {
+        try {
+            Level level = new Level("levels/test/level1.txt");
+            level.swapCells(new Coordinate(1, 1), new Coordinate(1, 2));
+            LevelBinaryFormat.write(level, file);
+
+            Level binary = LevelBinaryFormat.read(file);
+            assertSameLevel(level, binary);
+            assertEquals(level.getCell(new Coordinate(1, 1)).getType(), binary.getCell(new Coordinate(1, 1)).getType());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testWriteCurrentState failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Packed size")
+    void testPackedSize() {
+        try {
+            Level level = new Level("levels/test/level1.txt");
+            ByteBuffer buffer = LevelBinaryFormat.encode(level);
+            int cells = level.getRows() * level.getColumns();
+
+            //Fixed header + palette (at most 16 symbols) + half a byte per cell
+            assertTrue(buffer.remaining() <= 16 + 2 * 16 + (cells + 1) / 2);
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testPackedSize failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Convert text file")
+    void testConvert() {
+        try {
+            Path text = Path.of(getClass().getClassLoader().getResource("levels/pairs/level1.txt").toURI());
+            LevelBinaryFormat.convert(text, file);
+            assertSameLevel(new Level("levels/pairs/level1.txt"), LevelBinaryFormat.read(file));
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testConvert failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Wrong binary files")
+    void testWrongFiles() {
+        try {
+            Level level = new Level("levels/test/level1.txt");
+            byte[] bytes = LevelBinaryFormat.encode(level).array();
+
+            //Wrong magic number
+            byte[] wrong = bytes.clone();
+            wrong[0] = 'X';
+            Files.write(file, wrong);
+            LevelException ex = assertThrows(LevelException.class, () -> LevelBinaryFormat.read(file));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+            //Truncated file
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 2));
+            ex = assertThrows(LevelException.class, () -> LevelBinaryFormat.read(file));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+            //Wrong symbol in the palette
+            wrong = bytes.clone();
+            wrong[16] = 0;
+            wrong[17] = 'Z';
+            Files.write(file, wrong);
+            ex = assertThrows(LevelException.class, () -> LevelBinaryFormat.read(file));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+            //Board too small
+            wrong = bytes.clone();
+            ByteBuffer.wrap(wrong).putInt(6, 2).putInt(10, 2);
+            Files.write(file, wrong);
+            ex = assertThrows(LevelException.class, () -> LevelBinaryFormat.read(file));
+            assertEquals(LevelException.ERROR_BOARD_SIZE, ex.getMessage());
+
+            //Board too large, rejected before allocating it
+            wrong = bytes.clone();
+            ByteBuffer.wrap(wrong).putInt(6, 40000).putInt(10, 40000);
+            Files.write(file, wrong);
+            ex = assertThrows(LevelException.class, () -> LevelBinaryFormat.read(file));
+            assertEquals(LevelException.ERROR_BOARD_SIZE, ex.getMessage());
+
+            //Valid size, but far more cells than the file has
+            wrong = bytes.clone();
+            ByteBuffer.wrap(wrong).putInt(6, 32768).putInt(10, 32768);
+            Files.write(file, wrong);
+            ex = assertThrows(LevelException.class, () -> LevelBinaryFormat.read(file));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testWrongFiles failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Cell types")
+    void testCellTypes() {
+        try {
+            Level level = new Level("levels/junctions/level1.txt");
+            LevelBinaryFormat.write(level, file);
+            Level binary = LevelBinaryFormat.read(file);
+
+            for (int row = 0; row < level.getRows(); row++) {
+                for (int column = 0; column < level.getColumns(); column++) {
+                    CellType type = level.getCell(new Coordinate(row, column)).getType();
+                    assertEquals(type, binary.getCell(new Coordinate(row, column)).getType());
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testCellTypes failed");
+        }
+    }
+}
@@ -41,8 +41,8 @@ class LevelExceptionTest {
                     && Modifier.isFinal(p.getModifiers());
         }));
 
-        //Max 8 fields
-        assertEquals(8, ownClass.getDeclaredFields().length);
+        //Max 9 fields
+        assertEquals(9, ownClass.getDeclaredFields().length);
     }
 
     @Test
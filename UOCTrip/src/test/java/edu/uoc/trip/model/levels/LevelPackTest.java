@@ -0,0 +1,178 @@
+package edu.uoc.trip.model.levels;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class LevelPackTest {
+
+    private static final String[] FILES = {"levels/test/level1.txt", "levels/pairs/level1.txt",
+            "levels/rectangular/level1.txt"};
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            file = Files.createTempFile("levels", LevelPack.EXTENSION);
+        } catch (IOException e) {
+            fail("setUp failed");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Write and open")
+    void testWriteAndOpen() {
+        try {
+            Level[] levels = new Level[FILES.length];
+            for (int i = 0; i < FILES.length; i++) {
+                levels[i] = new Level(FILES[i]);
+            }
+
+            LevelPack.write(List.of(levels), new int[]{4, 7, 0}, file);
+            LevelPack pack = LevelPack.open(file);
+
+            assertEquals(3, pack.size());
+            assertEquals(4, pack.getPar(1));
+            assertEquals(7, pack.getPar(2));
+            assertEquals(0, pack.getPar(3));
+
+            //Random access, in any order
+            for (int number : new int[]{3, 1, 2, 3}) {
+                Level expected = levels[number - 1];
+                Level level = pack.getLevel(number);
+
+                assertEquals(expected.getRows(), pack.getRows(number));
+                assertEquals(expected.getColumns(), pack.getColumns(number));
+                assertEquals(expected.getDifficulty(), pack.getDifficulty(number));
+                assertEquals(expected.toString(), level.toString());
+                assertEquals(expected.getNumPairs(), level.getNumPairs());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testWriteAndOpen failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Rewrite an open pack")
+    void testRewriteOpenPack() {
+        try {
+            Level[] levels = new Level[FILES.length];
+            for (int i = 0; i < FILES.length; i++) {
+                levels[i] = new Level(FILES[i]);
+            }
+
+            LevelPack.write(List.of(levels), null, file);
+            LevelPack pack = LevelPack.open(file);
+
+            //The open pack keeps its mapping of the old file, which is replaced instead of truncated
+            LevelPack.write(List.of(levels[0]), null, file);
+            assertEquals(3, pack.size());
+            assertEquals(levels[2].toString(), pack.getLevel(3).toString());
+            assertEquals(1, LevelPack.open(file).size());
+
+            //No temporary file is left in the folder
+            String prefix = file.getFileName().toString();
+            try (Stream<Path> files = Files.list(file.getParent())) {
+                assertTrue(files.map(other -> other.getFileName().toString())
+                        .noneMatch(name -> name.startsWith(prefix) && name.endsWith(".tmp")));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testRewriteOpenPack failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Read resource")
+    void testReadResource() {
+        try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader()
+                .getResourceAsStream("levels/pack/levels.pack"))) {
+            LevelPack pack = LevelPack.read(inputStream, "levels/pack/levels.pack");
+
+            assertEquals(FILES.length, pack.size());
+            for (int number = 1; number <= pack.size(); number++) {
+                assertEquals(new Level(FILES[number - 1]).toString(), pack.getLevel(number).toString());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testReadResource failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Wrong level numbers")
+    void testWrongNumbers() {
+        try {
+            LevelPack.write(List.of(new Level(FILES[0])), null, file);
+            LevelPack pack = LevelPack.open(file);
+
+            LevelException ex = assertThrows(LevelException.class, () -> pack.getLevel(0));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+            assertThrows(LevelException.class, () -> pack.getLevel(2));
+            assertThrows(LevelException.class, () -> pack.getRows(-1));
+            assertThrows(LevelException.class, () -> pack.getColumns(2));
+            assertThrows(LevelException.class, () -> pack.getDifficulty(2));
+            assertThrows(LevelException.class, () -> pack.getPar(Integer.MAX_VALUE));
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testWrongNumbers failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Wrong pack files")
+    void testWrongFiles() {
+        try {
+            LevelPack.write(List.of(new Level(FILES[0])), null, file);
+            byte[] bytes = Files.readAllBytes(file);
+
+            //Wrong magic number
+            byte[] wrong = bytes.clone();
+            wrong[0] = 'X';
+            Files.write(file, wrong);
+            LevelException ex = assertThrows(LevelException.class, () -> LevelPack.open(file));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+            //Index larger than the file
+            wrong = bytes.clone();
+            ByteBuffer.wrap(wrong).putInt(5, 1000);
+            Files.write(file, wrong);
+            ex = assertThrows(LevelException.class, () -> LevelPack.open(file));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+            //Level data outside the file
+            wrong = bytes.clone();
+            ByteBuffer.wrap(wrong).putLong(9, bytes.length);
+            Files.write(file, wrong);
+            LevelPack pack = LevelPack.open(file);
+            ex = assertThrows(LevelException.class, () -> pack.getLevel(1));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("testWrongFiles failed");
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package edu.uoc.trip.model.levels;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class LevelSourceTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            directory = Files.createTempDirectory("levels");
+        } catch (IOException e) {
+            fail("setUp failed");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    private void copyResource(String resource, Path target) throws IOException {
+        try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader()
+                .getResourceAsStream(resource))) {
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Classpath source")
+    void testClasspath() {
+        try (LevelSource source = LevelSource.open("levels/pairs/")) {
+            assertTrue(source instanceof ClasspathLevelSource);
+            assertEquals(2, source.size());
+            assertEquals(new Level("levels/pairs/level2.txt").toString(), source.getLevel(2).toString());
+            assertNotEquals(source.getKey(1), source.getKey(2));
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("testClasspath failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Pack source")
+    void testPack() {
+        try (LevelSource source = LevelSource.open("levels/pack/levels.pack")) {
+            assertTrue(source instanceof LevelPack);
+            assertEquals(3, source.size());
+            assertEquals(new Level("levels/pairs/level1.txt").toString(), source.getLevel(2).toString());
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("testPack failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Zip source")
+    void testZip() {
+        try {
+            Path zip = directory.resolve("levels" + LevelSource.ZIP_EXTENSION);
+            try (OutputStream outputStream = Files.newOutputStream(zip);
+                 ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+                for (String name : new String[]{"level1.txt", "level2.txt"}) {
+                    zipStream.putNextEntry(new ZipEntry("levels/" + name));
+                    try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader()
+                            .getResourceAsStream("levels/pairs/" + name))) {
+                        inputStream.transferTo(zipStream);
+                    }
+                    zipStream.closeEntry();
+                }
+                zipStream.putNextEntry(new ZipEntry("levels/readme.txt"));
+                zipStream.closeEntry();
+            }
+
+            try (LevelSource source = LevelSource.open(zip.toUri().toString())) {
+                assertTrue(source instanceof ZipLevelSource);
+                assertEquals(2, source.size());
+                assertEquals(new Level("levels/pairs/level1.txt").toString(), source.getLevel(1).toString());
+                assertEquals(new Level("levels/pairs/level2.txt").toString(), source.getLevel(2).toString());
+            }
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("testZip failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Gaps in the numbers of the levels")
+    void testGaps() {
+        try {
+            Path zip = directory.resolve("gaps" + LevelSource.ZIP_EXTENSION);
+            try (OutputStream outputStream = Files.newOutputStream(zip);
+                 ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+                for (String name : new String[]{"level1.txt", "level3.txt"}) {
+                    zipStream.putNextEntry(new ZipEntry(name));
+                    try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader()
+                            .getResourceAsStream("levels/test/level1.txt"))) {
+                        inputStream.transferTo(zipStream);
+                    }
+                    zipStream.closeEntry();
+                }
+            }
+            copyResource("levels/test/level1.txt", directory.resolve("level1.txt"));
+            copyResource("levels/test/level1.txt", directory.resolve("level3.txt"));
+
+            for (String location : new String[]{zip.toUri().toString(), directory.toUri().toString()}) {
+                try (LevelSource source = LevelSource.open(location)) {
+                    //The levels after the gap are not counted, and missing levels are not valid
+                    assertEquals(1, source.size(), location);
+                    assertEquals(new Level("levels/test/level1.txt").toString(), source.getLevel(1).toString());
+                    LevelException ex = assertThrows(LevelException.class, () -> source.getLevel(2));
+                    assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+                    assertThrows(LevelException.class, () -> source.getLevel(0));
+                }
+            }
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("testGaps failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Directory source and hot reload")
+    void testDirectory() {
+        try {
+            copyResource("levels/test/level1.txt", directory.resolve("level1.txt"));
+            copyResource("levels/test/level2.txt", directory.resolve("level2.txt"));
+            Files.writeString(directory.resolve("notes.txt"), "Not a level");
+
+            try (LevelSource source = LevelSource.open(directory.toUri().toString())) {
+                assertTrue(source instanceof DirectoryLevelSource);
+                assertEquals(2, source.size());
+                assertEquals(new Level("levels/test/level1.txt").toString(), source.getLevel(1).toString());
+
+                String key1 = source.getKey(1);
+                String key2 = source.getKey(2);
+
+                //Only the key of the edited level changes
+                copyResource("levels/pairs/level1.txt", directory.resolve("level1.txt"));
+                for (int i = 0; i < 100 && key1.equals(source.getKey(1)); i++) {
+                    Thread.sleep(100);
+                }
+                assertNotEquals(key1, source.getKey(1));
+                assertEquals(key2, source.getKey(2));
+                assertEquals(new Level("levels/pairs/level1.txt").toString(), source.getLevel(1).toString());
+
+                //New level files are counted
+                copyResource("levels/pairs/level2.txt", directory.resolve("level3.txt"));
+                assertEquals(3, source.size());
+            }
+        } catch (IOException | LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("testDirectory failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Directory sources share their watcher")
+    void testSharedWatcher() {
+        try {
+            copyResource("levels/test/level1.txt", directory.resolve("level1.txt"));
+            int watchers = DirectoryLevelSource.getNumWatchers();
+
+            LevelSource first = LevelSource.open(directory.toUri().toString());
+            String key;
+            try (LevelSource second = LevelSource.open(directory.toUri().toString())) {
+                assertEquals(watchers + 1, DirectoryLevelSource.getNumWatchers());
+                key = first.getKey(1);
+                assertEquals(key, second.getKey(1));
+            }
+
+            //The other source keeps watching the folder
+            assertEquals(watchers + 1, DirectoryLevelSource.getNumWatchers());
+            first.close();
+            first.close();
+            assertEquals(watchers, DirectoryLevelSource.getNumWatchers());
+
+            //A change made while nobody watches the folder changes the key of the new sources
+            copyResource("levels/pairs/level1.txt", directory.resolve("level1.txt"));
+            try (LevelSource third = LevelSource.open(directory.toUri().toString())) {
+                assertNotEquals(key, third.getKey(1));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("testSharedWatcher failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Wrong locations")
+    void testWrongLocations() {
+        assertThrows(NullPointerException.class, () -> LevelSource.open("levels/nothing/"));
+        assertThrows(IOException.class, () -> LevelSource.open(directory.resolve("nothing").toUri().toString()));
+    }
+}
@@ -0,0 +1,62 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class LevelTemplateTest {
+
+    private Level level;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            level = new Level("levels/pairs/level1.txt");
+        } catch (LevelException e) {
+            fail("setUp failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - newLevel")
+    void testNewLevel() {
+        LevelTemplate template = new LevelTemplate(level);
+        Level copy = template.newLevel();
+
+        assertEquals(level.getRows(), template.getRows());
+        assertEquals(level.getColumns(), template.getColumns());
+        assertEquals(level.getDifficulty(), template.getDifficulty());
+        assertEquals(level.toString(), copy.toString());
+        assertEquals(level.getNumPairs(), copy.getNumPairs());
+        assertEquals(level.isSolved(), copy.isSolved());
+        assertEquals(0, copy.getNumMoves());
+        assertNotSame(copy, template.newLevel());
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Template is immutable")
+    void testImmutable() {
+        try {
+            String initial = level.toString();
+            LevelTemplate template = new LevelTemplate(level);
+
+            //Moves on the original level or on the new levels do not change the template
+            Level copy = template.newLevel();
+            level.swapCells(new Coordinate(1, 0), new Coordinate(2, 0));
+            copy.swapCells(new Coordinate(1, 2), new Coordinate(1, 3));
+            assertEquals(1, copy.getNumMoves());
+
+            assertEquals(initial, template.newLevel().toString());
+            assertNotEquals(initial, copy.toString());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("testImmutable failed");
+        }
+    }
+}
@@ -12,9 +12,11 @@ import org.junit.jupiter.params.provider.ValueSource;
 import org.junit.platform.commons.support.ModifierSupport;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
@@ -79,8 +81,8 @@ class LevelTest {
     void checkMethodsSanity() {
         //Min 17 methods
         assertTrue(ownClass.getDeclaredMethods().length>=17);
-        //Max 8 public methods
-        assertEquals(8,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isPublic(p.getModifiers())).count());
+        //Max 12 public methods
+        assertEquals(12,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isPublic(p.getModifiers())).count());
         //Max 0 protected methods
         assertEquals(0,Arrays.stream(ownClass.getDeclaredMethods()).filter(p -> Modifier.isProtected(p.getModifiers())).count());
         //Max 0 package-private methods
@@ -90,7 +92,7 @@ class LevelTest {
 
         try {
             //These methods must be private
-            assertTrue(Modifier.isPrivate(ownClass.getDeclaredMethod("setSize", int.class).getModifiers()));
+            assertTrue(Modifier.isPrivate(ownClass.getDeclaredMethod("setSize", int.class, int.class).getModifiers()));
             assertTrue(Modifier.isPrivate(ownClass.getDeclaredMethod("setDifficulty", LevelDifficulty.class).getModifiers()));
             assertTrue(Modifier.isPrivate(ownClass.getDeclaredMethod("setNumMoves", int.class).getModifiers()));
             assertTrue(Modifier.isPrivate(ownClass.getDeclaredMethod("parse",String.class).getModifiers()));
@@ -98,8 +100,8 @@ class LevelTest {
             assertTrue(Modifier.isPrivate(ownClass.getDeclaredMethod("validatePosition", Coordinate.class).getModifiers()));
             assertTrue(Modifier.isPrivate(ownClass.getDeclaredMethod("setCell", Coordinate.class, Cell.class).getModifiers()));
 
-            //Max 1 constructor
-            assertEquals(1,ownClass.getDeclaredConstructors().length);
+            //Max 4 constructors (text resource, input stream, decoded board and checked board)
+            assertEquals(4,ownClass.getDeclaredConstructors().length);
 
             //Constructor
             int modifiers = ownClass.getDeclaredConstructor(String.class).getModifiers();
@@ -126,13 +128,167 @@ class LevelTest {
 
         ex = assertThrows(LevelException.class, () -> new Level("levels/errors/level-error-no-road.txt"));
         assertEquals(LevelException.ERROR_NO_ROAD, ex.getMessage());
+
+        ex = assertThrows(LevelException.class, () -> new Level("levels/errors/level-error-unpaired.txt"));
+        assertEquals(LevelException.ERROR_UNPAIRED_CELLS, ex.getMessage());
+
+        ex = assertThrows(LevelException.class, () -> new Level("levels/errors/level-error-short-row.txt"));
+        assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+        ex = assertThrows(LevelException.class, () -> new Level("levels/errors/level-error-symbol.txt"));
+        assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+        ex = assertThrows(LevelException.class, () -> new Level("levels/errors/level-error-starting-row.txt"));
+        assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+        ex = assertThrows(LevelException.class, () -> new Level("levels/errors/level-error-run.txt"));
+        assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Huge sparse board")
+    void hugeBoard() {
+        try {
+            Level huge = new Level("levels/sparse/level1.txt");
+
+            assertEquals(2048, huge.getRows());
+            assertEquals(2048, huge.getColumns());
+            assertTrue(huge.getBoard() instanceof SparseBoard);
+            assertTrue(((SparseBoard) huge.getBoard()).getStoredCells() < 2100);
+            assertEquals(CellType.FREE, huge.getCell(new Coordinate(1500, 1500)).getType());
+            assertTrue(huge.isSolved());
+            assertEquals(2048, huge.getRoute().size());
+
+            huge.swapCells(new Coordinate(5, 0), new Coordinate(5, 4));
+            assertFalse(huge.isSolved());
+            assertEquals(CellType.HORIZONTAL, huge.getCell(new Coordinate(5, 0)).getType());
+            huge.swapCells(new Coordinate(5, 0), new Coordinate(5, 4));
+            assertTrue(huge.isSolved());
+
+            huge.rotateCell(new Coordinate(1000, 0));
+            assertFalse(huge.isSolved());
+            assertTrue(huge.getRoute().isEmpty());
+            huge.rotateCell(new Coordinate(1000, 0));
+            assertTrue(huge.isSolved());
+            assertEquals(4, huge.getNumMoves());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("hugeBoard failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Huge tiled board")
+    void hugeTiledBoard() {
+        try {
+            Level huge = new Level("levels/sparse/level1.txt");
+            Board board = new TiledBoard(huge.getBoard().size(), CellType.FREE.ordinal());
+            for (int index = 0; index < board.size(); index++) {
+                board.set(index, huge.getBoard().get(index));
+            }
+
+            Level tiled = new Level(huge.getRows(), huge.getColumns(), huge.getDifficulty(), board,
+                    huge.getStartColumns(), huge.getFinishColumns(), true);
+
+            assertEquals(CellType.FREE, tiled.getCell(new Coordinate(1500, 1500)).getType());
+            assertTrue(tiled.isSolved());
+            assertEquals(2048, tiled.getRoute().size());
+
+            tiled.swapCells(new Coordinate(5, 0), new Coordinate(5, 4));
+            assertFalse(tiled.isSolved());
+            tiled.swapCells(new Coordinate(5, 0), new Coordinate(5, 4));
+            assertTrue(tiled.isSolved());
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("hugeTiledBoard failed");
+        }
     }
 
     @Test
     @Tag("minimum")
-    @DisplayName("Minimum - getSize")
+    @DisplayName("Minimum - Run-length encoded rows")
+    void runLengthRows() {
+        try {
+            Level encoded = new Level("levels/rle/level1.txt");
+            Level expanded = new Level("levels/rle/level1-expanded.txt");
+
+            assertEquals(6, encoded.getRows());
+            assertEquals(12, encoded.getColumns());
+            assertEquals(expanded.toString(), encoded.toString());
+            assertEquals(expanded.isSolved(), encoded.isSolved());
+            assertEquals(CellType.FREE, encoded.getCell(new Coordinate(0, 11)).getType());
+            assertEquals(CellType.MOUNTAINS, encoded.getCell(new Coordinate(2, 7)).getType());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("runLengthRows failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - getRows and getColumns")
     void getSize() {
-        assertEquals(4, level.getSize());
+        assertEquals(4, level.getRows());
+        assertEquals(4, level.getColumns());
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - toString of large boards")
+    void largeToString() {
+        try {
+            String[] lines = new Level("levels/large/level1.txt").toString().split(System.lineSeparator());
+            //Line separator, hundreds, tens, units and 120 rows
+            assertEquals(124, lines.length);
+            assertEquals("   " + " ".repeat(99) + "1".repeat(21), lines[1]);
+            assertEquals("   " + " ".repeat(9) + "1".repeat(10) + "2".repeat(10), lines[2].substring(0, 32));
+            assertEquals("   1234567890", lines[3].substring(0, 13));
+            assertEquals("7890", lines[3].substring(119));
+            assertTrue(lines[4].startsWith(" a|"));
+            assertTrue(lines[30].startsWith("aa|"));
+            assertTrue(lines[123].startsWith("dp|"));
+            for (int i = 1; i < lines.length; i++) {
+                assertEquals(123, lines[i].length());
+            }
+        } catch (LevelException e) {
+            fail("largeToString failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - rectangular boards")
+    void rectangularBoards() {
+        try {
+            level = new Level("levels/rectangular/level1.txt");
+            assertEquals(3, level.getRows());
+            assertEquals(8, level.getColumns());
+            assertEquals(CellType.FINISH, level.getCell(new Coordinate(0,7)).getType());
+            assertEquals(CellType.TOP_LEFT, level.getCell(new Coordinate(1,7)).getType());
+            assertThrows(LevelException.class, () -> level.getCell(new Coordinate(3,0)));
+            assertFalse(level.isSolved());
+            level.swapCells(new Coordinate(1,0), new Coordinate(1,1));
+            assertTrue(level.isSolved());
+            assertEquals(10, level.getRoute().size());
+            assertEquals("12345678"+System.lineSeparator()
+                    +"a|·······v"+System.lineSeparator()
+                    +"b|╔══════╝"+System.lineSeparator()
+                    +"c|^·······", level.toString().trim());
+
+            level = new Level("levels/rectangular/level2.txt");
+            assertEquals(6, level.getRows());
+            assertEquals(3, level.getColumns());
+            assertFalse(level.isSolved());
+            level.rotateCell(new Coordinate(2,1));
+            assertTrue(level.isSolved());
+            assertEquals(6, level.getRoute().size());
+        } catch (LevelException e) {
+            fail("rectangularBoards failed");
+            e.printStackTrace();
+        }
     }
 
     @Test
@@ -267,6 +423,86 @@ class LevelTest {
         }
     }
 
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - getRoute")
+    void getRoute() {
+        try {
+            assertTrue(level.getRoute().isEmpty());
+            level.swapCells(new Coordinate(1,0),new Coordinate(2,0));
+            level.swapCells(new Coordinate(2,1),new Coordinate(2,2));
+            assertTrue(level.getRoute().isEmpty());
+            level.swapCells(new Coordinate(1,2),new Coordinate(2,2));
+            assertEquals(List.of(new Coordinate(3,3), new Coordinate(2,3), new Coordinate(2,2),
+                    new Coordinate(2,1), new Coordinate(1,1), new Coordinate(1,0),
+                    new Coordinate(0,0)), level.getRoute());
+            assertSame(level.getRoute(), level.getRoute());
+            assertTrue(level.isSolved());
+            assertThrows(UnsupportedOperationException.class, () -> level.getRoute().clear());
+
+            List<Coordinate> route = level.getRoute();
+            level.rotateCell(new Coordinate(1,3));
+            assertNotSame(route, level.getRoute());
+            assertEquals(route, level.getRoute());
+
+            level.swapCells(new Coordinate(1,2),new Coordinate(2,2));
+            assertFalse(level.isSolved());
+            assertTrue(level.getRoute().isEmpty());
+        } catch (LevelException e) {
+            fail("getRoute failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - isSolved with junctions")
+    void isSolvedJunctions() {
+        try {
+            level = new Level("levels/junctions/level1.txt");
+            assertTrue(level.isSolved());
+            assertEquals(List.of(new Coordinate(4,0), new Coordinate(3,0), new Coordinate(2,0),
+                    new Coordinate(1,0), new Coordinate(0,0)), level.getRoute());
+
+            level = new Level("levels/junctions/level2.txt");
+            assertFalse(level.isSolved());
+            level.swapCells(new Coordinate(0,0),new Coordinate(1,2));
+            assertTrue(level.isSolved());
+            assertEquals(5, level.getRoute().size());
+        } catch (LevelException e) {
+            fail("isSolvedJunctions failed");
+            e.printStackTrace();
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - isSolved with several pairs")
+    void isSolvedPairs() {
+        try {
+            level = new Level("levels/pairs/level1.txt");
+            assertEquals(2, level.getNumPairs());
+            assertTrue(level.isSolved());
+            assertEquals(5, level.getRoute(1).size());
+            assertEquals(new Coordinate(4,2), level.getRoute(1).get(0));
+            assertEquals(new Coordinate(0,2), level.getRoute(1).get(4));
+
+            level.rotateCell(new Coordinate(2,2));
+            assertFalse(level.isSolved());
+            assertEquals(5, level.getRoute(0).size());
+            assertTrue(level.getRoute(1).isEmpty());
+
+            level = new Level("levels/pairs/level2.txt");
+            assertFalse(level.isSolved());
+            assertEquals(List.of(new Coordinate(4,0), new Coordinate(3,0), new Coordinate(2,0),
+                    new Coordinate(1,0), new Coordinate(0,0)), level.getRoute());
+            assertTrue(level.getRoute(1).isEmpty());
+        } catch (LevelException e) {
+            fail("isSolvedPairs failed");
+            e.printStackTrace();
+        }
+    }
+
     @ParameterizedTest
     @ValueSource(ints = {1,2,3,4,5,6,7,8,9})
     @Tag("advanced")
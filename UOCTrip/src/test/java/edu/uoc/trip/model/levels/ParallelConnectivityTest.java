@@ -0,0 +1,159 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class ParallelConnectivityTest {
+
+    private static final int ROWS = 60;
+
+    private static final int COLUMNS = 40;
+
+    private static final int[] START_COLUMNS = {3, 20, 37};
+
+    private static final int[] FINISH_COLUMNS = {10, 5, 30};
+
+    private static final CellType[] ROADS = {CellType.CROSS, CellType.VERTICAL, CellType.HORIZONTAL,
+            CellType.TOP_LEFT, CellType.BOTTOM_RIGHT, CellType.JUNCTION_TOP, CellType.JUNCTION_LEFT,
+            CellType.FREE, CellType.MOUNTAINS};
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterAll
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Builds a random board where most cells are crosses, so some boards are solved and some are not.
+     */
+    private Board randomBoard(Random random) {
+        Board board = new DenseBoard(ROWS * COLUMNS);
+
+        for (int index = 0; index < board.size(); index++) {
+            CellType type = random.nextInt(4) == 0 ? ROADS[1 + random.nextInt(ROADS.length - 1)] : CellType.CROSS;
+            board.set(index, type.ordinal());
+        }
+        for (int pair = 0; pair < START_COLUMNS.length; pair++) {
+            board.set((ROWS - 1) * COLUMNS + START_COLUMNS[pair], CellType.START.ordinal());
+            board.set(FINISH_COLUMNS[pair], CellType.FINISH.ordinal());
+        }
+        return board;
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Parallel check matches the sequential one")
+    void randomBoards() {
+        Random random = new Random(7);
+        int solved = 0;
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                Board board = randomBoard(random);
+                Level level = new Level(ROWS, COLUMNS, LevelDifficulty.EXPERT, board, START_COLUMNS.clone(),
+                        FINISH_COLUMNS.clone(), true);
+                boolean expected = level.isSolved();
+                int[] parent = new int[board.size()];
+
+                //Stripes of several heights, including stripes of one row and a single stripe
+                for (int stripeRows : new int[]{1, 7, 13, ROWS}) {
+                    assertEquals(expected, ParallelConnectivity.isSolved(board, ROWS, COLUMNS, START_COLUMNS,
+                            FINISH_COLUMNS, parent, pool, stripeRows));
+                }
+                assertEquals(expected, ParallelConnectivity.isSolved(board, ROWS, COLUMNS, START_COLUMNS,
+                        FINISH_COLUMNS, parent, pool));
+
+                solved += expected ? 1 : 0;
+            }
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("randomBoards failed");
+        }
+
+        //Both kinds of board are tested
+        assertTrue(solved > 0 && solved < 200);
+    }
+
+    /**
+     * Writes a road that goes down the first column, right along the last row, up the column before the last one
+     * and down the last one, so it crosses every border of the stripes several times.
+     */
+    private Board snakeBoard(Board board) {
+        board.fill(0, board.size(), CellType.FREE.ordinal());
+
+        //Down the first column, right along the last row, up the column before the last one and down the last one
+        board.set(0, CellType.FINISH.ordinal());
+        for (int row = 1; row < ROWS - 1; row++) {
+            board.set(row * COLUMNS, CellType.VERTICAL.ordinal());
+            board.set(row * COLUMNS + COLUMNS - 2, CellType.VERTICAL.ordinal());
+            board.set(row * COLUMNS + COLUMNS - 1, CellType.VERTICAL.ordinal());
+        }
+        board.set((ROWS - 1) * COLUMNS, CellType.TOP_RIGHT.ordinal());
+        board.fill((ROWS - 1) * COLUMNS + 1, ROWS * COLUMNS - 2, CellType.HORIZONTAL.ordinal());
+        board.set(ROWS * COLUMNS - 2, CellType.TOP_LEFT.ordinal());
+        board.set(COLUMNS - 2, CellType.BOTTOM_RIGHT.ordinal());
+        board.set(COLUMNS - 1, CellType.BOTTOM_LEFT.ordinal());
+        board.set(ROWS * COLUMNS - 1, CellType.START.ordinal());
+        return board;
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Road that crosses every border of the stripes")
+    void snake() {
+        Board board = snakeBoard(new DenseBoard(ROWS * COLUMNS));
+
+        int[] starts = {COLUMNS - 1};
+        int[] finishes = {0};
+        int[] parent = new int[board.size()];
+
+        for (int stripeRows : new int[]{1, 5, ROWS}) {
+            assertTrue(ParallelConnectivity.isSolved(board, ROWS, COLUMNS, starts, finishes, parent, pool,
+                    stripeRows));
+        }
+
+        //A cell just below a border of the stripes is cut
+        board.set(10 * COLUMNS + COLUMNS - 2, CellType.HORIZONTAL.ordinal());
+        for (int stripeRows : new int[]{1, 5, ROWS}) {
+            assertFalse(ParallelConnectivity.isSolved(board, ROWS, COLUMNS, starts, finishes, parent, pool,
+                    stripeRows));
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Parallel check of every kind of board")
+    void boardKinds() {
+        try {
+            int[] starts = {COLUMNS - 1};
+            int[] finishes = {0};
+            int[] parent = new int[ROWS * COLUMNS];
+
+            //The stripes read any board through the Board interface...
+            for (Board board : new Board[]{snakeBoard(new DenseBoard(ROWS * COLUMNS)),
+                    snakeBoard(new SparseBoard(ROWS * COLUMNS, CellType.FREE.ordinal())),
+                    snakeBoard(new TiledBoard(ROWS * COLUMNS, CellType.FREE.ordinal()))}) {
+                assertTrue(ParallelConnectivity.isSolved(board, ROWS, COLUMNS, starts, finishes, parent, pool, 7));
+                board.set(10 * COLUMNS + COLUMNS - 2, CellType.HORIZONTAL.ordinal());
+                assertFalse(ParallelConnectivity.isSolved(board, ROWS, COLUMNS, starts, finishes, parent, pool, 7));
+            }
+
+            //...but the levels only use the check with dense boards, as the forest needs one int per cell
+            assertTrue(ParallelConnectivity.isSupported(new DenseBoard(1)));
+            assertFalse(ParallelConnectivity.isSupported(new SparseBoard(1, CellType.FREE.ordinal())));
+            assertFalse(ParallelConnectivity.isSupported(new TiledBoard(1, CellType.FREE.ordinal())));
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("boardKinds failed");
+        }
+    }
+}
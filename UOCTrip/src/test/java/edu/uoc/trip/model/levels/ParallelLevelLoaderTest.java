@@ -0,0 +1,194 @@
+package edu.uoc.trip.model.levels;
+
+import edu.uoc.trip.model.cells.CellType;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class ParallelLevelLoaderTest {
+
+    private static final int SIZE = 600;
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        try {
+            file = Files.createTempFile("level", ".txt");
+        } catch (IOException e) {
+            fail("setUp failed");
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @AfterAll
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private Path getResource(String name) throws URISyntaxException {
+        return Path.of(Objects.requireNonNull(getClass().getClassLoader().getResource(name)).toURI());
+    }
+
+    /**
+     * Writes a big level with a road in the first column, comments between the rows and run-length encoded rows.
+     *
+     * @param wrongRow Row where a starting cell is wrongly placed, or -1.
+     */
+    private void writeBigLevel(int wrongRow) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# Big level").append(System.lineSeparator())
+                .append(SIZE).append(System.lineSeparator())
+                .append("EXPERT").append(System.lineSeparator());
+
+        for (int row = 0; row < SIZE; row++) {
+            if (row % 50 == 0) {
+                sb.append("# rows ").append(row).append(System.lineSeparator()).append(System.lineSeparator());
+            }
+            sb.append(row == 0 ? 'F' : row == SIZE - 1 ? 'S' : 'V');
+            if (row == wrongRow) {
+                sb.append('S').append(SIZE - 2).append('·');
+            } else if (row % 2 == 0) {
+                sb.append(SIZE - 1).append('·');
+            } else {
+                sb.append("M~".repeat((SIZE - 2) / 2)).append('G');
+            }
+            sb.append(System.lineSeparator());
+        }
+
+        Files.writeString(file, sb.toString());
+    }
+
+    /**
+     * Writes a huge level filled with mountains, with a road in the first column.
+     *
+     * @param size Number of rows and columns.
+     */
+    private void writeMountainLevel(int size) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append(size).append(System.lineSeparator())
+                .append("MASTER").append(System.lineSeparator());
+
+        for (int row = 0; row < size; row++) {
+            sb.append(row == 0 ? 'F' : row == size - 1 ? 'S' : 'V')
+                    .append(size - 1).append('M').append(System.lineSeparator());
+        }
+
+        Files.writeString(file, sb.toString());
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Same result as Level")
+    void testSameResult() {
+        try {
+            for (String resource : new String[]{"levels/test/level1.txt", "levels/pairs/level2.txt",
+                    "levels/rectangular/level2.txt", "levels/junctions/level1.txt", "levels/rle/level1.txt"}) {
+                Level level = new Level(resource);
+                Level parallel = ParallelLevelLoader.load(getResource(resource), pool);
+
+                assertEquals(level.toString(), parallel.toString());
+                assertEquals(level.getDifficulty(), parallel.getDifficulty());
+                assertEquals(level.getNumPairs(), parallel.getNumPairs());
+                assertEquals(level.isSolved(), parallel.isSolved());
+            }
+        } catch (IOException | LevelException | URISyntaxException e) {
+            e.printStackTrace();
+            fail("testSameResult failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Huge level filled with mountains")
+    void testMountainLevel() {
+        try {
+            writeMountainLevel(2048);
+
+            //Both loaders store the level as a sparse board of mountains
+            Level parallel = ParallelLevelLoader.load(file, pool);
+            Level level;
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                level = new Level(inputStream);
+            }
+
+            for (Level loaded : new Level[]{parallel, level}) {
+                assertTrue(loaded.getBoard() instanceof SparseBoard);
+                assertEquals(2048, ((SparseBoard) loaded.getBoard()).getStoredCells());
+                assertEquals(CellType.MOUNTAINS, loaded.getCell(new Coordinate(1500, 1500)).getType());
+                assertEquals(CellType.VERTICAL, loaded.getCell(new Coordinate(1500, 0)).getType());
+                assertTrue(loaded.isSolved());
+            }
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("testMountainLevel failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Big level")
+    void testBigLevel() {
+        try {
+            writeBigLevel(-1);
+
+            Level parallel = ParallelLevelLoader.load(file, pool);
+            Level level;
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                level = new Level(inputStream);
+            }
+
+            assertEquals(SIZE, parallel.getRows());
+            assertEquals(SIZE, parallel.getColumns());
+            assertEquals(LevelDifficulty.EXPERT, parallel.getDifficulty());
+            assertEquals(level.toString(), parallel.toString());
+            assertTrue(parallel.isSolved());
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("testBigLevel failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Errors")
+    void testErrors() {
+        try {
+            //Starting cell far from the last row
+            writeBigLevel(SIZE / 2);
+            LevelException ex = assertThrows(LevelException.class, () -> ParallelLevelLoader.load(file, pool));
+            assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+
+            for (String name : new String[]{"level-error-short-row.txt", "level-error-symbol.txt",
+                    "level-error-starting-row.txt", "level-error-run.txt"}) {
+                Path resource = getResource("levels/errors/" + name);
+                ex = assertThrows(LevelException.class, () -> ParallelLevelLoader.load(resource, pool));
+                assertEquals(LevelException.ERROR_PARSING_LEVEL_FILE, ex.getMessage());
+            }
+
+            Path resource = getResource("levels/errors/level-error-unpaired.txt");
+            ex = assertThrows(LevelException.class, () -> ParallelLevelLoader.load(resource, pool));
+            assertEquals(LevelException.ERROR_UNPAIRED_CELLS, ex.getMessage());
+        } catch (IOException | URISyntaxException e) {
+            e.printStackTrace();
+            fail("testErrors failed");
+        }
+    }
+}
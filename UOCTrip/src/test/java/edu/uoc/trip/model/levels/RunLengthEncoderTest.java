@@ -0,0 +1,72 @@
+package edu.uoc.trip.model.levels;
+
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class RunLengthEncoderTest {
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - encodeRow")
+    void testEncodeRow() {
+        assertEquals("F11·", RunLengthEncoder.encodeRow("F···········"));
+        assertEquals("r3H~~MM", RunLengthEncoder.encodeRow("rHHH~~MM"));
+        assertEquals("·M·S", RunLengthEncoder.encodeRow("·M·S"));
+        assertEquals("", RunLengthEncoder.encodeRow(""));
+
+        //Already encoded rows
+        assertEquals("12·", RunLengthEncoder.encodeRow("10···"));
+        assertEquals("r3H3~MMHHL", RunLengthEncoder.encodeRow(RunLengthEncoder.encodeRow("r3H3~2MHHL")));
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - encode files")
+    void testEncodeFile() {
+        try {
+            Path file = Files.createTempFile("level", ".txt");
+            try {
+                for (String resource : new String[]{"levels/rle/level1-expanded.txt", "levels/test/level1.txt",
+                        "levels/rectangular/level2.txt"}) {
+                    try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader()
+                            .getResourceAsStream(resource))) {
+                        Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+                    }
+
+                    RunLengthEncoder.encode(file, file);
+
+                    try (InputStream inputStream = Files.newInputStream(file)) {
+                        assertEquals(new Level(resource).toString(), new Level(inputStream).toString());
+                    }
+                }
+
+                assertTrue(Files.readString(file).contains("# difficulty"));
+
+                //Long runs make the file smaller
+                try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader()
+                        .getResourceAsStream("levels/rle/level1-expanded.txt"))) {
+                    Files.copy(inputStream, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+                long size = Files.size(file);
+                RunLengthEncoder.encode(file, file);
+                assertTrue(Files.size(file) < size);
+                assertTrue(Files.readString(file).contains("F11·"));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("testEncodeFile failed");
+        }
+    }
+}
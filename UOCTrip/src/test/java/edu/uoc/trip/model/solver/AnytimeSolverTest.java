@@ -0,0 +1,232 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class AnytimeSolverTest {
+
+    /**
+     * Checks that each solution solves the level and has fewer moves than the previous one.
+     */
+    private void checkImprovements(String fileName, List<Solution> solutions) throws LevelException {
+        for (int i = 0; i < solutions.size(); i++) {
+            Level level = new Level(fileName);
+            solutions.get(i).apply(level);
+            assertTrue(level.isSolved(), fileName);
+
+            if (i > 0) {
+                assertTrue(solutions.get(i).getNumMoves() < solutions.get(i - 1).getNumMoves());
+            }
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Improving solutions")
+    void improvingSolutions() {
+        try {
+            for (String fileName : List.of("levels/level1.txt", "levels/level5.txt", "levels/level7.txt")) {
+                List<Solution> solutions = new ArrayList<>();
+                Level level = new Level(fileName);
+                String initial = level.toString();
+
+                Optional<Solution> best = new AnytimeSolver().solve(level, Instant.now().plusSeconds(10),
+                        solutions::add);
+
+                assertTrue(best.isPresent(), fileName);
+                assertFalse(solutions.isEmpty());
+                assertSame(solutions.get(solutions.size() - 1), best.get());
+                assertEquals(initial, level.toString());
+                checkImprovements(fileName, solutions);
+            }
+
+            //A single swap solves the first level, so the search ends as soon as it is found
+            Optional<Solution> solution = new AnytimeSolver().solve(new Level("levels/level1.txt"));
+            assertTrue(solution.isPresent());
+            assertTrue(solution.get().isOptimal());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("improvingSolutions failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Deadline")
+    void deadline() {
+        try {
+            Level level = new Level("levels/large/level1.txt");
+            long start = System.nanoTime();
+
+            Optional<Solution> solution = new AnytimeSolver(Duration.ofMillis(300)).solve(level);
+
+            //The first solution is found quickly and the beam searches stop at the deadline
+            assertTrue(solution.isPresent());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            assertFalse(Thread.currentThread().isInterrupted());
+
+            solution.get().apply(level);
+            assertTrue(level.isSolved());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("deadline failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Cancellation")
+    void cancellation() {
+        try {
+            Level level = new Level("levels/large/level1.txt");
+
+            Thread.currentThread().interrupt();
+            try {
+                assertTrue(new AnytimeSolver().solve(level).isEmpty());
+                assertTrue(Thread.currentThread().isInterrupted());
+
+                //The caller's interruption is kept when the deadline is also reached
+                assertTrue(new AnytimeSolver().solve(level, Instant.now().minusSeconds(1), solution -> {
+                }).isEmpty());
+                assertTrue(Thread.currentThread().isInterrupted());
+            } finally {
+                Thread.interrupted();
+            }
+
+            assertTrue(new AnytimeSolver().solve(new Level("levels/rle/level1.txt")).isEmpty());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("cancellation failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Publisher")
+    void publisher() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Level level = new Level("levels/level7.txt");
+            Flow.Publisher<Solution> publisher = new AnytimeSolver().publisher(level, Instant.now().plusSeconds(10),
+                    executor);
+            List<Solution> solutions = new ArrayList<>();
+            CountDownLatch completed = new CountDownLatch(1);
+
+            //Later changes of the level must not change the search
+            level.swapCells(new Coordinate(3, 0), new Coordinate(3, 2));
+
+            publisher.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(Solution item) {
+                    synchronized (solutions) {
+                        solutions.add(item);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    completed.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    completed.countDown();
+                }
+            });
+
+            assertTrue(completed.await(20, TimeUnit.SECONDS));
+            synchronized (solutions) {
+                assertFalse(solutions.isEmpty());
+                checkImprovements("levels/level7.txt", solutions);
+            }
+        } catch (LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("publisher failed");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Cancelled subscription")
+    void cancelledSubscription() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Level level = new Level("levels/large/level1.txt");
+            Flow.Publisher<Solution> publisher = new AnytimeSolver().publisher(level, Instant.now().plusSeconds(60),
+                    executor);
+            CountDownLatch cancelled = new CountDownLatch(1);
+
+            //The subscriber cancels as soon as it gets the first solution, during the first beam searches
+            publisher.subscribe(new Flow.Subscriber<>() {
+                private Flow.Subscription subscription;
+
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    this.subscription = subscription;
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(Solution item) {
+                    subscription.cancel();
+                    cancelled.countDown();
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                }
+
+                @Override
+                public void onComplete() {
+                }
+            });
+
+            //Without subscribers nothing else is delivered, so the executor ends when the search stops,
+            //long before its deadline
+            assertTrue(cancelled.await(20, TimeUnit.SECONDS));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(20, TimeUnit.SECONDS));
+        } catch (LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("cancelledSubscription failed");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Budget")
+    void budget() {
+        assertEquals(AnytimeSolver.DEFAULT_BUDGET, new AnytimeSolver().getBudget());
+        assertEquals(Duration.ofMillis(50), new AnytimeSolver(Duration.ofMillis(50)).getBudget());
+        assertThrows(IllegalArgumentException.class, () -> new AnytimeSolver(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new AnytimeSolver(Duration.ofSeconds(-1)));
+    }
+}
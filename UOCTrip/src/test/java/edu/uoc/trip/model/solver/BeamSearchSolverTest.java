@@ -0,0 +1,128 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static edu.uoc.trip.model.solver.SolverAssertions.assertSolves;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class BeamSearchSolverTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"levels/level1.txt", "levels/level2.txt", "levels/level3.txt", "levels/level4.txt",
+            "levels/level5.txt", "levels/level6.txt", "levels/level7.txt", "levels/pairs/level1.txt",
+            "levels/junctions/level1.txt", "levels/solved/level1.txt"})
+    @Tag("advanced")
+    @DisplayName("Advanced - Small levels")
+    void smallLevels(String fileName) {
+        try {
+            assertEquals(BeamSearchSolver.DEFAULT_WIDTH, assertSolves(new BeamSearchSolver(), fileName).getBeamWidth());
+            assertEquals(8, assertSolves(new BeamSearchSolver(8), fileName).getBeamWidth());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("smallLevels failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Lower bound")
+    void lowerBound() {
+        try {
+            //A single swap solves the first level, so the bound proves that the solution is optimal
+            Solution solution = assertSolves(new BeamSearchSolver(), "levels/level1.txt");
+            assertEquals(1, solution.getNumMoves());
+            assertTrue(solution.isOptimal());
+            assertEquals(0, solution.getGap());
+
+            Solution solved = assertSolves(new BeamSearchSolver(), "levels/solved/level1.txt");
+            assertEquals(0, solved.getNumMoves());
+            assertTrue(solved.isOptimal());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("lowerBound failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Large level")
+    void largeLevel() {
+        try {
+            Solution solution = assertSolves(new BeamSearchSolver(16), "levels/large/level1.txt");
+
+            //Every move of the beam extends or redirects a road at one of its ends, so there are about as many
+            //moves as cells in the route, which is shorter than the perimeter of the 120x120 board
+            assertTrue(solution.getNumMoves() <= 4 * 120, solution.toString());
+            assertTrue(solution.getLowerBound() > 0);
+            assertTrue(solution.getGap() < solution.getNumMoves());
+            assertEquals(16, solution.getBeamWidth());
+            assertTrue(solution.toString().contains("beam width 16"), solution.toString());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("largeLevel failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Level without solution")
+    void unsolvable() {
+        try {
+            //The deadlock analysis rejects this level before the first beam is built
+            Level level = new Level("levels/rle/level1.txt");
+            assertTrue(new BeamSearchSolver(8).solve(level).isEmpty());
+            assertEquals(0, level.getNumMoves());
+
+            //The last level needs at least three moves
+            assertTrue(new BeamSearchSolver(8, 2).solve(new Level("levels/level7.txt")).isEmpty());
+            assertTrue(new BeamSearchSolver(8, 10).solve(new Level("levels/level7.txt")).isPresent());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("unsolvable failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Width")
+    void width() {
+        assertEquals(BeamSearchSolver.DEFAULT_WIDTH, new BeamSearchSolver().getWidth());
+        assertEquals(8, new BeamSearchSolver(8).getWidth());
+        assertEquals(0, new BeamSearchSolver(8).getMaximumDepth());
+        assertEquals(20, new BeamSearchSolver(8, 20).getMaximumDepth());
+        assertThrows(IllegalArgumentException.class, () -> new BeamSearchSolver(0));
+        assertThrows(IllegalArgumentException.class, () -> new BeamSearchSolver(8, -1));
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Cancellation")
+    void cancellation() {
+        try {
+            Level level = new Level("levels/large/level1.txt");
+
+            Thread.currentThread().interrupt();
+            try {
+                assertTrue(new BeamSearchSolver().solve(level).isEmpty());
+            } finally {
+                Thread.interrupted();
+            }
+
+            //Any stop signal is checked at each level of the beam, even with the widest beams
+            AtomicInteger checks = new AtomicInteger();
+            assertTrue(new BeamSearchSolver(4096).solve(level, () -> checks.incrementAndGet() > 2).isEmpty());
+            assertEquals(3, checks.get());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("cancellation failed");
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class DeadlockAnalysisTest {
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Walled cells")
+    void walledCells() {
+        try {
+            Level level = new Level("levels/level3.txt");
+            String initial = level.toString();
+            DeadlockAnalysis analysis = new DeadlockAnalysis(level);
+
+            assertEquals(initial, level.toString());
+            assertEquals(10, analysis.getNumDeadCells());
+            assertEquals(analysis.getNumDeadCells(), analysis.getDeadCells().size());
+
+            //Mountains and rivers
+            assertTrue(analysis.isDead(0, 0));
+            assertTrue(analysis.isDead(1, 1));
+            //Walled in by the finish cell and the mountains
+            assertTrue(analysis.isDead(0, 3));
+            //The board has no piece that turns from there towards the finish cell
+            assertTrue(analysis.isDead(2, 3));
+            assertTrue(analysis.getDeadCells().contains(new Coordinate(2, 3)));
+
+            assertFalse(analysis.isDead(3, 0));
+            assertFalse(analysis.isDead(0, 2));
+            assertFalse(analysis.isDead(1, 2));
+            assertFalse(analysis.isDead(2, 0));
+            assertFalse(analysis.isUnsolvable());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("walledCells failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Useful moves")
+    void usefulMoves() {
+        try {
+            DeadlockAnalysis analysis = new DeadlockAnalysis(new Level("levels/level3.txt"));
+
+            assertFalse(analysis.isUseful(Move.rotate(new Coordinate(2, 3))));
+            assertFalse(analysis.isUseful(Move.swap(new Coordinate(2, 3), new Coordinate(3, 3))));
+            assertTrue(analysis.isUseful(Move.swap(new Coordinate(2, 3), new Coordinate(2, 2))));
+            assertTrue(analysis.isUseful(Move.swap(new Coordinate(2, 2), new Coordinate(2, 3))));
+            assertTrue(analysis.isUseful(Move.swap(new Coordinate(2, 1), new Coordinate(2, 2))));
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("usefulMoves failed");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"levels/level1.txt", "levels/level2.txt", "levels/level3.txt", "levels/level4.txt",
+            "levels/level5.txt", "levels/level6.txt", "levels/level7.txt", "levels/pairs/level1.txt",
+            "levels/junctions/level1.txt", "levels/solved/level1.txt"})
+    @Tag("advanced")
+    @DisplayName("Advanced - Solutions only need useful moves and live cells")
+    void solutions(String fileName) {
+        try {
+            Level level = new Level(fileName);
+            DeadlockAnalysis analysis = new DeadlockAnalysis(level);
+            Optional<Solution> solution = new HierarchicalSolver().solve(level);
+
+            assertFalse(analysis.isUnsolvable(), fileName);
+            assertTrue(solution.isPresent(), fileName);
+            for (Move move : solution.get().getMoves()) {
+                assertTrue(analysis.isUseful(move), fileName + " " + move);
+            }
+
+            solution.get().apply(level);
+            for (int pair = 0; pair < level.getNumPairs(); pair++) {
+                for (Coordinate coordinate : level.getRoute(pair)) {
+                    assertFalse(analysis.isDead(coordinate.getRow(), coordinate.getColumn()),
+                            fileName + " " + coordinate);
+                }
+            }
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("solutions failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Unsolvable level")
+    void unsolvable() {
+        try {
+            //Counting the pieces by connection: the route needs four with a connection towards UP,
+            //and the board only has three
+            assertTrue(new DeadlockAnalysis(new Level("levels/rle/level1.txt")).isUnsolvable());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("unsolvable failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Large level")
+    void largeLevel() {
+        try {
+            Level level = new Level("levels/large/level1.txt");
+            DeadlockAnalysis analysis = new DeadlockAnalysis(level);
+
+            assertFalse(analysis.isUnsolvable());
+            assertTrue(analysis.getNumDeadCells() > 0);
+            assertTrue(analysis.getNumDeadCells() < level.getRows() * level.getColumns());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("largeLevel failed");
+        }
+    }
+}
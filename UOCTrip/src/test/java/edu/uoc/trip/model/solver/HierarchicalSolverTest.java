@@ -0,0 +1,111 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static edu.uoc.trip.model.solver.SolverAssertions.assertSolves;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class HierarchicalSolverTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"levels/level1.txt", "levels/level2.txt", "levels/level3.txt", "levels/level4.txt",
+            "levels/level5.txt", "levels/level6.txt", "levels/level7.txt", "levels/pairs/level1.txt",
+            "levels/junctions/level1.txt", "levels/solved/level1.txt"})
+    @Tag("advanced")
+    @DisplayName("Advanced - Small levels")
+    void smallLevels(String fileName) {
+        try {
+            assertSolves(new HierarchicalSolver(), fileName);
+            assertSolves(new HierarchicalSolver(2), fileName);
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("smallLevels failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Large level")
+    void largeLevel() {
+        try {
+            Solution solution = assertSolves(new HierarchicalSolver(), "levels/large/level1.txt");
+
+            //The planner moves at most one piece into each cell of the planned routes, whose cells are fewer
+            //than the perimeter of the 120x120 board
+            assertTrue(solution.getNumMoves() <= 4 * 120, solution.toString());
+            assertFalse(solution.isOptimal());
+
+            Solution other = assertSolves(new HierarchicalSolver(16), "levels/large/level1.txt");
+            assertTrue(other.getNumMoves() <= 4 * 120);
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("largeLevel failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Level without solution")
+    void unsolvable() {
+        try {
+            //The board runs out of pieces for every plan of the route, so the solver gives up after its replans
+            Level level = new Level("levels/rle/level1.txt");
+            assertTrue(new HierarchicalSolver().solve(level).isEmpty());
+            assertEquals(0, level.getNumMoves());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("unsolvable failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Cancellation")
+    void cancellation() {
+        try {
+            Level level = new Level("levels/large/level1.txt");
+
+            Thread.currentThread().interrupt();
+            try {
+                assertTrue(new HierarchicalSolver().solve(level).isEmpty());
+            } finally {
+                Thread.interrupted();
+            }
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("cancellation failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Moves and solutions")
+    void moves() {
+        Move swap = Move.swap(new Coordinate(1, 2),
+                new Coordinate(3, 4));
+        Move rotate = Move.rotate(new Coordinate(5, 6));
+
+        assertEquals("swap 1 2 3 4", swap.toString());
+        assertEquals("rotate 5 6", rotate.toString());
+        assertEquals(Move.Type.ROTATE, rotate.getType());
+        assertNull(rotate.getSecond());
+        assertEquals(swap, Move.swap(new Coordinate(1, 2),
+                new Coordinate(3, 4)));
+
+        Solution solution = new Solution(List.of(swap, rotate), 2);
+        assertTrue(solution.isOptimal());
+        assertThrows(IllegalArgumentException.class, () -> new Solution(List.of(swap), 2));
+        assertEquals(0, solution.getBeamWidth());
+        assertThrows(IllegalArgumentException.class, () -> new Solution(List.of(swap), 1, -1));
+        assertThrows(UnsupportedOperationException.class, () -> solution.getMoves().add(swap));
+    }
+}
@@ -0,0 +1,154 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.cells.Cell;
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.levels.LevelTemplate;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class HintEngineTest {
+
+    /**
+     * Checks that the plan solves a copy of the level in its current state.
+     */
+    private void checkPlan(Level level, List<Move> plan) throws LevelException {
+        Level copy = new LevelTemplate(level).newLevel();
+        for (Move move : plan) {
+            move.apply(copy);
+        }
+        assertTrue(copy.isSolved());
+    }
+
+    /**
+     * Returns a swap of two movable cells with different pieces that are not changed by the given move.
+     */
+    private Move otherSwap(Level level, Move avoided) throws LevelException {
+        List<Coordinate> cells = avoided.getSecond() == null ? List.of(avoided.getFirst())
+                : List.of(avoided.getFirst(), avoided.getSecond());
+        int size = level.getRows() * level.getColumns();
+
+        for (int first = 0; first < size; first++) {
+            for (int second = first + 1; second < size; second++) {
+                Cell a = level.getCell(new Coordinate(first / level.getColumns(), first % level.getColumns()));
+                Cell b = level.getCell(new Coordinate(second / level.getColumns(), second % level.getColumns()));
+
+                if (a.isMovable() && b.isMovable() && a.getType() != b.getType()
+                        && !cells.contains(a.getCoordinate()) && !cells.contains(b.getCoordinate())) {
+                    return Move.swap(a.getCoordinate(), b.getCoordinate());
+                }
+            }
+        }
+        throw new AssertionError("No other swap");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"levels/level1.txt", "levels/level3.txt", "levels/level5.txt", "levels/level7.txt",
+            "levels/pairs/level1.txt"})
+    @Tag("advanced")
+    @DisplayName("Advanced - Following the hints")
+    void followHints(String fileName) {
+        try {
+            Level level = new Level(fileName);
+            HintEngine engine = new HintEngine(new BeamSearchSolver());
+            String initial = level.toString();
+
+            Optional<List<Move>> plan = engine.plan(level);
+            assertTrue(plan.isPresent(), fileName);
+            assertEquals(initial, level.toString());
+
+            for (int i = 0; i < plan.get().size(); i++) {
+                Optional<Move> hint = engine.hint(level);
+                assertEquals(Optional.of(plan.get().get(i)), hint, fileName);
+                hint.get().apply(level);
+            }
+
+            assertTrue(level.isSolved(), fileName);
+            assertTrue(engine.hint(level).isEmpty());
+            assertEquals(Optional.of(List.of()), engine.plan(level));
+            //Only the first request has searched
+            assertEquals(1, engine.getNumSearches());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("followHints failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Repairing the plan after other moves")
+    void otherMoves() {
+        try {
+            Level level = new Level("levels/level7.txt");
+            HintEngine engine = new HintEngine(new BeamSearchSolver());
+            List<Move> plan = engine.plan(level).orElseThrow();
+            assertTrue(plan.size() >= 2);
+
+            //A move of the plan made before its turn is taken out of the plan
+            Move later = plan.get(plan.size() - 1);
+            later.apply(level);
+            List<Move> repaired = engine.plan(level).orElseThrow();
+            assertTrue(repaired.size() <= plan.size() - 1);
+            checkPlan(level, repaired);
+
+            //Any other move is repaired without searching, at most with one more move
+            Move other = otherSwap(level, repaired.get(0));
+            other.apply(level);
+            List<Move> next = engine.plan(level).orElseThrow();
+            assertTrue(next.size() <= repaired.size() + 1);
+            checkPlan(level, next);
+            assertEquals(1, engine.getNumSearches());
+
+            //Going back to a known state finds it in the table
+            other.apply(level);
+            assertEquals(repaired, engine.plan(level).orElseThrow());
+            assertEquals(1, engine.getNumSearches());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("otherMoves failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Unknown states")
+    void unknownStates() {
+        try {
+            Level level = new Level("levels/level7.txt");
+            HintEngine engine = new HintEngine(new BeamSearchSolver());
+            Move hint = engine.hint(level).orElseThrow();
+
+            //Two moves at once (four cells) cannot be repaired
+            Move first = otherSwap(level, hint);
+            first.apply(level);
+            otherSwap(level, first).apply(level);
+            checkPlan(level, engine.plan(level).orElseThrow());
+            assertEquals(2, engine.getNumSearches());
+
+            //Another level
+            Level other = new Level("levels/level1.txt");
+            checkPlan(other, engine.plan(other).orElseThrow());
+            assertEquals(3, engine.getNumSearches());
+
+            engine.clear();
+            checkPlan(other, engine.plan(other).orElseThrow());
+            assertEquals(4, engine.getNumSearches());
+
+            //Levels without solution
+            assertTrue(engine.hint(new Level("levels/rle/level1.txt")).isEmpty());
+            assertEquals(5, engine.getNumSearches());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("unknownStates failed");
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static edu.uoc.trip.model.solver.SolverAssertions.assertSolves;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class PortfolioSolverTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"levels/level1.txt", "levels/level2.txt", "levels/level3.txt", "levels/level4.txt",
+            "levels/level5.txt", "levels/level6.txt", "levels/level7.txt", "levels/solved/level1.txt"})
+    @Tag("advanced")
+    @DisplayName("Advanced - Small levels")
+    void smallLevels(String fileName) {
+        try {
+            PortfolioSolver solver = new PortfolioSolver(Map.of("iterative-deepening", new IterativeDeepeningSolver(),
+                    "hierarchical", new HierarchicalSolver()), Duration.ofSeconds(10));
+            Level level = new Level(fileName);
+
+            //The exact solver proves its solutions optimal long before the deadline
+            Solution solution = assertSolves(level, solver.solve(level), fileName);
+            assertTrue(solution.isOptimal(), fileName);
+            assertTrue(solver.getLastWinner().isPresent());
+            assertEquals(Map.of(solver.getLastWinner().get(), 1), solver.getWins());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("smallLevels failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Optimal solutions")
+    void optimalSolutions() {
+        try {
+            PortfolioSolver solver = new PortfolioSolver();
+            Level level = new Level("levels/level7.txt");
+
+            //The beam search finds 7 moves, but the exact solver proves that 6 are enough
+            Solution solution = assertSolves(level, solver.solve(level), "levels/level7.txt");
+            assertEquals(6, solution.getNumMoves());
+            assertTrue(solution.isOptimal());
+            assertEquals(Optional.of("iterative-deepening"), solver.getLastWinner());
+
+            Optional<Solution> exact = new IterativeDeepeningSolver().solve(new Level("levels/level7.txt"));
+            assertTrue(exact.isPresent());
+            assertEquals(6, exact.get().getLowerBound());
+            assertTrue(new IterativeDeepeningSolver(5).solve(new Level("levels/level7.txt")).isEmpty());
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("optimalSolutions failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Deadline")
+    void deadline() {
+        try {
+            Level level = new Level("levels/large/level1.txt");
+            PortfolioSolver solver = new PortfolioSolver(Map.of(
+                    "iterative-deepening", new IterativeDeepeningSolver(),
+                    "hierarchical", new HierarchicalSolver()), Duration.ofSeconds(5));
+            long start = System.nanoTime();
+
+            //The exact solver cannot finish, so the best solution at the deadline is returned
+            Solution solution = assertSolves(level, solver.solve(level), "levels/large/level1.txt");
+
+            assertFalse(solution.isOptimal());
+            assertEquals(Optional.of("hierarchical"), solver.getLastWinner());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(7));
+        } catch (LevelException e) {
+            e.printStackTrace();
+            fail("deadline failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Cancellation of the losers")
+    void cancellation() {
+        try {
+            CountDownLatch cancelled = new CountDownLatch(1);
+            Map<String, Solver> strategies = new LinkedHashMap<>();
+            strategies.put("slow", level -> {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    cancelled.countDown();
+                }
+                return Optional.empty();
+            });
+            strategies.put("exact", new IterativeDeepeningSolver());
+
+            PortfolioSolver solver = new PortfolioSolver(strategies, Duration.ofMinutes(1));
+            assertEquals(List.of("slow", "exact"), solver.getStrategies());
+
+            Level level = new Level("levels/level1.txt");
+            assertSolves(level, solver.solve(level), "levels/level1.txt");
+            assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of("exact"), solver.getLastWinner());
+
+            //Without solutions, the race ends at the deadline and nobody wins
+            Optional<Solution> none = solver.solve(new Level("levels/rle/level1.txt"),
+                    Instant.now().plusMillis(200));
+            assertTrue(none.isEmpty());
+            assertEquals(Map.of("exact", 1), solver.getWins());
+        } catch (LevelException | InterruptedException e) {
+            e.printStackTrace();
+            fail("cancellation failed");
+        }
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Strategies and budget")
+    void strategiesAndBudget() {
+        PortfolioSolver solver = new PortfolioSolver();
+        assertEquals(PortfolioSolver.DEFAULT_BUDGET, solver.getBudget());
+        assertEquals(List.of("iterative-deepening", "hierarchical", "beam-search"), solver.getStrategies());
+        assertTrue(solver.getLastWinner().isEmpty());
+        assertTrue(solver.getWins().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> new PortfolioSolver(Map.of(), Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PortfolioSolver(Map.of("exact", new IterativeDeepeningSolver()), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new IterativeDeepeningSolver(-1));
+    }
+}
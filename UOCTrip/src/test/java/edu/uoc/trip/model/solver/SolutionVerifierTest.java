@@ -0,0 +1,177 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+import edu.uoc.trip.model.levels.LevelSource;
+import edu.uoc.trip.model.utils.Coordinate;
+import org.junit.jupiter.api.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.TestInstance.Lifecycle.PER_CLASS;
+
+@TestInstance(PER_CLASS)
+class SolutionVerifierTest {
+
+    private LevelSource source;
+
+    private SolutionVerifier verifier;
+
+    /**
+     * Solution of each level of the source (index 0 for level 1).
+     */
+    private final List<Solution> solutions = new ArrayList<>();
+
+    @BeforeAll
+    void setUp() {
+        try {
+            source = LevelSource.open("levels/");
+            verifier = new SolutionVerifier(source);
+
+            for (int number = 1; number <= source.size(); number++) {
+                solutions.add(new HierarchicalSolver().solve(source.getLevel(number)).orElseThrow());
+            }
+        } catch (IOException | LevelException e) {
+            e.printStackTrace();
+            fail("setUp failed");
+        }
+    }
+
+    @AfterAll
+    void tearDown() {
+        try {
+            source.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+            fail("tearDown failed");
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Verdicts")
+    void verdicts() {
+        for (int number = 1; number <= solutions.size(); number++) {
+            List<Move> moves = solutions.get(number - 1).getMoves();
+            Verdict verdict = verifier.verify(new Submission("s" + number, number, moves, moves.size()));
+
+            assertTrue(verdict.isAccepted(), verdict.toString());
+            assertEquals("", verdict.getMessage());
+            assertEquals("s" + number, verdict.getSubmission().getId());
+        }
+
+        List<Move> moves = solutions.get(0).getMoves();
+
+        assertEquals(Verdict.Reason.WRONG_MOVE_COUNT,
+                verifier.verify(new Submission("a", 1, moves, moves.size() + 1)).getReason());
+        assertEquals(Verdict.Reason.NOT_SOLVED,
+                verifier.verify(new Submission("b", 1, List.of(), 0)).getReason());
+        assertEquals(Verdict.Reason.UNKNOWN_LEVEL,
+                verifier.verify(new Submission("c", 0, moves, moves.size())).getReason());
+        assertEquals(Verdict.Reason.UNKNOWN_LEVEL,
+                verifier.verify(new Submission("d", solutions.size() + 1, moves, moves.size())).getReason());
+
+        //The starting cell of the first level cannot be moved
+        Verdict invalid = verifier.verify(new Submission("e", 1,
+                List.of(Move.swap(new Coordinate(2, 2), new Coordinate(1, 1))), 1));
+        assertEquals(Verdict.Reason.INVALID_MOVE, invalid.getReason());
+        assertFalse(invalid.isAccepted());
+        assertTrue(invalid.getMessage().startsWith("Move 1 (swap 2 2 1 1)"), invalid.getMessage());
+        assertEquals(Verdict.Reason.INVALID_MOVE, verifier.verify(new Submission("f", 1,
+                List.of(Move.rotate(new Coordinate(10, 10))), 1)).getReason());
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Parallel verification")
+    void parallelVerification() {
+        //Every third submission claims a wrong number of moves and every fifth one has no moves
+        List<Submission> submissions = IntStream.range(0, 20000).mapToObj(i -> {
+            int number = i % solutions.size() + 1;
+            List<Move> moves = i % 5 == 0 ? List.<Move>of() : solutions.get(number - 1).getMoves();
+            return new Submission(Integer.toString(i), number, moves, moves.size() + (i % 3 == 0 ? 1 : 0));
+        }).collect(Collectors.toList());
+
+        List<Verdict> verdicts = verifier.verify(submissions.stream()).collect(Collectors.toList());
+
+        assertEquals(submissions.size(), verdicts.size());
+        for (int i = 0; i < verdicts.size(); i++) {
+            Verdict verdict = verdicts.get(i);
+            assertSame(submissions.get(i), verdict.getSubmission());
+
+            if (i % 3 == 0) {
+                assertEquals(Verdict.Reason.WRONG_MOVE_COUNT, verdict.getReason());
+            } else if (i % 5 == 0) {
+                assertEquals(Verdict.Reason.NOT_SOLVED, verdict.getReason());
+            } else {
+                assertTrue(verdict.isAccepted(), verdict.toString());
+            }
+        }
+    }
+
+    @Test
+    @Tag("advanced")
+    @DisplayName("Advanced - Source used once per level")
+    void sourceUsedOnce() {
+        AtomicInteger calls = new AtomicInteger();
+        SolutionVerifier counted = new SolutionVerifier(new LevelSource() {
+            @Override
+            public int size() {
+                calls.incrementAndGet();
+                return source.size();
+            }
+
+            @Override
+            public Level getLevel(int number) throws LevelException {
+                calls.incrementAndGet();
+                return source.getLevel(number);
+            }
+
+            @Override
+            public String getKey(int number) {
+                return source.getKey(number);
+            }
+        });
+
+        //The number of levels is only checked when the level is read
+        List<Move> moves = solutions.get(0).getMoves();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(counted.verify(new Submission("s" + i, 1, moves, moves.size())).isAccepted());
+        }
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @Tag("minimum")
+    @DisplayName("Minimum - Parsing")
+    void parsing() {
+        Move swap = Move.swap(new Coordinate(1, 2), new Coordinate(3, 4));
+        Move rotate = Move.rotate(new Coordinate(5, 6));
+
+        assertEquals(swap, Move.parse(swap.toString()));
+        assertEquals(rotate, Move.parse(" rotate  5 6 "));
+        assertThrows(IllegalArgumentException.class, () -> Move.parse("swap 1 2 3"));
+        assertThrows(IllegalArgumentException.class, () -> Move.parse("rotate a 2"));
+        assertThrows(IllegalArgumentException.class, () -> Move.parse("jump 1 2"));
+
+        Submission submission = new Submission("42", 3, List.of(swap, rotate), 2);
+        assertEquals("42;3;2;swap 1 2 3 4;rotate 5 6", submission.toString());
+
+        Submission parsed = Submission.parse(submission.toString());
+        assertEquals("42", parsed.getId());
+        assertEquals(3, parsed.getLevel());
+        assertEquals(2, parsed.getClaimedMoves());
+        assertEquals(List.of(swap, rotate), parsed.getMoves());
+        assertEquals(List.of(), Submission.parse("x;1;0").getMoves());
+
+        assertThrows(IllegalArgumentException.class, () -> Submission.parse("x;1"));
+        assertThrows(IllegalArgumentException.class, () -> Submission.parse("x;one;0"));
+        assertThrows(IllegalArgumentException.class, () -> Submission.parse("x;1;1;swap 1 2"));
+    }
+}
@@ -0,0 +1,53 @@
+package edu.uoc.trip.model.solver;
+
+import edu.uoc.trip.model.levels.Level;
+import edu.uoc.trip.model.levels.LevelException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks of the solutions that are shared by the tests of the solvers.
+ */
+final class SolverAssertions {
+
+    private SolverAssertions() {
+    }
+
+    /**
+     * Loads the level, solves it and checks that the solver does not modify the level and that its solution
+     * solves it (see {@link #assertSolves(Level, Optional, String)}).
+     *
+     * @return Solution of the solver.
+     */
+    static Solution assertSolves(Solver solver, String fileName) throws LevelException {
+        Level level = new Level(fileName);
+        String initial = level.toString();
+
+        Optional<Solution> solution = solver.solve(level);
+
+        assertEquals(initial, level.toString(), fileName);
+        return assertSolves(level, solution, fileName);
+    }
+
+    /**
+     * Checks that there is a solution and that its moves solve the level, which must be in the state in which it
+     * was solved. Levels that are already solved must get a solution without moves.
+     *
+     * @return Solution.
+     */
+    static Solution assertSolves(Level level, Optional<Solution> solution, String fileName) throws LevelException {
+        boolean solved = level.isSolved();
+
+        assertTrue(solution.isPresent(), fileName);
+        assertEquals(0, level.getNumMoves());
+
+        solution.get().apply(level);
+        assertTrue(level.isSolved(), fileName);
+        assertEquals(solution.get().getNumMoves(), level.getNumMoves());
+        assertEquals(solved, solution.get().getNumMoves() == 0, fileName);
+        assertEquals(solution.get().getNumMoves() - solution.get().getLowerBound(), solution.get().getGap());
+        return solution.get();
+    }
+}